@@ -0,0 +1,142 @@
+package ar.edu.huergo.fastbid.benchmark;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import ar.edu.huergo.fastbid.config.security.JwtAuthenticationFilter;
+import ar.edu.huergo.fastbid.service.security.JwtTokenService;
+import ar.edu.huergo.fastbid.service.security.PrincipalesJwt;
+import ar.edu.huergo.fastbid.service.security.RevocacionTokens;
+import ar.edu.huergo.fastbid.service.security.TokensVerificados;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Costo por request de {@link JwtAuthenticationFilter}, sin base de datos (el filtro actual arma
+ * el principal desde los claims), para aislar el trabajo sobre el token.
+ *
+ * {@code filtroAnterior} reproduce el flujo previo: un parser nuevo para extraer el username y
+ * otro para validar el token, es decir dos verificaciones HMAC y dos parseos del JSON.
+ * {@code filtroSinCache} valida una sola vez con el parser compartido, y {@code filtro} además
+ * resuelve el token repetido desde la cache de {@link TokensVerificados}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRETO = "clave-de-benchmark-de-al-menos-32-bytes-para-hs256";
+
+    private JwtTokenService jwtTokenService;
+    private JwtAuthenticationFilter filtro;
+    private JwtAuthenticationFilter sinCache;
+    private SecretKey clave;
+    private UserDetails usuario;
+    private String token;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private FilterChain cadena;
+
+    @Setup
+    public void preparar() {
+        jwtTokenService = new JwtTokenService(SECRETO, 3_600_000);
+        clave = Keys.hmacShaKeyFor(SECRETO.getBytes(StandardCharsets.UTF_8));
+        usuario = User.withUsername("postor@fastbid.com").password("sin-uso").roles("CLIENTE").build();
+        token = jwtTokenService.generarToken(usuario, List.of("ROLE_CLIENTE"));
+        ObjectProvider<MeterRegistry> sinMetricas =
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+        PrincipalesJwt principales = new PrincipalesJwt(username -> usuario, sinMetricas, true, 10_000, 30);
+        // Sin revocaciones: el filtro de Bloom vacío nunca consulta la base
+        RevocacionTokens revocacion = new RevocacionTokens(null, sinMetricas, 1_000_000, 0.01, 600);
+        filtro = new JwtAuthenticationFilter(
+                new TokensVerificados(jwtTokenService, revocacion, sinMetricas, 10_000), principales);
+        sinCache = new JwtAuthenticationFilter(
+                new TokensVerificados(jwtTokenService, revocacion, sinMetricas, 0), principales);
+
+        // Request mínimo: solo el header Authorization y la IP que lee WebAuthenticationDetails
+        String autorizacion = "Bearer " + token;
+        request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class},
+                (proxy, metodo, args) -> switch (metodo.getName()) {
+                    case "getHeader" -> "Authorization".equals(args[0]) ? autorizacion : null;
+                    case "getRemoteAddr" -> "127.0.0.1";
+                    case "getDispatcherType" -> DispatcherType.REQUEST;
+                    default -> valorPorDefecto(metodo);
+                });
+        response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {HttpServletResponse.class},
+                (proxy, metodo, args) -> valorPorDefecto(metodo));
+        cadena = (req, res) -> { };
+    }
+
+    @Benchmark
+    public Authentication filtroAnterior() {
+        SecurityContextHolder.clearContext();
+        String username = Jwts.parser().verifyWith(clave).build().parseSignedClaims(token)
+                .getPayload().getSubject();
+        var payload = Jwts.parser().verifyWith(clave).build().parseSignedClaims(token).getPayload();
+        if (username.equals(payload.getSubject())
+                && payload.getExpiration().toInstant().isAfter(Instant.now())) {
+            UsernamePasswordAuthenticationToken autenticacion =
+                    new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+            autenticacion.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(autenticacion);
+        }
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication filtroSinCache() throws Exception {
+        SecurityContextHolder.clearContext();
+        sinCache.doFilter(request, response, cadena);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication filtro() throws Exception {
+        SecurityContextHolder.clearContext();
+        filtro.doFilter(request, response, cadena);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static Object valorPorDefecto(Method metodo) {
+        Class<?> tipo = metodo.getReturnType();
+        if (tipo == boolean.class) {
+            return false;
+        }
+        if (tipo == int.class) {
+            return 0;
+        }
+        if (tipo == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
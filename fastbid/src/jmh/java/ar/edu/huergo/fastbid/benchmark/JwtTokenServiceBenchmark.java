@@ -0,0 +1,43 @@
+package ar.edu.huergo.fastbid.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import ar.edu.huergo.fastbid.service.security.JwtTokenService;
+
+/**
+ * Validación de un JWT, que se hace en cada request autenticado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenServiceBenchmark {
+
+    private static final String SECRETO = "clave-de-benchmark-de-al-menos-32-bytes-para-hs256";
+
+    private JwtTokenService jwtTokenService;
+    private UserDetails usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtTokenService = new JwtTokenService(SECRETO, 3_600_000);
+        usuario = User.withUsername("postor@fastbid.com").password("sin-uso").roles("CLIENTE").build();
+        token = jwtTokenService.generarToken(usuario, List.of("CLIENTE"));
+    }
+
+    @Benchmark
+    public boolean esTokenValido() {
+        return jwtTokenService.esTokenValido(token, usuario);
+    }
+}
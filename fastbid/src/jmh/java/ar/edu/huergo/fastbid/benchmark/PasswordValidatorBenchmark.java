@@ -0,0 +1,34 @@
+package ar.edu.huergo.fastbid.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import ar.edu.huergo.fastbid.util.PasswordValidator;
+
+/**
+ * Validación de fortaleza de contraseñas (registro de usuarios).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PasswordValidatorBenchmark {
+
+    private String valida = "ContraseniaSegura123!";
+    private String sinEspecial = "ContraseniaSinEspecial1234";
+
+    @Benchmark
+    public boolean isValidValida() {
+        return PasswordValidator.isValid(valida);
+    }
+
+    @Benchmark
+    public boolean isValidInvalida() {
+        return PasswordValidator.isValid(sinEspecial);
+    }
+}
@@ -0,0 +1,73 @@
+package ar.edu.huergo.fastbid.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ar.edu.huergo.fastbid.dto.ProductoDTO;
+import ar.edu.huergo.fastbid.entity.Producto;
+import ar.edu.huergo.fastbid.mapper.ProductoMapper;
+
+/**
+ * Conversión de productos a DTO, que se hace en cada listado y detalle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductoMapperBenchmark {
+
+    @Param({"20", "1000"})
+    private int cantidad;
+
+    private final ProductoMapper productoMapper = new ProductoMapper();
+    private Producto producto;
+    private List<Producto> productos;
+
+    @Setup
+    public void preparar() {
+        productos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            productos.add(crearProducto(i));
+        }
+        producto = productos.get(0);
+    }
+
+    @Benchmark
+    public ProductoDTO toDto() {
+        return productoMapper.toDto(producto);
+    }
+
+    @Benchmark
+    public List<ProductoDTO> toDtoList() {
+        return productoMapper.toDtoList(productos);
+    }
+
+    private static Producto crearProducto(int i) {
+        Producto producto = new Producto();
+        producto.setIdProducto((long) i);
+        producto.setNombre("Producto " + i);
+        producto.setDescripcion("Descripción del producto " + i);
+        producto.setPrecioInicial(100.0 + i);
+        producto.setImagenes(List.of("http://example.com/" + i + "/1.jpg", "http://example.com/" + i + "/2.jpg"));
+        producto.setCategoriaId(1L);
+        producto.setEstado("ACTIVO");
+        producto.setFechaPublicacion(LocalDateTime.now());
+        producto.setFechaFin(LocalDateTime.now().plusDays(7));
+        producto.setUsuarioId(1L);
+        producto.setPrecioCompraInmediata(500.0 + i);
+        producto.setCondicion("NUEVO");
+        producto.setUbicacion("Buenos Aires");
+        producto.setCantidad(1);
+        return producto;
+    }
+}
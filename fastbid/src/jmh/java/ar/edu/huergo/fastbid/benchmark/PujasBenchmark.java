@@ -0,0 +1,69 @@
+package ar.edu.huergo.fastbid.benchmark;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ar.edu.huergo.fastbid.dto.subastas.ResultadoPujaDTO;
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import ar.edu.huergo.fastbid.service.subastas.CierreSuave;
+import ar.edu.huergo.fastbid.service.subastas.EstadoSubasta;
+
+/**
+ * Validación y aceptación de pujas en {@link EstadoSubasta}, que es lo que ejecuta el hilo
+ * de cada shard del motor. Se mide con y sin pujas automáticas registradas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PujasBenchmark {
+
+    @Param({"0", "1000"})
+    private int pujasAutomaticas;
+
+    private EstadoSubasta estado;
+    private double proximoMonto;
+    private long ahora;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        Subasta subasta = new Subasta();
+        subasta.setIdSubasta(1L);
+        subasta.setFechaInicio(OffsetDateTime.now().minusHours(1));
+        subasta.setFechaFin(OffsetDateTime.now().plusDays(1));
+        subasta.setPrecioInicial(100.0);
+        subasta.setPrecioActual(100.0);
+        subasta.setIncrementoMinimo(1.0);
+        subasta.setEstado(SubastaEstado.ACTIVA);
+        estado = new EstadoSubasta(subasta, new CierreSuave(0, 0));
+        ahora = System.currentTimeMillis();
+
+        // Máximos por debajo del precio de las pujas medidas: se evalúan pero no responden
+        for (int i = 0; i < pujasAutomaticas; i++) {
+            estado.cargarMaxima(10_000 + i, 100.0 + i * 0.01);
+        }
+        proximoMonto = 1_000.0;
+    }
+
+    @Benchmark
+    public ResultadoPujaDTO pujaAceptada() {
+        ResultadoPujaDTO resultado = estado.aplicarPuja(1L, proximoMonto, ahora);
+        proximoMonto += 1.0;
+        return resultado;
+    }
+
+    @Benchmark
+    public ResultadoPujaDTO pujaRechazadaPorMonto() {
+        return estado.aplicarPuja(2L, 1.0, ahora);
+    }
+}
@@ -1,16 +1,18 @@
 package ar.edu.huergo.fastbid.config.security;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import ar.edu.huergo.fastbid.service.security.JwtTokenService;
+import ar.edu.huergo.fastbid.service.security.PrincipalesJwt;
+import ar.edu.huergo.fastbid.service.security.TokenValidado;
+import ar.edu.huergo.fastbid.service.security.TokensVerificados;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,17 +23,18 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtTokenService jwtTokenService;
-    private final UserDetailsService userDetailsService;
+    private final TokensVerificados tokensVerificados;
+    private final PrincipalesJwt principalesJwt;
 
     @Override
     // Este método se ejecuta en cada solicitud HTTP que llega a la aplicación.
     // Flujo resumido del filtro:
     // 1) Lee el header Authorization y extrae el token si comienza con "Bearer ".
-    // 2) Usa JwtTokenService para obtener el username del token.
+    // 2) Valida el token (firma y expiración) una sola vez y obtiene sus claims;
+    // si el mismo token ya se verificó antes, sale de la cache de TokensVerificados.
     // 3) Si no hay autenticación previa en el contexto y el token es válido,
     // crea un UsernamePasswordAuthenticationToken con las autoridades del usuario
-    // y lo coloca en el SecurityContext.
+    // (tomadas del claim "roles", sin ir a la base) y lo coloca en el SecurityContext.
     // 4) Continúa la cadena de filtros para que el request llegue al controlador.
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
@@ -39,33 +42,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization"); //Obtiene el header Authorization
         // Verifica si el header no es nulo y comienza con "Bearer "
         // (es el formato estándar para tokens JWT).
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             String token = authHeader.substring(7);
-            String username = null;
-            // Intenta extraer el username del token usando JwtTokenService.
-            // Si falla, username se queda como null.
-            try {
-                username = jwtTokenService.extraerUsername(token);
-            } catch (Exception ignored) {
-            }
+            // Una única verificación de firma: si el token es inválido o expiró,
+            // no se hace nada y el request sigue sin autenticación.
+            Optional<TokenValidado> validado = tokensVerificados.validar(token);
 
-            // Si hay un username y no hay autenticación previa en el contexto,
-            // carga los detalles del usuario desde el UserDetailsService.
-            // Si el token es válido, crea un UsernamePasswordAuthenticationToken
-            // con las autoridades del usuario y lo coloca en el SecurityContext.
+            // Con el token ya validado, arma el principal a partir de sus claims
+            // (ver PrincipalesJwt) y coloca la autenticación en el SecurityContext.
             // Esto permite que el usuario esté autenticado para el resto del request.
-            // Si el token no es válido, no se hace nada y el request sigue sin autenticación.
-            if (username != null
-                    && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if (jwtTokenService.esTokenValido(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(userDetails, null,
-                                    userDetails.getAuthorities());
-                    authToken
-                            .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            if (validado.isPresent()) {
+                UserDetails userDetails = principalesJwt.principal(validado.get());
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(userDetails, null,
+                                userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
 
@@ -0,0 +1,119 @@
+package ar.edu.huergo.fastbid.config.security;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.huergo.fastbid.service.security.UsuarioAutenticado;
+import ar.edu.huergo.fastbid.util.LimitadorTasa;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limita la tasa de pedidos sobre los caminos de escritura más expuestos: pujas, pujas
+ * automáticas, compra inmediata, altas/modificaciones/bajas de productos y subida de
+ * imágenes.
+ *
+ * Corre después de {@link JwtAuthenticationFilter}: cada pedido consume un token del balde
+ * de su IP y, si ya está autenticado, también del balde de su usuario (por el id que trae
+ * el principal). Si alguno está vacío se responde 429 con {@code Retry-After} sin llegar al
+ * controlador. Un pedido que rechaza el balde del usuario le devuelve el token a la IP:
+ * un usuario que se pasa no agota el balde compartido por todos los que están detrás de
+ * la misma IP (NAT).
+ */
+@Component
+public class LimiteTasaFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher RUTAS = new AntPathMatcher();
+
+    private final boolean habilitado;
+    private final LimitadorTasa porUsuario;
+    private final LimitadorTasa porIp;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public LimiteTasaFilter(@Value("${fastbid.limite.habilitado:true}") boolean habilitado,
+            @Value("${fastbid.limite.usuario.capacidad:20}") int capacidadUsuario,
+            @Value("${fastbid.limite.usuario.por-segundo:10}") double porSegundoUsuario,
+            @Value("${fastbid.limite.ip.capacidad:100}") int capacidadIp,
+            @Value("${fastbid.limite.ip.por-segundo:50}") double porSegundoIp,
+            @Value("${fastbid.limite.ociosidad-segundos:300}") long ociosidadSegundos) {
+        long ociosidadNanos = TimeUnit.SECONDS.toNanos(ociosidadSegundos);
+        long ahora = System.nanoTime();
+        this.habilitado = habilitado;
+        this.porUsuario = new LimitadorTasa(capacidadUsuario, porSegundoUsuario, ociosidadNanos, ahora);
+        this.porIp = new LimitadorTasa(capacidadIp, porSegundoIp, ociosidadNanos, ahora);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!habilitado) {
+            return true;
+        }
+        String ruta = request.getRequestURI();
+        String metodo = request.getMethod();
+        if (HttpMethod.POST.matches(metodo)) {
+            return !RUTAS.match("/api/subastas/*/pujas", ruta)
+                    && !RUTAS.match("/api/subastas/*/pujas-automaticas", ruta)
+                    && !RUTAS.match("/api/subastas/*/compra-inmediata", ruta)
+                    && !RUTAS.match("/api/productos/**", ruta)
+                    && !RUTAS.match("/api/imagenes", ruta);
+        }
+        return !(HttpMethod.PUT.matches(metodo) || HttpMethod.PATCH.matches(metodo)
+                || HttpMethod.DELETE.matches(metodo))
+                || !RUTAS.match("/api/productos/**", ruta);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long ahora = System.nanoTime();
+        String ip = request.getRemoteAddr();
+        long espera = porIp.intentar(ip, ahora);
+
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (espera == 0 && autenticacion != null && autenticacion.isAuthenticated()) {
+            espera = porUsuario.intentar(claveDeUsuario(autenticacion), ahora);
+            if (espera > 0) {
+                porIp.devolver(ip);
+            }
+        }
+
+        if (espera > 0) {
+            rechazar(response, espera);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // El id del claim uid; el username solo para tokens emitidos antes de que existiera
+    private static String claveDeUsuario(Authentication autenticacion) {
+        if (autenticacion.getPrincipal() instanceof UsuarioAutenticado usuario && usuario.getId() != null) {
+            return usuario.getId().toString();
+        }
+        return autenticacion.getName();
+    }
+
+    private void rechazar(HttpServletResponse response, long esperaNanos) throws IOException {
+        long segundos = Math.max(1, (esperaNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(segundos));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(Map.of("type",
+                "https://http.dev/problems/too-many-requests", "title", "Demasiados pedidos",
+                "status", 429, "detail", "Reintente en " + segundos + " segundos")));
+    }
+}
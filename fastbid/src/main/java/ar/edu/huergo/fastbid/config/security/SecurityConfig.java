@@ -1,5 +1,6 @@
 package ar.edu.huergo.fastbid.config.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,6 +11,8 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -22,6 +25,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import ar.edu.huergo.fastbid.repository.security.UsuarioRepository;
+import ar.edu.huergo.fastbid.service.security.UsuarioAutenticado;
 
 @Configuration
 @EnableMethodSecurity
@@ -29,12 +33,14 @@ public class SecurityConfig {
 
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity http,
-            JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+            JwtAuthenticationFilter jwtAuthenticationFilter, LimiteTasaFilter limiteTasaFilter)
+            throws Exception {
         // Configuración central de Spring Security con JWT:
         // - Deshabilitamos CSRF porque no usamos cookies/sesiones en un API stateless.
         // - Forzamos manejo de sesión sin estado (los datos de auth vienen en el JWT).
         // - Permitimos libre acceso solo al login, el resto requiere autenticación y roles.
         // - Registramos nuestro filtro JWT antes del filtro de usuario/contraseña.
+        // - Inmediatamente después, el límite de tasa (ya conoce al usuario autenticado).
         http.csrf(csrf -> csrf.disable())
                 .sessionManagement(
                         session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -46,7 +52,15 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/productos/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/productos/**").hasAnyRole("ADMIN", "VENDEDOR")
                         .requestMatchers(HttpMethod.PUT, "/api/productos/**").hasAnyRole("ADMIN", "VENDEDOR")
+                        .requestMatchers(HttpMethod.PATCH, "/api/productos/**").hasAnyRole("ADMIN", "VENDEDOR")
                         .requestMatchers(HttpMethod.DELETE, "/api/productos/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/imagenes/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/imagenes").hasAnyRole("ADMIN", "VENDEDOR")
+                        .requestMatchers(HttpMethod.GET, "/api/subastas/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/subastas/*/pujas").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/subastas/*/pujas-automaticas").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/subastas/*/compra-inmediata").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/subastas").hasAnyRole("ADMIN", "VENDEDOR")
                         .anyRequest().authenticated())
                 .formLogin(form -> form
                         .loginPage("/login")
@@ -58,13 +72,16 @@ public class SecurityConfig {
                         exceptions -> exceptions.accessDeniedHandler(accessDeniedHandler())
                                 .authenticationEntryPoint(authenticationEntryPoint()))
                 .addFilterBefore(jwtAuthenticationFilter,
-                        UsernamePasswordAuthenticationFilter.class);
+                        UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(limiteTasaFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(@Value("${fastbid.seguridad.bcrypt.costo:10}") int costo) {
+        // El costo de BCrypt es configurable; los hashes viejos con un costo menor se
+        // regeneran en el próximo login exitoso (ver userDetailsPasswordService)
+        return new BCryptPasswordEncoder(costo);
     }
 
     @Bean
@@ -99,24 +116,40 @@ public class SecurityConfig {
 
     @Bean
     UserDetailsService userDetailsService(UsuarioRepository usuarioRepository) {
-        // Adaptamos nuestra entidad Usuario a UserDetails de Spring Security.
+        // Adaptamos nuestra entidad Usuario a UserDetails de Spring Security. El principal
+        // conserva el id para que viaje en el JWT (claim uid).
         return username -> usuarioRepository.findByUsername(username)
-                .map(usuario -> org.springframework.security.core.userdetails.User
-                        .withUsername(usuario.getUsername()).password(usuario.getPassword())
-                        .roles(usuario.getRoles().stream().map(r -> r.getNombre())
-                                .toArray(String[]::new))
-                        .build())
+                .map(usuario -> new UsuarioAutenticado(usuario.getId(), usuario.getUsername(),
+                        usuario.getPassword(), usuario.getRoles().stream()
+                                .map(r -> new SimpleGrantedAuthority("ROLE_" + r.getNombre()))
+                                .toList()))
                 .orElseThrow(
                         () -> new UsernameNotFoundException("Usuario no encontrado: " + username));
     }
 
+    @Bean
+    UserDetailsPasswordService userDetailsPasswordService(UsuarioRepository usuarioRepository) {
+        // Rehash transparente: tras un login válido, si el encoder indica que el hash guardado
+        // quedó desactualizado (costo menor), DaoAuthenticationProvider lo regenera con la
+        // contraseña recibida y lo persiste acá.
+        return (user, newPassword) -> {
+            usuarioRepository.findByUsername(user.getUsername()).ifPresent(usuario -> {
+                usuario.setPassword(newPassword);
+                usuarioRepository.save(usuario);
+            });
+            Long id = user instanceof UsuarioAutenticado usuario ? usuario.getId() : null;
+            return new UsuarioAutenticado(id, user.getUsername(), newPassword, user.getAuthorities());
+        };
+    }
+
     @Bean
     DaoAuthenticationProvider daoAuthenticationProvider(UserDetailsService userDetailsService,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder, UserDetailsPasswordService userDetailsPasswordService) {
         // Provider de autenticación que usa nuestro UserDetailsService y el encoder
         // para validar credentials en /api/auth/login.
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         return provider;
     }
 
@@ -5,6 +5,7 @@ import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 
+import ar.edu.huergo.fastbid.service.security.SobrecargaLoginException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
@@ -110,6 +112,19 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
+    @ExceptionHandler(SobrecargaLoginException.class)
+    public ResponseEntity<ProblemDetail> handleSobrecargaLogin(SobrecargaLoginException ex) {
+        ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        problem.setTitle("Servicio sobrecargado");
+        problem.setDetail(ex.getMessage());
+        problem.setType(URI.create("https://http.dev/problems/service-unavailable"));
+        // Log de advertencia: se descartó un login por la cola llena
+        log.warn("Login rechazado por sobrecarga, Retry-After {}s", ex.getReintentarEnSegundos());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getReintentarEnSegundos()))
+                .body(problem);
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ProblemDetail handleMissingRequestParam(MissingServletRequestParameterException ex) {
         ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
@@ -0,0 +1,158 @@
+package ar.edu.huergo.fastbid.controller.imagenes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import ar.edu.huergo.fastbid.dto.ImagenDTO;
+import ar.edu.huergo.fastbid.service.imagenes.AlmacenImagenes;
+import ar.edu.huergo.fastbid.service.imagenes.ImagenAlmacenada;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Subida y entrega de imágenes del almacén local.
+ *
+ * La entrega no pasa los bytes por el heap: si el conector lo permite se delega en el
+ * sendfile de Tomcat (el kernel copia del archivo al socket). Si no, se usa
+ * {@link FileChannel#transferTo} hacia la salida del servlet, que copia por un buffer
+ * acotado sin cargar el archivo. Soporta un rango de bytes ({@code Range}) y, como el
+ * nombre es el hash del contenido, se marca cacheable por un año e inmutable.
+ */
+@RestController
+@RequestMapping("/api/imagenes")
+@RequiredArgsConstructor
+public class ImagenController {
+
+    private static final Pattern RANGO = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final String CACHE_INMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic().getHeaderValue() + ", immutable";
+    // Una miniatura pendiente se sirve con la imagen original por poco tiempo
+    private static final String CACHE_PROVISORIA = CacheControl.maxAge(Duration.ofSeconds(60))
+            .cachePublic().getHeaderValue();
+
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    private final AlmacenImagenes almacenImagenes;
+
+    @PostMapping
+    public ResponseEntity<ImagenDTO> subirImagen(@RequestParam("archivo") MultipartFile archivo) throws IOException {
+        ImagenAlmacenada imagen;
+        try (var contenido = archivo.getInputStream()) {
+            imagen = almacenImagenes.guardar(contenido);
+        }
+        var url = ServletUriComponentsBuilder.fromCurrentRequest().path("/{nombre}")
+                .buildAndExpand(imagen.nombre()).toUri();
+        return ResponseEntity.created(url).body(new ImagenDTO(imagen.nombre(), url.getPath(),
+                url.getPath() + "/miniatura", imagen.bytes(), imagen.tipoContenido()));
+    }
+
+    @GetMapping("/{nombre}")
+    public void obtenerImagen(@PathVariable String nombre, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        enviar(almacenImagenes.buscar(nombre), CACHE_INMUTABLE, request, response);
+    }
+
+    @GetMapping("/{nombre}/miniatura")
+    public void obtenerMiniatura(@PathVariable String nombre, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<ImagenAlmacenada> miniatura = almacenImagenes.buscarMiniatura(nombre);
+        if (miniatura.isPresent()) {
+            enviar(miniatura, CACHE_INMUTABLE, request, response);
+        } else {
+            enviar(almacenImagenes.buscar(nombre), CACHE_PROVISORIA, request, response);
+        }
+    }
+
+    private void enviar(Optional<ImagenAlmacenada> encontrada, String cacheControl, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (encontrada.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        ImagenAlmacenada imagen = encontrada.get();
+        String etag = "\"" + imagen.ruta().getFileName() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(imagen.tipoContenido());
+
+        String siNoCoincide = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (siNoCoincide != null && (siNoCoincide.contains(etag) || siNoCoincide.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long total = imagen.bytes();
+        long inicio = 0;
+        long fin = total - 1;
+        String rango = request.getHeader(HttpHeaders.RANGE);
+        if (rango != null) {
+            Matcher partes = RANGO.matcher(rango.trim());
+            // Varios rangos o un formato desconocido: se ignora el encabezado y va el archivo entero
+            if (partes.matches() && !(partes.group(1).isEmpty() && partes.group(2).isEmpty())) {
+                if (partes.group(1).isEmpty()) {
+                    inicio = Math.max(0, total - Long.parseLong(partes.group(2)));
+                } else {
+                    inicio = Long.parseLong(partes.group(1));
+                    if (!partes.group(2).isEmpty()) {
+                        fin = Math.min(fin, Long.parseLong(partes.group(2)));
+                    }
+                }
+                if (inicio > fin) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + total);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fin + "/" + total);
+            }
+        }
+        long largo = fin - inicio + 1;
+        response.setContentLengthLong(largo);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            // Tomcat envía el archivo con sendfile al terminar el pedido
+            request.setAttribute(SENDFILE_ARCHIVO, imagen.ruta().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIN, fin + 1);
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(imagen.ruta(), StandardOpenOption.READ)) {
+            OutputStream salida = response.getOutputStream();
+            WritableByteChannel destino = Channels.newChannel(salida);
+            long enviados = 0;
+            while (enviados < largo) {
+                enviados += canal.transferTo(inicio + enviados, largo - enviados, destino);
+            }
+            salida.flush();
+        }
+    }
+}
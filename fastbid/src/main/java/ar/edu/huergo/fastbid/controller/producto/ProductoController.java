@@ -1,24 +1,57 @@
 package ar.edu.huergo.fastbid.controller.producto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.huergo.fastbid.dto.PaginaDTO;
 import ar.edu.huergo.fastbid.dto.ProductoDTO;
+import ar.edu.huergo.fastbid.dto.ResultadoImportacionDTO;
+import ar.edu.huergo.fastbid.dto.ResultadoFiltroDTO;
 import ar.edu.huergo.fastbid.entity.Producto;
 import ar.edu.huergo.fastbid.mapper.ProductoMapper;
+import ar.edu.huergo.fastbid.service.ImportadorProductos;
+import ar.edu.huergo.fastbid.service.OrdenProductos;
 import ar.edu.huergo.fastbid.service.ProductoService;
+import ar.edu.huergo.fastbid.service.ProductoVersionado;
+import ar.edu.huergo.fastbid.service.VersionCatalogo;
+import ar.edu.huergo.fastbid.service.busqueda.FiltroProductos;
+import ar.edu.huergo.fastbid.util.MergePatch;
 import jakarta.validation.Valid;
 
 
@@ -34,18 +67,129 @@ public class ProductoController {
     @Autowired
     private ProductoMapper productoMapper;
 
+    @Autowired
+    private VersionCatalogo versionCatalogo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ImportadorProductos importadorProductos;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // El detalle se puede reusar unos segundos; los listados se revalidan siempre (el 304 es barato)
+    private static final CacheControl CACHE_DETALLE = CacheControl.maxAge(Duration.ofSeconds(15))
+            .cachePublic().mustRevalidate();
+    private static final CacheControl CACHE_LISTADO = CacheControl.noCache().cachePublic();
+    // "Próximos a finalizar" cambia con el reloj aunque no cambie el catálogo: sin ETag
+    private static final CacheControl CACHE_LISTADO_POR_FIN = CacheControl.maxAge(Duration.ofSeconds(5))
+            .cachePublic();
+
+    /**
+     * Listado paginado por cursor. {@code orden}: "id" (por defecto) o "fin" (próximos a
+     * finalizar). Para la página siguiente se envía el {@code siguienteCursor} recibido.
+     */
     @GetMapping
-    public ResponseEntity<List<ProductoDTO>> obtenerProductos() {
-        List<Producto> productos = productoService.obtenerProductos();
-        List<ProductoDTO> productosDto = productoMapper.toDtoList(productos);
-        return ResponseEntity.ok(productosDto);
+    public ResponseEntity<PaginaDTO<ProductoDTO>> obtenerProductos(
+            @RequestParam(defaultValue = "id") String orden,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamanio,
+            WebRequest request) {
+        OrdenProductos ordenProductos = OrdenProductos.desde(orden);
+        Supplier<PaginaDTO<ProductoDTO>> pagina = () -> {
+            PaginaDTO<Producto> productos = productoService.obtenerPagina(ordenProductos, cursor, tamanio);
+            return new PaginaDTO<>(productoMapper.toDtoList(productos.contenido()), productos.siguienteCursor());
+        };
+        if (ordenProductos == OrdenProductos.FIN_PROXIMO) {
+            return ResponseEntity.ok().cacheControl(CACHE_LISTADO_POR_FIN).body(pagina.get());
+        }
+        return listado(request, pagina);
     }
     
+    /**
+     * Búsqueda de texto en nombre y descripción, sin distinguir mayúsculas ni acentos,
+     * ordenada por relevancia.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductoDTO>> buscarProductos(@RequestParam String q,
+            @RequestParam(defaultValue = "20") int limite, WebRequest request) {
+        return listado(request, () -> productoMapper.toDtoList(productoService.buscar(q, limite)));
+    }
+
+    /**
+     * Listado filtrado por facetas, con conteos por valor. Los parámetros de lista se repiten
+     * para combinar valores con OR (ej. {@code ?categoriaId=1&categoriaId=2&condicion=NUEVO}).
+     */
+    @GetMapping("/filtrar")
+    public ResponseEntity<ResultadoFiltroDTO<ProductoDTO>> filtrarProductos(
+            @RequestParam(required = false) List<Long> categoriaId,
+            @RequestParam(required = false) List<String> condicion,
+            @RequestParam(required = false) List<String> ubicacion,
+            @RequestParam(required = false) Double precioMin,
+            @RequestParam(required = false) Double precioMax,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamanio,
+            WebRequest request) {
+        FiltroProductos filtro = new FiltroProductos(categoriaId, condicion, ubicacion, precioMin, precioMax);
+        return listado(request, () -> {
+            ResultadoFiltroDTO<Producto> resultado = productoService.filtrar(filtro, cursor, tamanio);
+            return new ResultadoFiltroDTO<>(productoMapper.toDtoList(resultado.contenido()),
+                    resultado.siguienteCursor(), resultado.total(), resultado.facetas());
+        });
+    }
+
+    /**
+     * Exportación del catálogo completo como NDJSON (un producto por línea), en orden de id.
+     * Se escribe a medida que se lee de la base, así que la memoria no depende del tamaño
+     * del catálogo. Con {@code updatedSince} (ISO-8601 con offset, p. ej. {@code ...Z} o
+     * {@code ...-03:00}) solo incluye lo modificado desde ese instante; si el cliente acepta
+     * gzip, la respuesta va comprimida.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarCatalogo(
+            @RequestParam(name = "updatedSince", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime actualizadoDesde,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion) {
+        boolean gzip = aceptaCodificacion != null && aceptaCodificacion.contains("gzip");
+        StreamingResponseBody cuerpo = salida -> {
+            OutputStream destino = gzip ? new GZIPOutputStream(salida, 64 * 1024) : salida;
+            try (JsonGenerator generador = objectMapper.getFactory().createGenerator(destino)) {
+                generador.setRootValueSeparator(null);
+                productoService.exportarCatalogo(actualizadoDesde == null ? null : actualizadoDesde.toInstant(),
+                        producto -> {
+                    try {
+                        generador.writeObject(producto);
+                        generador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(cuerpo);
+    }
+
+    /**
+     * Detalle de un producto con ETag fuerte según su versión. Si el producto está en cache y
+     * el cliente envía el ETag vigente en {@code If-None-Match}, se responde 304 sin consultar
+     * la base ni serializar el cuerpo.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductoDTO> obtenerProductoPorId(@PathVariable Long id) {
-        Producto producto = productoService.obteneProductoPorId(id);
-        ProductoDTO productoDto = productoMapper.toDto(producto);
-        return ResponseEntity.ok(productoDto);
+    public ResponseEntity<ProductoDTO> obtenerProductoPorId(@PathVariable Long id, WebRequest request) {
+        ProductoVersionado producto = productoService.obtenerProductoVersionadoPorId(id);
+        if (producto == null) {
+            return ResponseEntity.ok(null);
+        }
+        return condicional(request, producto.etag(), producto.modificado(), CACHE_DETALLE, producto::producto);
     }
 
     @PostMapping
@@ -57,6 +201,17 @@ public class ProductoController {
         return ResponseEntity.created(location).body(productoMapper.toDto(productoCreado));
     }
     
+    /**
+     * Alta masiva desde un archivo CSV ({@code text/csv}) o NDJSON
+     * ({@code application/x-ndjson}) enviado como cuerpo. Devuelve cuántas filas se importaron
+     * y el error de cada fila rechazada; las filas válidas se importan igual.
+     */
+    @PostMapping(path = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ResultadoImportacionDTO> importarProductos(InputStream cuerpo,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String tipoContenido) throws IOException {
+        return ResponseEntity.ok(importadorProductos.importar(cuerpo, ImportadorProductos.Formato.desde(tipoContenido)));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductoDTO> actualizarProducto(@PathVariable Long id, @Valid @RequestBody ProductoDTO productoDto) {
         Producto producto = productoMapper.toEntity(productoDto);
@@ -64,9 +219,52 @@ public class ProductoController {
         return ResponseEntity.ok(productoMapper.toDto(productoActualizado));
     }
 
+    /**
+     * Modificación parcial con JSON Merge Patch (RFC 7396): solo se envían los campos que
+     * cambian, ej. {@code {"precioInicial": 1500}}. {@code idProducto} no se puede cambiar.
+     */
+    @PatchMapping(path = "/{id}", consumes = "application/merge-patch+json")
+    public ResponseEntity<ProductoDTO> modificarProducto(@PathVariable Long id, @RequestBody JsonNode patch) {
+        if (!patch.isObject()) {
+            throw new IllegalArgumentException("El merge patch debe ser un objeto JSON");
+        }
+        Producto modificado = productoService.modificarProducto(id, actual -> {
+            try {
+                ProductoDTO nuevo = objectMapper.treeToValue(
+                        MergePatch.aplicar(objectMapper.valueToTree(actual), patch), ProductoDTO.class);
+                if (nuevo.idProducto() == null || !nuevo.idProducto().equals(actual.idProducto())) {
+                    throw new IllegalArgumentException("No se puede modificar idProducto");
+                }
+                return nuevo;
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Merge patch inválido: " + e.getOriginalMessage(), e);
+            }
+        });
+        return ResponseEntity.ok(productoMapper.toDto(modificado));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> eliminarProducto(@PathVariable Long id) {
         productoService.eliminarProducto(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Respuesta condicional de un listado: el ETag es la versión del catálogo, que se lee
+     * antes de consultar, así que un listado sin cambios no llega a la base.
+     */
+    private <T> ResponseEntity<T> listado(WebRequest request, Supplier<T> cuerpo) {
+        return condicional(request, versionCatalogo.etag(), versionCatalogo.modificado(), CACHE_LISTADO, cuerpo);
+    }
+
+    // checkNotModified evalúa If-None-Match / If-Modified-Since y deja ETag y Last-Modified
+    // en la respuesta; el cuerpo solo se arma si hace falta
+    private static <T> ResponseEntity<T> condicional(WebRequest request, String etag, Instant modificado,
+            CacheControl cacheControl, Supplier<T> cuerpo) {
+        long modificadoMillis = modificado == null ? -1 : modificado.toEpochMilli();
+        if (request.checkNotModified(etag, modificadoMillis)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(cuerpo.get());
+    }
 }
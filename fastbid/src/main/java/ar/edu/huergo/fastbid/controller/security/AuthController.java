@@ -2,19 +2,25 @@ package ar.edu.huergo.fastbid.controller.security;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import ar.edu.huergo.fastbid.dto.security.LoginDTO;
+import ar.edu.huergo.fastbid.service.security.EjecutorContrasenias;
 import ar.edu.huergo.fastbid.service.security.JwtTokenService;
+import ar.edu.huergo.fastbid.service.security.RevocacionTokens;
+import ar.edu.huergo.fastbid.service.security.TokensVerificados;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -25,24 +31,39 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenService jwtTokenService;
-    private final UserDetailsService userDetailsService;
-
+    private final EjecutorContrasenias ejecutorContrasenias;
+    private final TokensVerificados tokensVerificados;
+    private final RevocacionTokens revocacionTokens;
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody @Valid LoginDTO request) {
-        // 1) Autenticar credenciales username/password (lanza excepción si no son válidas)
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password()));
-
-        // 2) Cargar UserDetails y derivar roles/authorities
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.username());
-        List<String> roles =
-                userDetails.getAuthorities().stream().map(a -> a.getAuthority()).toList();
-        // 3) Generar token JWT firmado con el username como subject y los roles como claims
-        String token = jwtTokenService.generarToken(userDetails, roles);
-        // 4) Responder con el token (el cliente deberá enviarlo en el header Authorization)
-        return ResponseEntity.ok(Map.of("token", token));
-    }
-}
+    public CompletableFuture<ResponseEntity<Map<String, String>>> login(
+            @RequestBody @Valid LoginDTO request) {
+        // Todo el login corre en el ejecutor de contraseñas (BCrypt no ocupa los hilos del
+        // servlet); si su cola está llena se responde 503 con Retry-After sin encolarlo
+        return ejecutorContrasenias.ejecutar(() -> {
+            // 1) Autenticar credenciales username/password (lanza excepción si no son válidas).
+            // Si el hash guardado usa un costo de BCrypt menor al configurado, se regenera acá
+            Authentication autenticacion = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.username(), request.password()));
 
+            // 2) Tomar el UserDetails ya cargado por la autenticación y derivar roles/authorities
+            UserDetails userDetails = (UserDetails) autenticacion.getPrincipal();
+            List<String> roles =
+                    userDetails.getAuthorities().stream().map(a -> a.getAuthority()).toList();
+            // 3) Generar token JWT firmado con el username como subject y los roles como claims
+            String token = jwtTokenService.generarToken(userDetails, roles);
+            // 4) Responder con el token (el cliente deberá enviarlo en el header Authorization)
+            return ResponseEntity.ok(Map.of("token", token));
+        });
+    }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) {
+        // El filtro JWT ya autenticó el request con este token: se revoca hasta su expiración,
+        // así deja de servir aunque alguien lo haya copiado
+        String token = authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
+        tokensVerificados.validar(token).ifPresent(revocacionTokens::revocar);
+        tokensVerificados.invalidar(token);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,146 @@
+package ar.edu.huergo.fastbid.controller.subastas;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import ar.edu.huergo.fastbid.dto.subastas.PujaAutomaticaDTO;
+import ar.edu.huergo.fastbid.dto.subastas.PujaDTO;
+import ar.edu.huergo.fastbid.dto.subastas.ResultadoPujaDTO;
+import ar.edu.huergo.fastbid.dto.subastas.SubastaDTO;
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.mapper.subastas.SubastaMapper;
+import ar.edu.huergo.fastbid.service.security.UsuarioAutenticado;
+import ar.edu.huergo.fastbid.service.security.UsuarioService;
+import ar.edu.huergo.fastbid.service.subastas.DifusorPrecios;
+import ar.edu.huergo.fastbid.service.subastas.MotorPujas;
+import ar.edu.huergo.fastbid.service.subastas.SubastaService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/subastas")
+@RequiredArgsConstructor
+public class SubastaController {
+
+    private final SubastaService subastaService;
+    private final SubastaMapper subastaMapper;
+    private final MotorPujas motorPujas;
+    private final UsuarioService usuarioService;
+    private final DifusorPrecios difusorPrecios;
+
+    @Value("${fastbid.pujas.en-memoria:true}")
+    private boolean pujasEnMemoria;
+
+    @GetMapping
+    public ResponseEntity<List<SubastaDTO>> obtenerSubastas() {
+        List<Subasta> subastas = subastaService.obtenerSubastas();
+        return ResponseEntity.ok(subastaMapper.toDtoList(subastas));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SubastaDTO> obtenerSubastaPorId(@PathVariable Long id) {
+        Subasta subasta = subastaService.obtenerSubastaPorId(id);
+        return ResponseEntity.ok(subastaMapper.toDto(subasta));
+    }
+
+    /**
+     * Canal SSE con los cambios de precio y líder de la subasta. Envía el estado actual al
+     * conectarse y luego, como mucho, un evento por ventana de coalescencia.
+     */
+    @GetMapping(path = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirse(@PathVariable Long id) {
+        return difusorPrecios.suscribir(id,
+                () -> subastaMapper.toPrecioDto(subastaService.obtenerSubastaPorId(id)));
+    }
+
+    @PostMapping
+    public ResponseEntity<SubastaDTO> crearSubasta(@Valid @RequestBody SubastaDTO subastaDto) {
+        Subasta subasta = subastaMapper.toEntity(subastaDto);
+        Subasta subastaCreada = subastaService.crearSubasta(subasta);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+                .buildAndExpand(subastaCreada.getIdSubasta()).toUri();
+        return ResponseEntity.created(location).body(subastaMapper.toDto(subastaCreada));
+    }
+
+    /**
+     * Registra una puja del usuario autenticado: 200 si fue aceptada, 409 si no.
+     * Con el motor en memoria la respuesta se resuelve de forma asíncrona cuando el shard
+     * de la subasta procesó la puja; si no, se usa el camino optimista contra la base.
+     */
+    @PostMapping("/{id}/pujas")
+    public CompletableFuture<ResponseEntity<ResultadoPujaDTO>> pujar(@PathVariable Long id,
+            @Valid @RequestBody PujaDTO pujaDto, Authentication authentication) {
+        Long usuarioId = usuarioId(authentication);
+        if (!pujasEnMemoria) {
+            return CompletableFuture.completedFuture(
+                    aRespuesta(subastaService.pujar(id, usuarioId, pujaDto.monto())));
+        }
+        return motorPujas.pujar(id, usuarioId, pujaDto.monto()).thenApply(this::aRespuesta);
+    }
+
+    /**
+     * Compra inmediata al precio de {@code compraInmediata}: 200 para el primer comprador,
+     * 409 para cualquier compra o puja posterior.
+     */
+    @PostMapping("/{id}/compra-inmediata")
+    public CompletableFuture<ResponseEntity<ResultadoPujaDTO>> comprarAhora(@PathVariable Long id,
+            Authentication authentication) {
+        Long usuarioId = usuarioId(authentication);
+        if (!pujasEnMemoria) {
+            return CompletableFuture.completedFuture(aRespuesta(subastaService.comprarAhora(id, usuarioId)));
+        }
+        return motorPujas.comprarAhora(id, usuarioId).thenApply(this::aRespuesta);
+    }
+
+    /**
+     * Registra o sube el monto máximo de la puja automática del usuario autenticado; el
+     * sistema puja por él de a {@code incrementoMinimo} hasta ese tope. La resolución contra
+     * las demás automáticas ocurre en el motor en memoria, por lo que sin él se rechaza.
+     */
+    @PostMapping("/{id}/pujas-automaticas")
+    public CompletableFuture<ResponseEntity<ResultadoPujaDTO>> registrarPujaAutomatica(
+            @PathVariable Long id, @Valid @RequestBody PujaAutomaticaDTO pujaAutomaticaDto,
+            Authentication authentication) {
+        if (!pujasEnMemoria) {
+            Subasta subasta = subastaService.obtenerSubastaPorId(id);
+            return CompletableFuture.completedFuture(aRespuesta(ResultadoPujaDTO.rechazada(
+                    "Las pujas automáticas requieren el motor de pujas en memoria", id,
+                    subasta.getPrecioActual(), subasta.getGanadorId(), subasta.getEstado())));
+        }
+        Long usuarioId = usuarioId(authentication);
+        return motorPujas.registrarMaxima(id, usuarioId, pujaAutomaticaDto.montoMaximo())
+                .thenApply(this::aRespuesta);
+    }
+
+    /**
+     * Id del usuario autenticado. Sale del claim {@code uid} del JWT; solo los tokens emitidos
+     * antes de que existiera ese claim requieren resolverlo contra la base.
+     */
+    private Long usuarioId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UsuarioAutenticado usuario && usuario.getId() != null) {
+            return usuario.getId();
+        }
+        return usuarioService.obtenerIdPorUsername(authentication.getName());
+    }
+
+    private ResponseEntity<ResultadoPujaDTO> aRespuesta(ResultadoPujaDTO resultado) {
+        return resultado.aceptada()
+                ? ResponseEntity.ok(resultado)
+                : ResponseEntity.status(HttpStatus.CONFLICT).body(resultado);
+    }
+}
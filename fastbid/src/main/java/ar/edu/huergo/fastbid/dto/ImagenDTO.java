@@ -0,0 +1,14 @@
+package ar.edu.huergo.fastbid.dto;
+
+/**
+ * Imagen subida al almacén. {@code url} es la que se guarda en {@code Producto.imagenes};
+ * {@code miniaturaUrl} sirve la miniatura cuando ya está generada y, mientras tanto, la
+ * imagen original.
+ */
+public record ImagenDTO(
+        String id,
+        String url,
+        String miniaturaUrl,
+        long bytes,
+        String tipoContenido
+) {}
@@ -0,0 +1,12 @@
+package ar.edu.huergo.fastbid.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor (keyset). {@code siguienteCursor} es un
+ * token opaco para pedir la página siguiente; es null cuando no hay más resultados.
+ */
+public record PaginaDTO<T>(
+        List<T> contenido,
+        String siguienteCursor
+) {}
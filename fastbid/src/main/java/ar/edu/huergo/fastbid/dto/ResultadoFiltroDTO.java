@@ -0,0 +1,17 @@
+package ar.edu.huergo.fastbid.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Página de productos filtrados por facetas. Además del contenido y el cursor (como
+ * {@link PaginaDTO}) trae el total de coincidencias y, por cada faceta
+ * ({@code categoriaId}, {@code condicion}, {@code ubicacion}), cuántos productos quedarían
+ * eligiendo cada valor con el resto de los filtros aplicados.
+ */
+public record ResultadoFiltroDTO<T>(
+        List<T> contenido,
+        String siguienteCursor,
+        long total,
+        Map<String, Map<String, Long>> facetas
+) {}
@@ -0,0 +1,20 @@
+package ar.edu.huergo.fastbid.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de productos. Las filas con error no frenan la
+ * importación: se informan en {@code errores} (hasta un máximo; {@code filasConError} es
+ * siempre el total).
+ */
+public record ResultadoImportacionDTO(
+        long filasProcesadas,
+        long productosImportados,
+        long filasConError,
+        List<ErrorFilaDTO> errores
+) {
+
+    /** Error de una fila; {@code fila} es el número de línea en el archivo (desde 1). */
+    public record ErrorFilaDTO(long fila, String mensaje) {
+    }
+}
@@ -0,0 +1,13 @@
+package ar.edu.huergo.fastbid.dto.subastas;
+
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+
+/**
+ * Estado público de una subasta que se difunde en tiempo real: precio, líder y estado.
+ */
+public record PrecioSubastaDTO(
+        Long subastaId,
+        double precioActual,
+        Long ganadorId,
+        SubastaEstado estado
+) {}
@@ -0,0 +1,10 @@
+package ar.edu.huergo.fastbid.dto.subastas;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record PujaAutomaticaDTO(
+        @NotNull(message = "El monto máximo es obligatorio")
+        @Positive(message = "El monto máximo debe ser mayor a 0")
+        Double montoMaximo
+) {}
@@ -0,0 +1,10 @@
+package ar.edu.huergo.fastbid.dto.subastas;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record PujaDTO(
+        @NotNull(message = "El monto es obligatorio")
+        @Positive(message = "El monto debe ser mayor a 0")
+        Double monto
+) {}
@@ -0,0 +1,27 @@
+package ar.edu.huergo.fastbid.dto.subastas;
+
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+
+/**
+ * Resultado de procesar una puja: si fue aceptada, el motivo del rechazo (si lo hubo)
+ * y el estado de la subasta inmediatamente después de aplicarla.
+ */
+public record ResultadoPujaDTO(
+        boolean aceptada,
+        String motivo,
+        Long subastaId,
+        double precioActual,
+        Long ganadorId,
+        SubastaEstado estado
+) {
+
+    public static ResultadoPujaDTO aceptada(Long subastaId, double precioActual, Long ganadorId,
+            SubastaEstado estado) {
+        return new ResultadoPujaDTO(true, null, subastaId, precioActual, ganadorId, estado);
+    }
+
+    public static ResultadoPujaDTO rechazada(String motivo, Long subastaId, double precioActual,
+            Long ganadorId, SubastaEstado estado) {
+        return new ResultadoPujaDTO(false, motivo, subastaId, precioActual, ganadorId, estado);
+    }
+}
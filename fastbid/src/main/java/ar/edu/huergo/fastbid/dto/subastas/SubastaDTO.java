@@ -0,0 +1,27 @@
+package ar.edu.huergo.fastbid.dto.subastas;
+
+import java.time.OffsetDateTime;
+
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record SubastaDTO(
+        Long idSubasta,
+        @NotNull(message = "El producto es obligatorio")
+        Long productoId,
+        @NotNull(message = "La fecha de inicio es obligatoria")
+        OffsetDateTime fechaInicio,
+        @NotNull(message = "La fecha de finalización es obligatoria")
+        OffsetDateTime fechaFin,
+        @Positive(message = "El precio inicial debe ser mayor a 0")
+        double precioInicial,
+        double precioActual,
+        SubastaEstado estado,
+        Long ganadorId,
+        @PositiveOrZero(message = "El incremento mínimo no puede ser negativo")
+        double incrementoMinimo,
+        @Positive(message = "El precio de compra inmediata debe ser mayor a 0")
+        Double compraInmediata
+) {}
@@ -3,6 +3,9 @@ package ar.edu.huergo.fastbid.entity;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
@@ -10,8 +13,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -22,15 +29,23 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// Los UPDATE incluyen solo las columnas que cambiaron
+@DynamicUpdate
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", indexes = {
+        @Index(name = "idx_producto_fin", columnList = "fecha_fin, id_producto"),
+        @Index(name = "idx_producto_actualizacion", columnList = "fecha_actualizacion")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Producto {
 
+    // Secuencia con asignación en bloques (optimizador pooled): Hibernate reserva 50 ids por
+    // consulta y puede agrupar los INSERT en lotes JDBC, cosa que IDENTITY impide
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "producto_seq")
+    @SequenceGenerator(name = "producto_seq", sequenceName = "productos_seq", allocationSize = 50)
     private Long idProducto;
 
     @NotBlank(message = "El nombre es obligatorio")
@@ -46,6 +61,9 @@ public class Producto {
     @ElementCollection
     @CollectionTable(name = "producto_imagenes", joinColumns = @JoinColumn(name = "producto_id"))
     @Column(name = "imagen_url")
+    // Lista indexada: Hibernate actualiza, agrega o borra solo las posiciones que cambian,
+    // en lugar de borrar y reinsertar todas las imágenes
+    @OrderColumn(name = "posicion")
     @NotEmpty(message = "Imagen es obligatorio")
     private List<String> imagenes;
 
@@ -75,4 +93,12 @@ public class Producto {
 
     @Min(value = 1, message = "La cantidad mínima debe ser 1")
     private int cantidad;
+
+    // Se incrementa en cada modificación; de acá salen los ETag de GET /api/productos/{id}.
+    // Primitivo para que Spring Data siga decidiendo alta/modificación por el id
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime fechaActualizacion;
 }
\ No newline at end of file
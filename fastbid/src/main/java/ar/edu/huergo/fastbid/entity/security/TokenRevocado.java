@@ -0,0 +1,31 @@
+package ar.edu.huergo.fastbid.entity.security;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * JWT revocado antes de su expiración (logout). Se identifica por su claim {@code jti} y se
+ * puede borrar una vez pasada {@code expiracion}, porque el token ya no es válido igual.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tokens_revocados", indexes = @Index(name = "idx_token_revocado_expiracion", columnList = "expiracion"))
+public class TokenRevocado {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false)
+    private Instant expiracion;
+}
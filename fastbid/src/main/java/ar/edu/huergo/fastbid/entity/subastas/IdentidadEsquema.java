@@ -0,0 +1,28 @@
+package ar.edu.huergo.fastbid.entity.subastas;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Identificador aleatorio de la base, con una única fila. Se genera la primera vez que se
+ * necesita y desaparece con el esquema: si Hibernate lo vuelve a crear, el identificador
+ * cambia. El diario de pujas lo guarda para no reproducirse contra otra base.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "identidad_esquema")
+public class IdentidadEsquema {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false, length = 36)
+    private String identificador;
+}
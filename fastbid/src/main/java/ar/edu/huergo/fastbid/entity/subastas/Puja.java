@@ -0,0 +1,38 @@
+package ar.edu.huergo.fastbid.entity.subastas;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "pujas", indexes = @Index(name = "idx_puja_subasta", columnList = "subasta_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Puja {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idPuja;
+
+    @Column(name = "subasta_id", nullable = false)
+    private Long subastaId;     // FK → Subasta.idSubasta
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;     // FK → Usuario.id
+
+    @Column(nullable = false)
+    private double monto;
+
+    @Column(nullable = false)
+    private OffsetDateTime fecha;
+}
@@ -0,0 +1,44 @@
+package ar.edu.huergo.fastbid.entity.subastas;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Puja automática (proxy): el monto máximo que un usuario está dispuesto a pagar en una
+ * subasta. El sistema puja por él de a {@code incrementoMinimo} hasta ese tope.
+ */
+@Entity
+@Table(name = "pujas_automaticas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_puja_automatica_subasta_usuario",
+                columnNames = {"subasta_id", "usuario_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PujaAutomatica {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idPujaAutomatica;
+
+    @Column(name = "subasta_id", nullable = false)
+    private Long subastaId;     // FK → Subasta.idSubasta
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;     // FK → Usuario.id
+
+    @Column(nullable = false)
+    private double montoMaximo;
+
+    @Column(nullable = false)
+    private OffsetDateTime fecha;   // Desempata entre máximos iguales: gana el más antiguo
+}
@@ -17,6 +17,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -60,6 +61,9 @@ public class Subasta {
 
     private Double compraInmediata;  // Precio de compra directa (opcional)
 
+    @Version
+    private Long version;            // Control de concurrencia optimista
+
     // --------- Relaciones de conveniencia (solo lectura) ----------
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "producto_id", insertable = false, updatable = false,
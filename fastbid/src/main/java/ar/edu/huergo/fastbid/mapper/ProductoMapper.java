@@ -23,7 +23,8 @@ public class ProductoMapper {
                 producto.getNombre(),
                 producto.getDescripcion(),
                 producto.getPrecioInicial(),
-                producto.getImagenes(),
+                // Copia: el DTO no debe depender de la colección lazy de Hibernate
+                producto.getImagenes() == null ? null : new ArrayList<>(producto.getImagenes()),
                 producto.getCategoriaId(),
                 producto.getEstado(),
                 producto.getFechaPublicacion(),
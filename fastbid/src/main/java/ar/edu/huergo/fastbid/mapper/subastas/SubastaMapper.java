@@ -0,0 +1,69 @@
+package ar.edu.huergo.fastbid.mapper.subastas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import ar.edu.huergo.fastbid.dto.subastas.PrecioSubastaDTO;
+import ar.edu.huergo.fastbid.dto.subastas.SubastaDTO;
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+
+@Component
+public class SubastaMapper {
+
+    // Entity → DTO
+    public SubastaDTO toDto(Subasta subasta) {
+        if (subasta == null) {
+            return null;
+        }
+
+        return new SubastaDTO(
+                subasta.getIdSubasta(),
+                subasta.getProductoId(),
+                subasta.getFechaInicio(),
+                subasta.getFechaFin(),
+                subasta.getPrecioInicial(),
+                subasta.getPrecioActual(),
+                subasta.getEstado(),
+                subasta.getGanadorId(),
+                subasta.getIncrementoMinimo(),
+                subasta.getCompraInmediata()
+        );
+    }
+
+    public PrecioSubastaDTO toPrecioDto(Subasta subasta) {
+        if (subasta == null) {
+            return null;
+        }
+        return new PrecioSubastaDTO(subasta.getIdSubasta(), subasta.getPrecioActual(),
+                subasta.getGanadorId(), subasta.getEstado());
+    }
+
+    public Subasta toEntity(SubastaDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+
+        Subasta subasta = new Subasta();
+        subasta.setIdSubasta(dto.idSubasta());
+        subasta.setProductoId(dto.productoId());
+        subasta.setFechaInicio(dto.fechaInicio());
+        subasta.setFechaFin(dto.fechaFin());
+        subasta.setPrecioInicial(dto.precioInicial());
+        subasta.setPrecioActual(dto.precioActual());
+        subasta.setEstado(dto.estado());
+        subasta.setGanadorId(dto.ganadorId());
+        subasta.setIncrementoMinimo(dto.incrementoMinimo());
+        subasta.setCompraInmediata(dto.compraInmediata());
+
+        return subasta;
+    }
+
+    public List<SubastaDTO> toDtoList(List<Subasta> subastas) {
+        if (subastas == null) {
+            return new ArrayList<>();
+        }
+        return subastas.stream().map(this::toDto).toList();
+    }
+}
@@ -1,11 +1,104 @@
 package ar.edu.huergo.fastbid.repository.producto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ar.edu.huergo.fastbid.entity.Producto;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
 
-}
\ No newline at end of file
+    /**
+     * Página por keyset sobre la clave primaria: los productos con id mayor al último
+     * devuelto. Recorre el índice desde ese punto, así que el costo no depende de la
+     * profundidad de la página (a diferencia de OFFSET).
+     */
+    List<Producto> findByIdProductoGreaterThanOrderByIdProductoAsc(Long idProducto, Limit limit);
+
+    /**
+     * Página por keyset sobre (fechaFin, idProducto), usando el índice idx_producto_fin.
+     * La comparación por fila deja un único rango sobre el índice; con el OR equivalente el
+     * optimizador puede terminar recorriendo la tabla entera.
+     */
+    @Query("select p from Producto p where (p.fechaFin, p.idProducto) > (:fechaFin, :idProducto) "
+            + "order by p.fechaFin asc, p.idProducto asc")
+    List<Producto> findPaginaPorFechaFin(@Param("fechaFin") LocalDateTime fechaFin,
+            @Param("idProducto") Long idProducto, Limit limit);
+
+    /**
+     * Inicializa en una sola consulta las imágenes de una página de productos ya cargados
+     * en el contexto de persistencia (evita una consulta por producto al mapearlos).
+     */
+    @Query("select distinct p from Producto p left join fetch p.imagenes where p.idProducto in :ids")
+    List<Producto> cargarImagenes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Catálogo completo como cursor de solo avance, en orden de id. Las filas se traen de a
+     * {@code fetchSize}, no todas juntas; hay que consumirlo dentro de una transacción y
+     * cerrarlo al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select p from Producto p order by p.idProducto asc")
+    Stream<Producto> streamCatalogo();
+
+    /**
+     * Como {@link #streamCatalogo()}, solo con los productos modificados desde
+     * {@code fechaActualizacion} (exportaciones incrementales). Usa idx_producto_actualizacion.
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select p from Producto p where p.fechaActualizacion >= :fechaActualizacion order by p.idProducto asc")
+    Stream<Producto> streamCatalogoActualizadoDesde(@Param("fechaActualizacion") LocalDateTime fechaActualizacion);
+
+    /**
+     * Texto buscable de los productos con id mayor a {@code idProducto}, por keyset. Lo usa
+     * el índice de búsqueda para cargarse sin traer entidades completas.
+     */
+    @Query("select p.idProducto as idProducto, p.nombre as nombre, p.descripcion as descripcion "
+            + "from Producto p where p.idProducto > :idProducto order by p.idProducto asc")
+    List<TextoProducto> findTextosDesde(@Param("idProducto") Long idProducto, Limit limit);
+
+    /**
+     * Campos filtrables de los productos con id mayor a {@code idProducto}, por keyset. Lo
+     * usa el índice de facetas para cargarse.
+     */
+    @Query("select p.idProducto as idProducto, p.categoriaId as categoriaId, p.condicion as condicion, "
+            + "p.ubicacion as ubicacion, p.precioInicial as precioInicial "
+            + "from Producto p where p.idProducto > :idProducto order by p.idProducto asc")
+    List<FiltrosProducto> findFiltrosDesde(@Param("idProducto") Long idProducto, Limit limit);
+
+    interface TextoProducto {
+        Long getIdProducto();
+
+        String getNombre();
+
+        String getDescripcion();
+    }
+
+    interface FiltrosProducto {
+        Long getIdProducto();
+
+        Long getCategoriaId();
+
+        String getCondicion();
+
+        String getUbicacion();
+
+        double getPrecioInicial();
+    }
+}
@@ -0,0 +1,30 @@
+package ar.edu.huergo.fastbid.repository.security;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import ar.edu.huergo.fastbid.entity.security.TokenRevocado;
+
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, String> {
+
+    long countByExpiracionAfter(Instant expiracion);
+
+    /**
+     * jti de los tokens revocados que todavía no expiraron, con jti mayor a {@code jti}, por
+     * keyset. Lo usa el filtro de Bloom para reconstruirse sin traer entidades.
+     */
+    @Query("select t.jti from TokenRevocado t where t.expiracion > :ahora and t.jti > :jti order by t.jti asc")
+    List<String> findJtisVigentesDesde(@Param("ahora") Instant ahora, @Param("jti") String jti, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocado t where t.expiracion <= :ahora")
+    int deleteVencidos(@Param("ahora") Instant ahora);
+}
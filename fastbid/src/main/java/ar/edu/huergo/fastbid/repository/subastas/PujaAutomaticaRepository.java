@@ -0,0 +1,14 @@
+package ar.edu.huergo.fastbid.repository.subastas;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import ar.edu.huergo.fastbid.entity.subastas.PujaAutomatica;
+
+@Repository
+public interface PujaAutomaticaRepository extends JpaRepository<PujaAutomatica, Long> {
+    List<PujaAutomatica> findBySubastaIdInOrderByFechaAsc(Collection<Long> subastaIds);
+}
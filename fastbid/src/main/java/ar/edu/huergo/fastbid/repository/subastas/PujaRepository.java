@@ -0,0 +1,13 @@
+package ar.edu.huergo.fastbid.repository.subastas;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import ar.edu.huergo.fastbid.entity.subastas.Puja;
+
+@Repository
+public interface PujaRepository extends JpaRepository<Puja, Long> {
+    List<Puja> findBySubastaIdOrderByMontoDesc(Long subastaId);
+}
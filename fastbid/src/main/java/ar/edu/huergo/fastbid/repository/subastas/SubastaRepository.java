@@ -0,0 +1,77 @@
+package ar.edu.huergo.fastbid.repository.subastas;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+
+@Repository
+public interface SubastaRepository extends JpaRepository<Subasta, Long> {
+
+    /** Proyección liviana con lo necesario para planificar aperturas y cierres. */
+    interface PlazosSubasta {
+        Long getIdSubasta();
+        SubastaEstado getEstado();
+        OffsetDateTime getFechaInicio();
+        OffsetDateTime getFechaFin();
+    }
+
+    List<Subasta> findByEstado(SubastaEstado estado);
+
+    List<PlazosSubasta> findPlazosByEstadoIn(Collection<SubastaEstado> estados);
+
+    List<PlazosSubasta> findPlazosByIdSubastaInAndEstado(Collection<Long> ids, SubastaEstado estado);
+
+    /**
+     * Compare-and-set sobre la versión: solo actualiza si nadie modificó la subasta desde
+     * que se leyó. Devuelve 0 si otro escritor ganó la carrera.
+     */
+    @Modifying
+    @Query("update Subasta s set s.precioActual = :precio, s.ganadorId = :ganadorId, s.estado = :estado, "
+            + "s.fechaFin = :fechaFin, s.version = s.version + 1 "
+            + "where s.idSubasta = :id and s.version = :version")
+    int actualizarSiVersion(@Param("id") Long id, @Param("version") Long version,
+            @Param("precio") double precio, @Param("ganadorId") Long ganadorId,
+            @Param("estado") SubastaEstado estado, @Param("fechaFin") OffsetDateTime fechaFin);
+
+    /**
+     * Compra inmediata en una única sentencia condicional: solo la primera que encuentre la
+     * subasta ACTIVA y abierta la cierra a su precio de compra inmediata. Devuelve 0 para
+     * todas las demás, sin leer la fila antes ni depender de la versión.
+     */
+    @Modifying
+    @Query("update Subasta s set s.precioActual = s.compraInmediata, s.ganadorId = :ganadorId, "
+            + "s.estado = :finalizada, s.version = s.version + 1 "
+            + "where s.idSubasta = :id and s.estado = :activa and s.compraInmediata is not null "
+            + "and s.fechaFin > :ahora")
+    int comprarAhora(@Param("id") Long id, @Param("ganadorId") Long ganadorId,
+            @Param("ahora") OffsetDateTime ahora, @Param("activa") SubastaEstado activa,
+            @Param("finalizada") SubastaEstado finalizada);
+
+    /**
+     * Transición de estado en lote: solo cambia las subastas que siguen en {@code desde}.
+     */
+    @Modifying
+    @Query("update Subasta s set s.estado = :hacia, s.version = s.version + 1 "
+            + "where s.idSubasta in :ids and s.estado = :desde")
+    int cambiarEstado(@Param("ids") Collection<Long> ids, @Param("desde") SubastaEstado desde,
+            @Param("hacia") SubastaEstado hacia);
+
+    /**
+     * Cierre en lote que vuelve a chequear la fecha de fin: las subastas prorrogadas por el
+     * cierre suave quedan ACTIVA.
+     */
+    @Modifying
+    @Query("update Subasta s set s.estado = :finalizada, s.version = s.version + 1 "
+            + "where s.idSubasta in :ids and s.estado = :activa and s.fechaFin <= :ahora")
+    int finalizarVencidas(@Param("ids") Collection<Long> ids, @Param("ahora") OffsetDateTime ahora,
+            @Param("activa") SubastaEstado activa, @Param("finalizada") SubastaEstado finalizada);
+}
@@ -0,0 +1,272 @@
+package ar.edu.huergo.fastbid.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.huergo.fastbid.dto.ProductoDTO;
+import ar.edu.huergo.fastbid.dto.ResultadoImportacionDTO;
+import ar.edu.huergo.fastbid.dto.ResultadoImportacionDTO.ErrorFilaDTO;
+import ar.edu.huergo.fastbid.entity.Producto;
+import ar.edu.huergo.fastbid.mapper.ProductoMapper;
+import ar.edu.huergo.fastbid.repository.producto.ProductoRepository;
+import ar.edu.huergo.fastbid.service.busqueda.FacetasProductos;
+import ar.edu.huergo.fastbid.service.busqueda.IndiceProductos;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Importación masiva de productos desde CSV o NDJSON.
+ *
+ * Conceptos clave:
+ * - El archivo se lee como stream, de a {@code lote} filas: la memoria no depende del
+ *   tamaño del archivo.
+ * - Cada lote se convierte y valida en paralelo y las filas válidas se guardan en una
+ *   transacción. Con ids de secuencia en bloques y {@code hibernate.jdbc.batch_size}, el lote
+ *   viaja en unos pocos INSERT por lotes (productos e imágenes) en lugar de uno por fila.
+ * - Una fila inválida se informa con su número de línea y no aborta el resto. Si falla el
+ *   guardado de un lote (o su commit), se informan todas sus filas y se sigue con el siguiente.
+ * - Los índices de búsqueda y facetas se actualizan después de cada lote confirmado.
+ *
+ * CSV: la primera línea nombra las columnas (los campos de {@link ProductoDTO}); las
+ * imágenes van separadas por {@code |} y los valores con comas, entre comillas dobles. Cada
+ * fila ocupa una sola línea.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportadorProductos {
+
+    public enum Formato {
+        CSV, NDJSON;
+
+        public static Formato desde(String tipoContenido) {
+            String tipo = tipoContenido == null ? "" : tipoContenido.toLowerCase(Locale.ROOT);
+            if (tipo.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (tipo.startsWith("application/x-ndjson")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Formato no soportado: use text/csv o application/x-ndjson");
+        }
+    }
+
+    private record Fila(long numero, String linea) {
+    }
+
+    private record FilaConvertida(long numero, Producto producto, String error) {
+    }
+
+    private static final Set<String> COLUMNAS = Arrays.stream(ProductoDTO.class.getRecordComponents())
+            .map(RecordComponent::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final ProductoRepository productoRepository;
+    private final ProductoMapper productoMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final IndiceProductos indiceProductos;
+    private final FacetasProductos facetasProductos;
+    private final VersionCatalogo versionCatalogo;
+
+    @Value("${fastbid.productos.importacion.lote:500}")
+    private int tamanioLote = 500;
+
+    @Value("${fastbid.productos.importacion.maximo-errores:1000}")
+    private int maximoErrores = 1000;
+
+    public ResultadoImportacionDTO importar(InputStream entrada, Formato formato) throws IOException {
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        Progreso progreso = new Progreso();
+
+        long numero = 0;
+        String[] columnas = null;
+        if (formato == Formato.CSV) {
+            String encabezado = lector.readLine();
+            numero++;
+            if (encabezado == null) {
+                throw new IllegalArgumentException("El archivo CSV está vacío");
+            }
+            columnas = leerEncabezado(encabezado);
+        }
+
+        List<Fila> lote = new ArrayList<>(tamanioLote);
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numero++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            lote.add(new Fila(numero, linea));
+            if (lote.size() == tamanioLote) {
+                procesarLote(lote, formato, columnas, progreso);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            procesarLote(lote, formato, columnas, progreso);
+        }
+        return new ResultadoImportacionDTO(progreso.procesadas, progreso.importados,
+                progreso.conError, progreso.errores);
+    }
+
+    private void procesarLote(List<Fila> lote, Formato formato, String[] columnas, Progreso progreso) {
+        List<FilaConvertida> convertidas = lote.parallelStream()
+                .map(fila -> convertir(fila, formato, columnas))
+                .toList();
+
+        List<FilaConvertida> validas = new ArrayList<>(convertidas.size());
+        for (FilaConvertida fila : convertidas) {
+            if (fila.error() == null) {
+                validas.add(fila);
+            } else {
+                progreso.error(fila.numero(), fila.error(), maximoErrores);
+            }
+        }
+        progreso.procesadas += lote.size();
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        List<Producto> productos = validas.stream().map(FilaConvertida::producto).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> productoRepository.saveAll(productos));
+        } catch (DataAccessException | TransactionException e) {
+            // TransactionException: la falla puede aparecer recién al confirmar el lote
+            String mensaje = "No se pudo guardar el lote: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            validas.forEach(fila -> progreso.error(fila.numero(), mensaje, maximoErrores));
+            return;
+        }
+
+        for (Producto producto : productos) {
+            indiceProductos.indexar(producto.getIdProducto(), producto.getNombre(), producto.getDescripcion());
+            facetasProductos.indexar(producto.getIdProducto(), producto.getCategoriaId(), producto.getCondicion(),
+                    producto.getUbicacion(), producto.getPrecioInicial());
+        }
+        versionCatalogo.registrarCambio();
+        progreso.importados += productos.size();
+    }
+
+    private FilaConvertida convertir(Fila fila, Formato formato, String[] columnas) {
+        try {
+            ProductoDTO dto = formato == Formato.NDJSON
+                    ? objectMapper.readValue(fila.linea(), ProductoDTO.class)
+                    : objectMapper.convertValue(leerFilaCsv(fila.linea(), columnas), ProductoDTO.class);
+            Producto producto = productoMapper.toEntity(dto);
+            // Siempre alta: el id lo asigna la secuencia
+            producto.setIdProducto(null);
+
+            Set<ConstraintViolation<Producto>> violaciones = validator.validate(producto);
+            if (!violaciones.isEmpty()) {
+                return new FilaConvertida(fila.numero(), null, violaciones.stream()
+                        .map(violacion -> violacion.getPropertyPath() + ": " + violacion.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+            return new FilaConvertida(fila.numero(), producto, null);
+        } catch (JsonProcessingException e) {
+            return new FilaConvertida(fila.numero(), null, "JSON inválido: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return new FilaConvertida(fila.numero(), null, "Valor inválido: "
+                    + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
+    private static String[] leerEncabezado(String encabezado) {
+        List<String> columnas = dividirCsv(encabezado);
+        for (String columna : columnas) {
+            if (!COLUMNAS.contains(columna)) {
+                throw new IllegalArgumentException("Columna desconocida en el CSV: " + columna);
+            }
+        }
+        return columnas.toArray(String[]::new);
+    }
+
+    private static Map<String, Object> leerFilaCsv(String linea, String[] columnas) {
+        List<String> valores = dividirCsv(linea);
+        if (valores.size() != columnas.length) {
+            throw new IllegalArgumentException("Se esperaban " + columnas.length + " columnas y hay "
+                    + valores.size());
+        }
+        Map<String, Object> campos = new HashMap<>();
+        for (int i = 0; i < columnas.length; i++) {
+            String valor = valores.get(i);
+            if (valor.isEmpty()) {
+                continue;
+            }
+            campos.put(columnas[i], columnas[i].equals("imagenes")
+                    ? Arrays.stream(valor.split("\\|")).map(String::trim).filter(url -> !url.isEmpty()).toList()
+                    : valor);
+        }
+        return campos;
+    }
+
+    // Una línea CSV (RFC 4180, sin saltos de línea dentro de comillas)
+    private static List<String> dividirCsv(String linea) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(actual.toString().trim());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        valores.add(actual.toString().trim());
+        return valores;
+    }
+
+    private static final class Progreso {
+        private long procesadas;
+        private long importados;
+        private long conError;
+        private final List<ErrorFilaDTO> errores = new ArrayList<>();
+
+        void error(long fila, String mensaje, int maximoErrores) {
+            conError++;
+            if (errores.size() < maximoErrores) {
+                errores.add(new ErrorFilaDTO(fila, mensaje));
+            }
+        }
+    }
+}
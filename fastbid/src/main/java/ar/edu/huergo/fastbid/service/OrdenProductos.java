@@ -0,0 +1,19 @@
+package ar.edu.huergo.fastbid.service;
+
+/**
+ * Órdenes disponibles para el listado paginado de productos.
+ */
+public enum OrdenProductos {
+    /** Por {@code idProducto} ascendente (orden de alta). */
+    ID,
+    /** Próximos a finalizar primero: {@code fechaFin} ascendente desde ahora, luego id. */
+    FIN_PROXIMO;
+
+    public static OrdenProductos desde(String valor) {
+        return switch (valor == null ? "id" : valor.toLowerCase()) {
+            case "id" -> ID;
+            case "fin", "fin_proximo" -> FIN_PROXIMO;
+            default -> throw new IllegalArgumentException("Orden inválido: " + valor + " (use 'id' o 'fin')");
+        };
+    }
+}
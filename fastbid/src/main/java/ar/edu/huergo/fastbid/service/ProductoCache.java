@@ -0,0 +1,61 @@
+package ar.edu.huergo.fastbid.service;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache de lectura de productos ya mapeados, con su versión ({@link ProductoVersionado}).
+ *
+ * Conceptos clave:
+ * - Acotado por cantidad de entradas y con expiración por tiempo desde la escritura, así
+ *   un producto modificado por fuera de {@link ProductoService} se corrige solo.
+ * - Si varias lecturas piden el mismo producto a la vez, solo una va a la base.
+ * - Aciertos, fallos y desalojos se publican en Micrometer como {@code cache.*} con
+ *   {@code cache=productos}.
+ * - Con {@code fastbid.productos.cache.habilitado=false} toda lectura va directo a la base.
+ */
+@Component
+public class ProductoCache {
+
+    private final Cache<Long, ProductoVersionado> cache;
+
+    public ProductoCache(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${fastbid.productos.cache.habilitado:true}") boolean habilitado,
+            @Value("${fastbid.productos.cache.maximo:10000}") long maximo,
+            @Value("${fastbid.productos.cache.ttl-segundos:60}") long ttlSegundos) {
+        if (!habilitado) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "productos"));
+    }
+
+    /**
+     * Devuelve el producto desde la cache o lo carga con {@code cargar}. Un resultado null
+     * (producto inexistente) no se guarda.
+     */
+    public ProductoVersionado obtener(Long id, Function<Long, ProductoVersionado> cargar) {
+        return cache == null ? cargar.apply(id) : cache.get(id, cargar);
+    }
+
+    public void invalidar(Long id) {
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+}
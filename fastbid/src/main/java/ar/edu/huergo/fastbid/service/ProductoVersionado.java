@@ -0,0 +1,21 @@
+package ar.edu.huergo.fastbid.service;
+
+import java.time.Instant;
+
+import ar.edu.huergo.fastbid.dto.ProductoDTO;
+
+/**
+ * Producto ya mapeado junto con su versión y fecha de última modificación, para responder
+ * lecturas condicionales (ETag / Last-Modified) sin volver a la base.
+ */
+public record ProductoVersionado(
+        ProductoDTO producto,
+        long version,
+        Instant modificado
+) {
+
+    /** ETag fuerte: cambia con cada modificación del producto. */
+    public String etag() {
+        return "\"p" + producto.idProducto() + "-" + version + "\"";
+    }
+}
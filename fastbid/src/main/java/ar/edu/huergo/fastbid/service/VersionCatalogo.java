@@ -0,0 +1,36 @@
+package ar.edu.huergo.fastbid.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Versión del catálogo de productos completo: cambia con cada alta, modificación o baja
+ * hecha por {@link ProductoService}. Los listados (páginas, búsqueda, filtros) derivan su
+ * ETag de acá, así que un listado que no cambió se responde con 304 sin consultar la base.
+ *
+ * La versión arranca de cero en cada inicio; el instante de arranque va en el ETag para que
+ * no se repitan entre reinicios.
+ */
+@Component
+public class VersionCatalogo {
+
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private volatile Instant modificado = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public void registrarCambio() {
+        modificado = Instant.now();
+        version.incrementAndGet();
+    }
+
+    public String etag() {
+        return "\"c" + arranque + "-" + version.get() + "\"";
+    }
+
+    public Instant modificado() {
+        return modificado;
+    }
+}
@@ -0,0 +1,313 @@
+package ar.edu.huergo.fastbid.service.busqueda;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import ar.edu.huergo.fastbid.repository.producto.ProductoRepository;
+import ar.edu.huergo.fastbid.repository.producto.ProductoRepository.FiltrosProducto;
+
+/**
+ * Índice en memoria para filtrar productos por categoría, condición, ubicación y rango de
+ * precio, y contar facetas, sin consultas a la base.
+ *
+ * Conceptos clave:
+ * - Por cada valor de categoría, condición y ubicación hay un {@link RoaringBitmap} con los
+ *   ids de los productos que lo tienen. Los ids de producto son densos, así que los bitmaps
+ *   quedan muy comprimidos.
+ * - El precio es un índice ordenado (precio → bitmap): un rango es un {@code subMap} unido
+ *   con OR.
+ * - Un filtro es OR dentro de cada faceta y AND entre facetas. El conteo de cada valor de
+ *   una faceta se calcula con los filtros de las otras facetas (conteo disyuntivo), para que
+ *   el cliente sepa qué obtendría al sumar o cambiar ese valor.
+ * - Se carga al arrancar y {@code ProductoService} lo mantiene al día en cada alta,
+ *   modificación y baja.
+ *
+ * Thread-safe: filtros concurrentes bajo lock de lectura, cambios bajo lock de escritura.
+ */
+@Component
+public class FacetasProductos {
+
+    private static final Logger log = LoggerFactory.getLogger(FacetasProductos.class);
+
+    public static final String CATEGORIA = "categoriaId";
+    public static final String CONDICION = "condicion";
+    public static final String UBICACION = "ubicacion";
+
+    /** Ids de la página pedida (en orden creciente), si hay más, total y conteos por faceta. */
+    public record Resultado(List<Long> ids, boolean hayMas, long total, Map<String, Map<String, Long>> facetas) {
+    }
+
+    private record Valores(Long categoriaId, String condicion, String ubicacion, double precio) {
+    }
+
+    private final ProductoRepository productoRepository;
+    private final int loteCarga;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap todos = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> porCategoria = new HashMap<>();
+    private final Map<String, RoaringBitmap> porCondicion = new HashMap<>();
+    private final Map<String, RoaringBitmap> porUbicacion = new HashMap<>();
+    private final NavigableMap<Double, RoaringBitmap> porPrecio = new TreeMap<>();
+    private final Map<Integer, Valores> valoresPorProducto = new HashMap<>();
+
+    public FacetasProductos(ProductoRepository productoRepository,
+            @Value("${fastbid.productos.busqueda.lote-carga:5000}") int loteCarga) {
+        this.productoRepository = productoRepository;
+        this.loteCarga = loteCarga;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        long desde = Long.MIN_VALUE;
+        List<FiltrosProducto> lote;
+        do {
+            lote = productoRepository.findFiltrosDesde(desde, Limit.of(loteCarga));
+            lock.writeLock().lock();
+            try {
+                for (FiltrosProducto filtros : lote) {
+                    indexarSinLock(filtros.getIdProducto(), new Valores(filtros.getCategoriaId(),
+                            normalizarCondicion(filtros.getCondicion()), filtros.getUbicacion(),
+                            filtros.getPrecioInicial()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!lote.isEmpty()) {
+                desde = lote.get(lote.size() - 1).getIdProducto();
+            }
+        } while (lote.size() == loteCarga);
+
+        lock.writeLock().lock();
+        try {
+            todos.runOptimize();
+            porCategoria.values().forEach(RoaringBitmap::runOptimize);
+            porCondicion.values().forEach(RoaringBitmap::runOptimize);
+            porUbicacion.values().forEach(RoaringBitmap::runOptimize);
+            log.info("Índice de facetas cargado: {} productos, {} bytes", todos.getCardinality(), bytesSinLock());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa un producto nuevo o reemplaza los valores de uno ya indexado. En un producto ya
+     * indexado solo se tocan los bitmaps de los campos que cambiaron.
+     */
+    public void indexar(Long productoId, Long categoriaId, String condicion, String ubicacion, double precio) {
+        Valores valores = new Valores(categoriaId, normalizarCondicion(condicion), ubicacion, precio);
+        lock.writeLock().lock();
+        try {
+            indexarSinLock(productoId, valores);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long productoId) {
+        lock.writeLock().lock();
+        try {
+            borrarSinLock(aEntero(productoId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica el filtro y devuelve hasta {@code limite} ids mayores a {@code despuesDe}, junto
+     * con el total de coincidencias y los conteos por faceta.
+     */
+    public Resultado filtrar(FiltroProductos filtro, long despuesDe, int limite) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap categorias = unir(porCategoria, filtro.categorias());
+            RoaringBitmap condiciones = unir(porCondicion, filtro.condiciones() == null ? null
+                    : filtro.condiciones().stream().map(FacetasProductos::normalizarCondicion).toList());
+            RoaringBitmap ubicaciones = unir(porUbicacion, filtro.ubicaciones());
+            RoaringBitmap precios = rangoDePrecio(filtro.precioMinimo(), filtro.precioMaximo());
+
+            RoaringBitmap coincidencias = interseccion(categorias, condiciones, ubicaciones, precios);
+
+            Map<String, Map<String, Long>> facetas = new LinkedHashMap<>();
+            facetas.put(CATEGORIA, contar(porCategoria, interseccion(condiciones, ubicaciones, precios)));
+            facetas.put(CONDICION, contar(porCondicion, interseccion(categorias, ubicaciones, precios)));
+            facetas.put(UBICACION, contar(porUbicacion, interseccion(categorias, condiciones, precios)));
+
+            List<Long> ids = new ArrayList<>(limite);
+            PeekableIntIterator iterador = coincidencias.getIntIterator();
+            if (despuesDe >= 0) {
+                iterador.advanceIfNeeded(aEntero(despuesDe + 1));
+            }
+            while (iterador.hasNext() && ids.size() < limite) {
+                ids.add((long) iterador.next());
+            }
+            return new Resultado(ids, iterador.hasNext(), coincidencias.getLongCardinality(), facetas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Cantidad de productos indexados. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return todos.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void indexarSinLock(Long productoId, Valores valores) {
+        int id = aEntero(productoId);
+        Valores anteriores = valoresPorProducto.put(id, valores);
+        if (anteriores == null) {
+            todos.add(id);
+            agregar(porCategoria, valores.categoriaId(), id);
+            agregar(porCondicion, valores.condicion(), id);
+            agregar(porUbicacion, valores.ubicacion(), id);
+            agregar(porPrecio, valores.precio(), id);
+            return;
+        }
+        mover(porCategoria, anteriores.categoriaId(), valores.categoriaId(), id);
+        mover(porCondicion, anteriores.condicion(), valores.condicion(), id);
+        mover(porUbicacion, anteriores.ubicacion(), valores.ubicacion(), id);
+        mover(porPrecio, anteriores.precio(), valores.precio(), id);
+    }
+
+    private void borrarSinLock(int id) {
+        Valores anteriores = valoresPorProducto.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        todos.remove(id);
+        quitar(porCategoria, anteriores.categoriaId(), id);
+        quitar(porCondicion, anteriores.condicion(), id);
+        quitar(porUbicacion, anteriores.ubicacion(), id);
+        quitar(porPrecio, anteriores.precio(), id);
+    }
+
+    private static <K> void agregar(Map<K, RoaringBitmap> indice, K valor, int id) {
+        if (valor != null) {
+            indice.computeIfAbsent(valor, v -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private static <K> void mover(Map<K, RoaringBitmap> indice, K anterior, K nuevo, int id) {
+        if (!Objects.equals(anterior, nuevo)) {
+            quitar(indice, anterior, id);
+            agregar(indice, nuevo, id);
+        }
+    }
+
+    private static <K> void quitar(Map<K, RoaringBitmap> indice, K valor, int id) {
+        if (valor == null) {
+            return;
+        }
+        RoaringBitmap bitmap = indice.get(valor);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                indice.remove(valor);
+            }
+        }
+    }
+
+    /** OR de los bitmaps de los valores pedidos, o null si la faceta no filtra. */
+    private static <K> RoaringBitmap unir(Map<K, RoaringBitmap> indice, Collection<K> valores) {
+        if (valores == null || valores.isEmpty()) {
+            return null;
+        }
+        List<RoaringBitmap> bitmaps = new ArrayList<>(valores.size());
+        for (K valor : valores) {
+            RoaringBitmap bitmap = indice.get(valor);
+            if (bitmap != null) {
+                bitmaps.add(bitmap);
+            }
+        }
+        return bitmaps.isEmpty() ? new RoaringBitmap() : FastAggregation.or(bitmaps.iterator());
+    }
+
+    private RoaringBitmap rangoDePrecio(Double minimo, Double maximo) {
+        if (minimo == null && maximo == null) {
+            return null;
+        }
+        double desde = minimo == null ? Double.NEGATIVE_INFINITY : minimo;
+        double hasta = maximo == null ? Double.POSITIVE_INFINITY : maximo;
+        if (desde > hasta) {
+            return new RoaringBitmap();
+        }
+        Collection<RoaringBitmap> rango = porPrecio.subMap(desde, true, hasta, true).values();
+        return rango.isEmpty() ? new RoaringBitmap() : FastAggregation.or(rango.iterator());
+    }
+
+    /** AND de los filtros activos (los null no restringen). */
+    private RoaringBitmap interseccion(RoaringBitmap... filtros) {
+        RoaringBitmap resultado = null;
+        for (RoaringBitmap filtro : filtros) {
+            if (filtro != null) {
+                resultado = resultado == null ? filtro : RoaringBitmap.and(resultado, filtro);
+            }
+        }
+        return resultado == null ? todos : resultado;
+    }
+
+    /** Conteo por valor dentro de {@code base}, de mayor a menor; se omiten los ceros. */
+    private static <K> Map<String, Long> contar(Map<K, RoaringBitmap> indice, RoaringBitmap base) {
+        List<Map.Entry<String, Long>> conteos = new ArrayList<>();
+        for (Map.Entry<K, RoaringBitmap> entrada : indice.entrySet()) {
+            long cantidad = RoaringBitmap.andCardinality(base, entrada.getValue());
+            if (cantidad > 0) {
+                conteos.add(Map.entry(String.valueOf(entrada.getKey()), cantidad));
+            }
+        }
+        conteos.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.<String, Long>comparingByKey()));
+        Map<String, Long> resultado = new LinkedHashMap<>();
+        conteos.forEach(entrada -> resultado.put(entrada.getKey(), entrada.getValue()));
+        return resultado;
+    }
+
+    private long bytesSinLock() {
+        long bytes = todos.getLongSizeInBytes();
+        for (RoaringBitmap bitmap : porCategoria.values()) {
+            bytes += bitmap.getLongSizeInBytes();
+        }
+        for (RoaringBitmap bitmap : porCondicion.values()) {
+            bytes += bitmap.getLongSizeInBytes();
+        }
+        for (RoaringBitmap bitmap : porUbicacion.values()) {
+            bytes += bitmap.getLongSizeInBytes();
+        }
+        return bytes;
+    }
+
+    private static String normalizarCondicion(String condicion) {
+        return condicion == null || condicion.isBlank() ? null : condicion.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Los ids de producto son secuenciales; un bitmap de 32 bits alcanza para 2^31 productos
+    private static int aEntero(long productoId) {
+        return Math.toIntExact(productoId);
+    }
+}
@@ -0,0 +1,16 @@
+package ar.edu.huergo.fastbid.service.busqueda;
+
+import java.util.List;
+
+/**
+ * Filtros combinables del listado de productos. Dentro de una misma faceta los valores se
+ * combinan con OR (categoría 1 o 2) y entre facetas con AND. Un filtro vacío o null no
+ * restringe; los extremos del rango de precio son inclusivos.
+ */
+public record FiltroProductos(
+        List<Long> categorias,
+        List<String> condiciones,
+        List<String> ubicaciones,
+        Double precioMinimo,
+        Double precioMaximo
+) {}
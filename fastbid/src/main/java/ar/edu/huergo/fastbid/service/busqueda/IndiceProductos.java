@@ -0,0 +1,336 @@
+package ar.edu.huergo.fastbid.service.busqueda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import ar.edu.huergo.fastbid.repository.producto.ProductoRepository;
+import ar.edu.huergo.fastbid.repository.producto.ProductoRepository.TextoProducto;
+
+/**
+ * Índice invertido en memoria sobre {@code nombre} y {@code descripcion} de los productos,
+ * con ranking BM25.
+ *
+ * Conceptos clave:
+ * - Cada producto es un documento con un número interno creciente. Los términos salen de
+ *   {@link Tokenizador}; las apariciones en el nombre cuentan doble.
+ * - Cada término guarda una {@link ListaPostings} comprimida (deltas + varint).
+ * - Las listas solo crecen al final: actualizar un producto lo indexa como documento nuevo y
+ *   marca el anterior como borrado. Cuando los borrados superan un cuarto del índice se
+ *   compacta, renumerando los documentos vivos.
+ * - La búsqueda acumula puntajes en un arreglo (sin mapas ni boxing) y se queda con los
+ *   {@code limite} mejores con un heap. Los arreglos salen de un pool acotado y no de un
+ *   ThreadLocal: con hilos virtuales cada request es un hilo nuevo y el ThreadLocal
+ *   reservaría un arreglo del tamaño del índice por búsqueda.
+ * - Se carga completo desde la base al arrancar y {@code ProductoService} lo mantiene al día
+ *   en cada alta, modificación y baja.
+ *
+ * Thread-safe: búsquedas concurrentes bajo lock de lectura, cambios bajo lock de escritura.
+ */
+@Component
+public class IndiceProductos {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceProductos.class);
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int PESO_NOMBRE = 2;
+    private static final int MINIMO_BORRADOS_PARA_COMPACTAR = 1_000;
+
+    private final ProductoRepository productoRepository;
+    private final int loteCarga;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, ListaPostings> postings = new HashMap<>();
+    private final Map<Long, Integer> documentoPorProducto = new HashMap<>();
+    private long[] productoPorDocumento = new long[1024];
+    private int[] longitudDocumento = new int[1024];
+    private final BitSet borrados = new BitSet();
+    private int documentos;
+    private int vivos;
+    private long sumaLongitudes;
+
+    // Uno por núcleo alcanza: la búsqueda no bloquea. Si hay más búsquedas simultáneas, las
+    // que no consiguen uno crean otro y lo descartan si el pool ya está lleno
+    private final BlockingQueue<Acumulador> acumuladores =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    public IndiceProductos(ProductoRepository productoRepository,
+            @Value("${fastbid.productos.busqueda.lote-carga:5000}") int loteCarga) {
+        this.productoRepository = productoRepository;
+        this.loteCarga = loteCarga;
+    }
+
+    /**
+     * Carga el índice desde la base recorriendo los productos por keyset, en lotes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        long desde = Long.MIN_VALUE;
+        int total = 0;
+        List<TextoProducto> lote;
+        do {
+            lote = productoRepository.findTextosDesde(desde, Limit.of(loteCarga));
+            lock.writeLock().lock();
+            try {
+                for (TextoProducto texto : lote) {
+                    indexarSinLock(texto.getIdProducto(), texto.getNombre(), texto.getDescripcion());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!lote.isEmpty()) {
+                desde = lote.get(lote.size() - 1).getIdProducto();
+                total += lote.size();
+            }
+        } while (lote.size() == loteCarga);
+        log.info("Índice de productos cargado: {} productos, {} términos", total, terminos());
+    }
+
+    /** Indexa un producto nuevo o reemplaza el texto de uno ya indexado. */
+    public void indexar(Long productoId, String nombre, String descripcion) {
+        lock.writeLock().lock();
+        try {
+            indexarSinLock(productoId, nombre, descripcion);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long productoId) {
+        lock.writeLock().lock();
+        try {
+            borrarSinLock(productoId);
+            compactarSiCorresponde();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids de los productos que coinciden con la consulta, del más al menos relevante. Un
+     * producto coincide si contiene al menos uno de los términos.
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        List<String> terminos = new ArrayList<>(new LinkedHashSet<>(Tokenizador.tokenizar(consulta)));
+        if (terminos.isEmpty() || limite < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (vivos == 0) {
+                return List.of();
+            }
+            Acumulador acumulador = tomarAcumulador();
+            acumulador.preparar(documentos);
+            float longitudPromedio = (float) sumaLongitudes / vivos;
+
+            for (String termino : terminos) {
+                ListaPostings lista = postings.get(termino);
+                if (lista == null) {
+                    continue;
+                }
+                // Los documentos borrados pendientes de compactar inflan apenas la frecuencia
+                // de documento; el efecto en el idf es despreciable
+                int frecuenciaDocumento = Math.min(lista.cantidad(), vivos);
+                float idf = (float) Math.log(1 + (vivos - frecuenciaDocumento + 0.5)
+                        / (frecuenciaDocumento + 0.5));
+                lista.recorrer((documento, frecuencia) -> {
+                    if (borrados.get(documento)) {
+                        return;
+                    }
+                    float normalizacion = K1 * (1 - B + B * longitudDocumento[documento] / longitudPromedio);
+                    acumulador.sumar(documento, idf * frecuencia * (K1 + 1) / (frecuencia + normalizacion));
+                });
+            }
+            // mejores() deja el acumulador limpio; si algo falla antes, no vuelve al pool
+            List<Long> resultado = mejores(acumulador, limite);
+            acumuladores.offer(acumulador);
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Cantidad de productos indexados. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return vivos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int terminos() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Documentos internos, vivos y borrados aún no compactados. */
+    int documentos() {
+        lock.readLock().lock();
+        try {
+            return documentos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Acumulador tomarAcumulador() {
+        Acumulador acumulador = acumuladores.poll();
+        return acumulador != null ? acumulador : new Acumulador();
+    }
+
+    private List<Long> mejores(Acumulador acumulador, int limite) {
+        PriorityQueue<Resultado> heap = new PriorityQueue<>(limite + 1);
+        for (int i = 0; i < acumulador.tocados; i++) {
+            int documento = acumulador.documentosTocados[i];
+            float puntaje = acumulador.puntajes[documento];
+            acumulador.puntajes[documento] = 0;
+            if (heap.size() < limite) {
+                heap.add(new Resultado(documento, puntaje));
+            } else if (puntaje > heap.peek().puntaje()) {
+                heap.poll();
+                heap.add(new Resultado(documento, puntaje));
+            }
+        }
+        acumulador.tocados = 0;
+
+        Long[] ids = new Long[heap.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = productoPorDocumento[heap.poll().documento()];
+        }
+        return Arrays.asList(ids);
+    }
+
+    private void indexarSinLock(Long productoId, String nombre, String descripcion) {
+        borrarSinLock(productoId);
+
+        Map<String, Integer> frecuencias = new HashMap<>();
+        for (String termino : Tokenizador.tokenizar(nombre)) {
+            frecuencias.merge(termino, PESO_NOMBRE, Integer::sum);
+        }
+        for (String termino : Tokenizador.tokenizar(descripcion)) {
+            frecuencias.merge(termino, 1, Integer::sum);
+        }
+
+        int documento = documentos++;
+        if (documento == productoPorDocumento.length) {
+            productoPorDocumento = Arrays.copyOf(productoPorDocumento, documento * 2);
+            longitudDocumento = Arrays.copyOf(longitudDocumento, documento * 2);
+        }
+        int longitud = 0;
+        for (Map.Entry<String, Integer> entrada : frecuencias.entrySet()) {
+            postings.computeIfAbsent(entrada.getKey(), t -> new ListaPostings())
+                    .agregar(documento, entrada.getValue());
+            longitud += entrada.getValue();
+        }
+        productoPorDocumento[documento] = productoId;
+        longitudDocumento[documento] = longitud;
+        documentoPorProducto.put(productoId, documento);
+        sumaLongitudes += longitud;
+        vivos++;
+
+        compactarSiCorresponde();
+    }
+
+    private void borrarSinLock(Long productoId) {
+        Integer anterior = documentoPorProducto.remove(productoId);
+        if (anterior != null) {
+            borrados.set(anterior);
+            sumaLongitudes -= longitudDocumento[anterior];
+            vivos--;
+        }
+    }
+
+    private void compactarSiCorresponde() {
+        int cantidadBorrados = documentos - vivos;
+        if (cantidadBorrados < Math.max(MINIMO_BORRADOS_PARA_COMPACTAR, documentos / 4)) {
+            return;
+        }
+        // La renumeración es monótona, así que cada lista reconstruida sigue ordenada
+        int[] nuevoNumero = new int[documentos];
+        int siguiente = 0;
+        for (int documento = 0; documento < documentos; documento++) {
+            if (borrados.get(documento)) {
+                nuevoNumero[documento] = -1;
+            } else {
+                nuevoNumero[documento] = siguiente;
+                productoPorDocumento[siguiente] = productoPorDocumento[documento];
+                longitudDocumento[siguiente] = longitudDocumento[documento];
+                documentoPorProducto.put(productoPorDocumento[siguiente], siguiente);
+                siguiente++;
+            }
+        }
+
+        postings.replaceAll((termino, lista) -> {
+            ListaPostings compactada = new ListaPostings();
+            lista.recorrer((documento, frecuencia) -> {
+                if (nuevoNumero[documento] >= 0) {
+                    compactada.agregar(nuevoNumero[documento], frecuencia);
+                }
+            });
+            compactada.compactar();
+            return compactada;
+        });
+        postings.values().removeIf(lista -> lista.cantidad() == 0);
+
+        borrados.clear();
+        documentos = siguiente;
+    }
+
+    private record Resultado(int documento, float puntaje) implements Comparable<Resultado> {
+        @Override
+        public int compareTo(Resultado otro) {
+            return Float.compare(puntaje, otro.puntaje);
+        }
+    }
+
+    /**
+     * Puntajes por documento de una búsqueda. Se reutiliza entre búsquedas a través del pool
+     * y solo se limpian las posiciones tocadas.
+     */
+    private static final class Acumulador {
+        private float[] puntajes = new float[0];
+        private int[] documentosTocados = new int[256];
+        private int tocados;
+
+        void preparar(int documentos) {
+            if (puntajes.length < documentos) {
+                puntajes = new float[Math.max(documentos, puntajes.length * 2)];
+            }
+        }
+
+        void sumar(int documento, float puntaje) {
+            if (puntajes[documento] == 0) {
+                if (tocados == documentosTocados.length) {
+                    documentosTocados = Arrays.copyOf(documentosTocados, tocados * 2);
+                }
+                documentosTocados[tocados++] = documento;
+            }
+            puntajes[documento] += puntaje;
+        }
+    }
+}
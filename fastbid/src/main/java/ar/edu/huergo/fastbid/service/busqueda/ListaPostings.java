@@ -0,0 +1,91 @@
+package ar.edu.huergo.fastbid.service.busqueda;
+
+import java.util.Arrays;
+
+/**
+ * Lista de postings comprimida de un término: pares (documento, frecuencia) en orden de
+ * documento creciente. Cada documento se guarda como la diferencia con el anterior y
+ * ambos valores en varint (7 bits por byte), así la mayoría de los postings ocupa 2 bytes.
+ *
+ * Solo admite agregar al final (documentos crecientes). No es thread-safe: la protege
+ * {@link IndiceProductos}.
+ */
+final class ListaPostings {
+
+    @FunctionalInterface
+    interface Visitante {
+        void visitar(int documento, int frecuencia);
+    }
+
+    private byte[] datos = new byte[8];
+    private int tamanio;
+    private int ultimoDocumento = -1;
+    private int cantidad;
+
+    void agregar(int documento, int frecuencia) {
+        if (documento <= ultimoDocumento) {
+            throw new IllegalArgumentException("Los documentos deben agregarse en orden creciente");
+        }
+        asegurarEspacio(10);
+        escribirVarint(ultimoDocumento < 0 ? documento : documento - ultimoDocumento);
+        escribirVarint(frecuencia);
+        ultimoDocumento = documento;
+        cantidad++;
+    }
+
+    void recorrer(Visitante visitante) {
+        int posicion = 0;
+        int documento = 0;
+        boolean primero = true;
+        while (posicion < tamanio) {
+            int delta = 0;
+            int corrimiento = 0;
+            byte b;
+            do {
+                b = datos[posicion++];
+                delta |= (b & 0x7F) << corrimiento;
+                corrimiento += 7;
+            } while (b < 0);
+            documento = primero ? delta : documento + delta;
+            primero = false;
+
+            int frecuencia = 0;
+            corrimiento = 0;
+            do {
+                b = datos[posicion++];
+                frecuencia |= (b & 0x7F) << corrimiento;
+                corrimiento += 7;
+            } while (b < 0);
+            visitante.visitar(documento, frecuencia);
+        }
+    }
+
+    /** Cantidad de documentos en la lista (frecuencia de documento del término). */
+    int cantidad() {
+        return cantidad;
+    }
+
+    int bytes() {
+        return tamanio;
+    }
+
+    void compactar() {
+        if (datos.length > tamanio) {
+            datos = Arrays.copyOf(datos, tamanio);
+        }
+    }
+
+    private void escribirVarint(int valor) {
+        while ((valor & ~0x7F) != 0) {
+            datos[tamanio++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        datos[tamanio++] = (byte) valor;
+    }
+
+    private void asegurarEspacio(int adicional) {
+        if (tamanio + adicional > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, tamanio + adicional));
+        }
+    }
+}
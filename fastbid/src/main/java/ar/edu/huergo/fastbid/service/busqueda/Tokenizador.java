@@ -0,0 +1,64 @@
+package ar.edu.huergo.fastbid.service.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizador para texto en español, usado igual al indexar y al buscar.
+ *
+ * - Pasa a minúsculas y quita acentos y diacríticos ("Camión" → "camion", "ñandú" → "nandu").
+ * - Corta en todo lo que no sea letra o dígito.
+ * - Descarta palabras vacías frecuentes ("de", "la", "con"...) y tokens de una letra.
+ * - Reduce plurales simples ("taladros" → "taladro", "motores" → "motor").
+ */
+public final class Tokenizador {
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "de", "la", "el", "en", "los", "las", "del", "con", "para", "por", "un", "una",
+            "unos", "unas", "al", "se", "su", "sus", "que", "es", "sin", "lo", "le", "mas",
+            "muy", "y", "o", "a", "e", "u");
+
+    private Tokenizador() {
+    }
+
+    public static List<String> tokenizar(String texto) {
+        List<String> tokens = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return tokens;
+        }
+        String normalizado = DIACRITICOS
+                .matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String palabra : SEPARADORES.split(normalizado)) {
+            if ((palabra.length() < 2 && !esNumero(palabra)) || PALABRAS_VACIAS.contains(palabra)) {
+                continue;
+            }
+            tokens.add(singular(palabra));
+        }
+        return tokens;
+    }
+
+    private static String singular(String palabra) {
+        int largo = palabra.length();
+        if (largo <= 3 || esNumero(palabra) || palabra.charAt(largo - 1) != 's') {
+            return palabra;
+        }
+        // "motores", "canciones", "redes": consonante + "es"
+        if (largo > 4 && palabra.charAt(largo - 2) == 'e' && "rlndzj".indexOf(palabra.charAt(largo - 3)) >= 0) {
+            return palabra.substring(0, largo - 2);
+        }
+        return palabra.substring(0, largo - 1);
+    }
+
+    private static boolean esNumero(String palabra) {
+        return !palabra.isEmpty() && Character.isDigit(palabra.charAt(0));
+    }
+}
@@ -0,0 +1,237 @@
+package ar.edu.huergo.fastbid.service.imagenes;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Almacén de imágenes en disco local, direccionado por contenido.
+ *
+ * Conceptos clave:
+ * - Cada imagen se guarda como {@code <sha256>.<ext>} en un subdirectorio con los dos
+ *   primeros caracteres del hash. Dos subidas del mismo archivo terminan en el mismo
+ *   archivo (deduplicación) y un nombre nunca cambia de contenido, así que se puede
+ *   cachear para siempre.
+ * - La subida se escribe a un temporal mientras se calcula el hash y después se mueve
+ *   atómicamente a su lugar: nunca se lee un archivo a medio escribir.
+ * - El tipo se detecta por los primeros bytes, no por lo que declara el cliente.
+ * - Las miniaturas se generan en segundo plano, en un pool acotado; si la cola está llena
+ *   se omiten y se sirve la imagen original.
+ */
+@Service
+public class AlmacenImagenes {
+
+    private static final Logger log = LoggerFactory.getLogger(AlmacenImagenes.class);
+
+    private static final Pattern NOMBRE = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|gif|webp)");
+    private static final Map<String, String> TIPOS = Map.of(
+            "jpg", "image/jpeg", "png", "image/png", "gif", "image/gif", "webp", "image/webp");
+    private static final String SUFIJO_MINIATURA = "-min";
+
+    private final Path directorio;
+    private final long maximoBytes;
+    private final int ladoMiniatura;
+    private final ThreadPoolExecutor miniaturas;
+
+    public AlmacenImagenes(@Value("${fastbid.imagenes.directorio:${java.io.tmpdir}/fastbid-imagenes}") Path directorio,
+            @Value("${fastbid.imagenes.maximo-bytes:10485760}") long maximoBytes,
+            @Value("${fastbid.imagenes.miniatura.lado:320}") int ladoMiniatura,
+            @Value("${fastbid.imagenes.miniatura.hilos:2}") int hilosMiniaturas,
+            @Value("${fastbid.imagenes.miniatura.cola:1000}") int colaMiniaturas) throws IOException {
+        this.directorio = Files.createDirectories(directorio);
+        this.maximoBytes = maximoBytes;
+        this.ladoMiniatura = ladoMiniatura;
+        this.miniaturas = new ThreadPoolExecutor(hilosMiniaturas, hilosMiniaturas, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(colaMiniaturas), r -> {
+                    Thread hilo = new Thread(r, "miniaturas-imagenes");
+                    hilo.setDaemon(true);
+                    return hilo;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    void detener() {
+        miniaturas.shutdown();
+    }
+
+    /**
+     * Guarda la imagen leída de {@code contenido} y devuelve el archivo resultante (el ya
+     * existente si el mismo contenido se subió antes).
+     */
+    public ImagenAlmacenada guardar(InputStream contenido) throws IOException {
+        Path temporal = Files.createTempFile(directorio, "subida-", ".tmp");
+        try {
+            MessageDigest sha256 = nuevoSha256();
+            byte[] cabecera = new byte[12];
+            long bytes;
+            try (OutputStream salida = new DigestOutputStream(Files.newOutputStream(temporal), sha256)) {
+                bytes = copiarConLimite(contenido, salida, cabecera);
+            }
+            String extension = detectarExtension(cabecera);
+            String nombre = HexFormat.of().formatHex(sha256.digest()) + "." + extension;
+            Path destino = rutaDe(nombre);
+
+            if (!Files.exists(destino)) {
+                Files.createDirectories(destino.getParent());
+                try {
+                    Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Otra subida del mismo contenido ganó la carrera: es el mismo archivo
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            // También para una imagen repetida, por si su miniatura se había descartado
+            miniaturas.execute(() -> generarMiniatura(nombre, destino));
+            return new ImagenAlmacenada(nombre, destino, bytes, TIPOS.get(extension));
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /** La imagen original, si el nombre es válido y existe. */
+    public Optional<ImagenAlmacenada> buscar(String nombre) throws IOException {
+        if (!NOMBRE.matcher(nombre).matches()) {
+            return Optional.empty();
+        }
+        return archivo(nombre, rutaDe(nombre));
+    }
+
+    /** La miniatura de la imagen, si ya se generó. */
+    public Optional<ImagenAlmacenada> buscarMiniatura(String nombre) throws IOException {
+        if (!NOMBRE.matcher(nombre).matches()) {
+            return Optional.empty();
+        }
+        return archivo(nombre, rutaMiniatura(nombre));
+    }
+
+    private Optional<ImagenAlmacenada> archivo(String nombre, Path ruta) throws IOException {
+        if (!Files.isRegularFile(ruta)) {
+            return Optional.empty();
+        }
+        String extension = ruta.getFileName().toString().substring(ruta.getFileName().toString().lastIndexOf('.') + 1);
+        return Optional.of(new ImagenAlmacenada(nombre, ruta, Files.size(ruta), TIPOS.get(extension)));
+    }
+
+    private long copiarConLimite(InputStream entrada, OutputStream salida, byte[] cabecera) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        int leidos;
+        while ((leidos = entrada.read(buffer)) != -1) {
+            if (total < cabecera.length) {
+                System.arraycopy(buffer, 0, cabecera, (int) total, (int) Math.min(leidos, cabecera.length - total));
+            }
+            total += leidos;
+            if (total > maximoBytes) {
+                throw new IllegalArgumentException("La imagen supera el máximo de " + maximoBytes + " bytes");
+            }
+            salida.write(buffer, 0, leidos);
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("La imagen está vacía");
+        }
+        return total;
+    }
+
+    // Firma de los primeros bytes de cada formato aceptado
+    static String detectarExtension(byte[] c) {
+        if ((c[0] & 0xFF) == 0xFF && (c[1] & 0xFF) == 0xD8 && (c[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if ((c[0] & 0xFF) == 0x89 && c[1] == 'P' && c[2] == 'N' && c[3] == 'G') {
+            return "png";
+        }
+        if (c[0] == 'G' && c[1] == 'I' && c[2] == 'F' && c[3] == '8') {
+            return "gif";
+        }
+        if (c[0] == 'R' && c[1] == 'I' && c[2] == 'F' && c[3] == 'F'
+                && c[8] == 'W' && c[9] == 'E' && c[10] == 'B' && c[11] == 'P') {
+            return "webp";
+        }
+        throw new IllegalArgumentException("Formato de imagen no soportado: use JPEG, PNG, GIF o WebP");
+    }
+
+    private void generarMiniatura(String nombre, Path original) {
+        Path destino = rutaMiniatura(nombre);
+        if (Files.exists(destino)) {
+            return;
+        }
+        try {
+            // ImageIO no lee WebP: esas imágenes se sirven siempre en su tamaño original
+            BufferedImage imagen = ImageIO.read(original.toFile());
+            if (imagen == null) {
+                return;
+            }
+            double escala = Math.min(1.0, (double) ladoMiniatura / Math.max(imagen.getWidth(), imagen.getHeight()));
+            int ancho = Math.max(1, (int) Math.round(imagen.getWidth() * escala));
+            int alto = Math.max(1, (int) Math.round(imagen.getHeight() * escala));
+            boolean conTransparencia = !nombre.endsWith(".jpg");
+            BufferedImage miniatura = new BufferedImage(ancho, alto,
+                    conTransparencia ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D grafico = miniatura.createGraphics();
+            try {
+                grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                grafico.drawImage(imagen, 0, 0, ancho, alto, null);
+            } finally {
+                grafico.dispose();
+            }
+
+            Path temporal = Files.createTempFile(destino.getParent(), "miniatura-", ".tmp");
+            try {
+                ImageIO.write(miniatura, conTransparencia ? "png" : "jpg", temporal.toFile());
+                Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo generar la miniatura de {}", nombre, e);
+        }
+    }
+
+    private Path rutaDe(String nombre) {
+        return directorio.resolve(nombre.substring(0, 2)).resolve(nombre);
+    }
+
+    // Misma extensión que el original salvo GIF, cuya miniatura es PNG
+    private Path rutaMiniatura(String nombre) {
+        int punto = nombre.lastIndexOf('.');
+        String extension = nombre.endsWith(".jpg") ? "jpg" : "png";
+        return directorio.resolve(nombre.substring(0, 2))
+                .resolve(nombre.substring(0, punto) + SUFIJO_MINIATURA + "." + extension);
+    }
+
+    private static MessageDigest nuevoSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
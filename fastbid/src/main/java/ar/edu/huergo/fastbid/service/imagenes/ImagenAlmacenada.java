@@ -0,0 +1,14 @@
+package ar.edu.huergo.fastbid.service.imagenes;
+
+import java.nio.file.Path;
+
+/**
+ * Archivo de imagen en el almacén local. {@code nombre} es el hash SHA-256 del contenido más
+ * la extensión, y es a la vez su identificador público.
+ */
+public record ImagenAlmacenada(
+        String nombre,
+        Path ruta,
+        long bytes,
+        String tipoContenido
+) {}
@@ -1,54 +1,367 @@
 package ar.edu.huergo.fastbid.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import ar.edu.huergo.fastbid.dto.PaginaDTO;
+import ar.edu.huergo.fastbid.dto.ProductoDTO;
+import ar.edu.huergo.fastbid.dto.ResultadoFiltroDTO;
 import ar.edu.huergo.fastbid.entity.Producto;
+import ar.edu.huergo.fastbid.mapper.ProductoMapper;
 import ar.edu.huergo.fastbid.repository.producto.ProductoRepository;
+import ar.edu.huergo.fastbid.service.busqueda.FacetasProductos;
+import ar.edu.huergo.fastbid.service.busqueda.FiltroProductos;
+import ar.edu.huergo.fastbid.service.busqueda.IndiceProductos;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class ProductoService {
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private ProductoMapper productoMapper;
+
+    @Autowired
+    private ProductoCache productoCache;
+
+    @Autowired
+    private IndiceProductos indiceProductos;
+
+    @Autowired
+    private FacetasProductos facetasProductos;
+
+    @Autowired
+    private VersionCatalogo versionCatalogo;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Transacción de solo lectura para cargar los fallos de la cache
+    private TransactionTemplate lecturas;
+
+    @Value("${fastbid.productos.pagina.maximo:100}")
+    private int tamanioMaximoPagina = 100;
+
+    @Value("${fastbid.productos.exportacion.lote:500}")
+    private int loteExportacion = 500;
+
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        lecturas = new TransactionTemplate(transactionManager);
+        lecturas.setReadOnly(true);
+    }
+
     public List<Producto> obtenerProductos() {
         return productoRepository.findAll();
     }
 
+    /**
+     * Página de productos con paginación por cursor (keyset). El cursor es opaco para el
+     * cliente: codifica la clave del último producto devuelto y la consulta sigue desde ahí,
+     * así que una página profunda cuesta lo mismo que la primera. El tamaño se limita a
+     * {@code fastbid.productos.pagina.maximo}.
+     *
+     * Las imágenes de toda la página se cargan juntas: la página cuesta dos consultas sin
+     * importar cuántos productos tenga.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<Producto> obtenerPagina(OrdenProductos orden, String cursor, int tamanio) {
+        int limite = Math.max(1, Math.min(tamanio, tamanioMaximoPagina));
+        // Se pide uno de más para saber si hay página siguiente sin contar la tabla
+        Limit conSiguiente = Limit.of(limite + 1);
+
+        List<Producto> productos = switch (orden) {
+            case ID -> productoRepository.findByIdProductoGreaterThanOrderByIdProductoAsc(
+                    cursor == null ? Long.MIN_VALUE : Long.parseLong(decodificar(cursor, orden)[0]),
+                    conSiguiente);
+            case FIN_PROXIMO -> {
+                String[] clave = cursor == null ? null : decodificar(cursor, orden);
+                yield productoRepository.findPaginaPorFechaFin(
+                        clave == null ? LocalDateTime.now() : LocalDateTime.parse(clave[0]),
+                        clave == null ? Long.MIN_VALUE : Long.parseLong(clave[1]),
+                        conSiguiente);
+            }
+        };
+
+        List<Producto> pagina = productos.size() <= limite ? productos : productos.subList(0, limite);
+        if (!pagina.isEmpty()) {
+            productoRepository.cargarImagenes(pagina.stream().map(Producto::getIdProducto).toList());
+        }
+        if (productos.size() <= limite) {
+            return new PaginaDTO<>(pagina, null);
+        }
+        Producto ultimo = pagina.get(limite - 1);
+        String siguiente = switch (orden) {
+            case ID -> codificar(orden, String.valueOf(ultimo.getIdProducto()));
+            case FIN_PROXIMO -> codificar(orden, ultimo.getFechaFin() + "|" + ultimo.getIdProducto());
+        };
+        return new PaginaDTO<>(pagina, siguiente);
+    }
+
+    /**
+     * Búsqueda de texto sobre nombre y descripción, ordenada por relevancia (BM25). El índice
+     * resuelve la consulta en memoria; la base solo se usa para traer los productos
+     * encontrados, con sus imágenes, en dos consultas.
+     */
+    @Transactional(readOnly = true)
+    public List<Producto> buscar(String consulta, int limite) {
+        List<Long> ids = indiceProductos.buscar(consulta, Math.max(1, Math.min(limite, tamanioMaximoPagina)));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> posicion = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            posicion.put(ids.get(i), i);
+        }
+        List<Producto> productos = productoRepository.findAllById(ids);
+        productoRepository.cargarImagenes(ids);
+        return productos.stream()
+                .sorted(Comparator.comparing(producto -> posicion.get(producto.getIdProducto())))
+                .toList();
+    }
+
+    /**
+     * Listado filtrado por categoría, condición, ubicación y rango de precio, con conteos por
+     * faceta. El filtro se resuelve con los bitmaps de {@link FacetasProductos}; la base solo
+     * trae los productos de la página por clave primaria. Los resultados van en orden de id
+     * y el cursor es el mismo que el de {@link OrdenProductos#ID}.
+     */
+    @Transactional(readOnly = true)
+    public ResultadoFiltroDTO<Producto> filtrar(FiltroProductos filtro, String cursor, int tamanio) {
+        int limite = Math.max(1, Math.min(tamanio, tamanioMaximoPagina));
+        long despuesDe = cursor == null ? -1 : Long.parseLong(decodificar(cursor, OrdenProductos.ID)[0]);
+        FacetasProductos.Resultado resultado = facetasProductos.filtrar(filtro, despuesDe, limite);
+
+        List<Producto> productos = List.of();
+        if (!resultado.ids().isEmpty()) {
+            productos = productoRepository.findAllById(resultado.ids()).stream()
+                    .sorted(Comparator.comparing(Producto::getIdProducto))
+                    .toList();
+            productoRepository.cargarImagenes(resultado.ids());
+        }
+        String siguiente = resultado.hayMas()
+                ? codificar(OrdenProductos.ID, String.valueOf(resultado.ids().get(resultado.ids().size() - 1)))
+                : null;
+        return new ResultadoFiltroDTO<>(productos, siguiente, resultado.total(), resultado.facetas());
+    }
+
+    /**
+     * Recorre el catálogo (o solo lo modificado desde {@code actualizadoDesde}) con un cursor
+     * de base de datos y entrega cada producto mapeado a {@code destino}, en orden de id.
+     *
+     * La memoria no depende del tamaño del catálogo: los productos se procesan en lotes, las
+     * imágenes de cada lote se cargan en una consulta y el contexto de persistencia se vacía
+     * antes del lote siguiente. Devuelve la cantidad de productos exportados.
+     */
+    @Transactional(readOnly = true)
+    public long exportarCatalogo(Instant actualizadoDesde, Consumer<ProductoDTO> destino) {
+        long exportados = 0;
+        // fechaActualizacion la escribe @UpdateTimestamp en la zona de la JVM, sin offset
+        try (Stream<Producto> productos = actualizadoDesde == null
+                ? productoRepository.streamCatalogo()
+                : productoRepository.streamCatalogoActualizadoDesde(
+                        LocalDateTime.ofInstant(actualizadoDesde, ZoneId.systemDefault()))) {
+            List<Producto> lote = new ArrayList<>(loteExportacion);
+            var iterador = productos.iterator();
+            while (iterador.hasNext()) {
+                lote.add(iterador.next());
+                if (lote.size() == loteExportacion || !iterador.hasNext()) {
+                    productoRepository.cargarImagenes(lote.stream().map(Producto::getIdProducto).toList());
+                    lote.forEach(producto -> destino.accept(productoMapper.toDto(producto)));
+                    exportados += lote.size();
+                    lote.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        return exportados;
+    }
+
     public Producto obteneProductoPorId(Long id) {
         return productoRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Lectura de un producto ya mapeado, a través de {@link ProductoCache}.
+     */
+    public ProductoDTO obtenerProductoDtoPorId(Long id) {
+        ProductoVersionado producto = obtenerProductoVersionadoPorId(id);
+        return producto == null ? null : producto.producto();
+    }
+
+    /**
+     * Producto mapeado con su versión, a través de {@link ProductoCache}. Es el camino de
+     * GET /api/productos/{id}: con la entrada en cache, el ETag se resuelve sin ir a la base.
+     * La cache se invalida al actualizar o eliminar el producto.
+     *
+     * Sin {@code @Transactional}: un acierto no abre transacción ni toma una conexión. Solo
+     * la carga ante un fallo corre en una transacción de solo lectura.
+     */
+    public ProductoVersionado obtenerProductoVersionadoPorId(Long id) {
+        return productoCache.obtener(id, clave -> lecturas.execute(status -> productoRepository.findById(clave)
+                .map(producto -> new ProductoVersionado(productoMapper.toDto(producto), producto.getVersion(),
+                        producto.getFechaActualizacion() == null ? null
+                                : producto.getFechaActualizacion().atZone(ZoneId.systemDefault()).toInstant()))
+                .orElse(null)));
+    }
+
     public Producto crearProducto(Producto producto) {
-        return productoRepository.save(producto);
+        Producto creado = productoRepository.save(producto);
+        indiceProductos.indexar(creado.getIdProducto(), creado.getNombre(), creado.getDescripcion());
+        facetasProductos.indexar(creado.getIdProducto(), creado.getCategoriaId(), creado.getCondicion(),
+                creado.getUbicacion(), creado.getPrecioInicial());
+        versionCatalogo.registrarCambio();
+        return creado;
     }
 
     public Producto actualizarProducto(Long id, Producto productoDetalles) {
         Producto producto = productoRepository.findById(id).orElse(null);
         if (producto != null) {
-            producto.setNombre(productoDetalles.getNombre());
-            producto.setDescripcion(productoDetalles.getDescripcion());
-            producto.setPrecioInicial(productoDetalles.getPrecioInicial());
-            producto.setImagenes(productoDetalles.getImagenes());
-            producto.setCategoriaId(productoDetalles.getCategoriaId());
-            producto.setEstado(productoDetalles.getEstado());
-            producto.setFechaPublicacion(productoDetalles.getFechaPublicacion());
-            producto.setFechaFin(productoDetalles.getFechaFin());
-            producto.setUsuarioId(productoDetalles.getUsuarioId());
-            producto.setSubastaId(productoDetalles.getSubastaId());
-            producto.setPrecioCompraInmediata(productoDetalles.getPrecioCompraInmediata());
-            producto.setCondicion(productoDetalles.getCondicion());
-            producto.setUbicacion(productoDetalles.getUbicacion());
-            producto.setCantidad(productoDetalles.getCantidad());
-
-            return productoRepository.save(producto);
+            String nombreAnterior = producto.getNombre();
+            String descripcionAnterior = producto.getDescripcion();
+            copiarCampos(productoDetalles, producto);
+
+            Producto actualizado = productoRepository.save(producto);
+            despuesDeModificar(actualizado, nombreAnterior, descripcionAnterior);
+            return actualizado;
         }
         return null;
     }
 
+    /**
+     * Modificación parcial (PATCH): {@code cambios} recibe el producto actual y devuelve cómo
+     * debe quedar. Solo se escriben las columnas que cambiaron ({@code @DynamicUpdate}) y las
+     * imágenes se comparan posición por posición, así que un cambio de precio no toca la
+     * tabla de imágenes. Las validaciones de la entidad se aplican antes de confirmar.
+     */
+    @Transactional
+    public Producto modificarProducto(Long id, UnaryOperator<ProductoDTO> cambios) {
+        Producto producto = productoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Producto no encontrado: " + id));
+        String nombreAnterior = producto.getNombre();
+        String descripcionAnterior = producto.getDescripcion();
+        copiarCampos(productoMapper.toEntity(cambios.apply(productoMapper.toDto(producto))), producto);
+
+        Producto modificado = productoRepository.saveAndFlush(producto);
+        // Cache e índices se actualizan recién con el cambio confirmado
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                despuesDeModificar(modificado, nombreAnterior, descripcionAnterior);
+            }
+        });
+        return modificado;
+    }
+
     public void eliminarProducto(Long id) {
         productoRepository.deleteById(id);
+        productoCache.invalidar(id);
+        indiceProductos.eliminar(id);
+        facetasProductos.eliminar(id);
+        versionCatalogo.registrarCambio();
+    }
+
+    private static void copiarCampos(Producto origen, Producto destino) {
+        destino.setNombre(origen.getNombre());
+        destino.setDescripcion(origen.getDescripcion());
+        destino.setPrecioInicial(origen.getPrecioInicial());
+        destino.setCategoriaId(origen.getCategoriaId());
+        destino.setEstado(origen.getEstado());
+        destino.setFechaPublicacion(origen.getFechaPublicacion());
+        destino.setFechaFin(origen.getFechaFin());
+        destino.setUsuarioId(origen.getUsuarioId());
+        destino.setSubastaId(origen.getSubastaId());
+        destino.setPrecioCompraInmediata(origen.getPrecioCompraInmediata());
+        destino.setCondicion(origen.getCondicion());
+        destino.setUbicacion(origen.getUbicacion());
+        destino.setCantidad(origen.getCantidad());
+        sincronizarImagenes(destino, origen.getImagenes());
+    }
+
+    // Modifica la lista persistente en el lugar: Hibernate escribe solo las posiciones que
+    // cambiaron, agregadas o quitadas. Reemplazar la lista borraría y reinsertaría todas
+    private static void sincronizarImagenes(Producto producto, List<String> nuevas) {
+        List<String> actuales = producto.getImagenes();
+        if (actuales == null || nuevas == null) {
+            producto.setImagenes(nuevas == null ? null : new ArrayList<>(nuevas));
+            return;
+        }
+        int comunes = Math.min(actuales.size(), nuevas.size());
+        for (int i = 0; i < comunes; i++) {
+            if (!actuales.get(i).equals(nuevas.get(i))) {
+                actuales.set(i, nuevas.get(i));
+            }
+        }
+        for (int i = actuales.size() - 1; i >= nuevas.size(); i--) {
+            actuales.remove(i);
+        }
+        for (int i = comunes; i < nuevas.size(); i++) {
+            actuales.add(nuevas.get(i));
+        }
+    }
+
+    // Un cambio de precio (el caso más frecuente) no toca el índice de texto: reindexar deja
+    // una lápida y puede disparar una compactación que bloquea las búsquedas. Las facetas
+    // solo mueven los bitmaps de los campos que cambiaron
+    private void despuesDeModificar(Producto producto, String nombreAnterior, String descripcionAnterior) {
+        productoCache.invalidar(producto.getIdProducto());
+        if (!Objects.equals(nombreAnterior, producto.getNombre())
+                || !Objects.equals(descripcionAnterior, producto.getDescripcion())) {
+            indiceProductos.indexar(producto.getIdProducto(), producto.getNombre(), producto.getDescripcion());
+        }
+        facetasProductos.indexar(producto.getIdProducto(), producto.getCategoriaId(), producto.getCondicion(),
+                producto.getUbicacion(), producto.getPrecioInicial());
+        versionCatalogo.registrarCambio();
+    }
+
+    // Cursor: "<orden>|<clave...>" en Base64 URL-safe
+    private static String codificar(OrdenProductos orden, String clave) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((orden.name() + "|" + clave).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodificar(String cursor, OrdenProductos orden) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|");
+            int esperadas = orden == OrdenProductos.ID ? 2 : 3;
+            if (partes.length != esperadas || !partes[0].equals(orden.name())) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            if (orden == OrdenProductos.FIN_PROXIMO) {
+                LocalDateTime.parse(partes[1]);
+            }
+            Long.parseLong(partes[esperadas - 1]);
+            return Arrays.copyOfRange(partes, 1, esperadas);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
     }
 }
@@ -0,0 +1,110 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ejecutor dedicado para el trabajo que hashea contraseñas (el login, con BCrypt).
+ *
+ * Conceptos clave:
+ * - BCrypt es caro a propósito. Con una ráfaga de logins en los hilos del servlet se ocupan
+ *   todos los núcleos y se frenan las pujas. Acá corre en un pool fijo
+ *   ({@code fastbid.seguridad.login.hilos}, por defecto la mitad de los procesadores), y el
+ *   hilo del request queda libre mientras tanto.
+ * - La cola es acotada ({@code fastbid.seguridad.login.cola}). Si está llena, el pedido se
+ *   rechaza en el acto con {@link SobrecargaLoginException} (503 + {@code Retry-After}), en vez
+ *   de esperar detrás de una cola que no va a alcanzar a atender.
+ * - Métricas: {@code fastbid.login.hash} (tiempo de cada tarea), {@code fastbid.login.espera}
+ *   (tiempo en cola), {@code fastbid.login.cola} (profundidad actual) y
+ *   {@code fastbid.login.rechazados}.
+ */
+@Component
+public class EjecutorContrasenias {
+
+    private final ThreadPoolExecutor ejecutor;
+    private final int hilos;
+    private final Timer hasheo;
+    private final Timer espera;
+    private final Counter rechazados;
+
+    public EjecutorContrasenias(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${fastbid.seguridad.login.hilos:0}") int hilos,
+            @Value("${fastbid.seguridad.login.cola:64}") int cola) {
+        this.hilos = hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger numero = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(this.hilos, this.hilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola), r -> {
+                    Thread hilo = new Thread(r, "login-bcrypt-" + numero.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.hasheo = Timer.builder("fastbid.login.hash")
+                .description("Duración de un login en el ejecutor de contraseñas (dominada por BCrypt)")
+                .register(registry);
+        this.espera = Timer.builder("fastbid.login.espera")
+                .description("Tiempo que un login esperó en la cola del ejecutor de contraseñas")
+                .register(registry);
+        this.rechazados = Counter.builder("fastbid.login.rechazados")
+                .description("Logins rechazados con 503 por la cola llena")
+                .register(registry);
+        Gauge.builder("fastbid.login.cola", ejecutor, e -> e.getQueue().size())
+                .description("Logins esperando en la cola del ejecutor de contraseñas")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdown();
+    }
+
+    /**
+     * Encola la tarea y devuelve su resultado futuro. Si la cola está llena lanza
+     * {@link SobrecargaLoginException} sin ejecutar nada.
+     */
+    public <T> CompletableFuture<T> ejecutar(Supplier<T> tarea) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        long encolado = System.nanoTime();
+        try {
+            ejecutor.execute(() -> {
+                long inicio = System.nanoTime();
+                espera.record(inicio - encolado, TimeUnit.NANOSECONDS);
+                try {
+                    resultado.complete(tarea.get());
+                } catch (Throwable ex) {
+                    resultado.completeExceptionally(ex);
+                } finally {
+                    hasheo.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rechazados.increment();
+            throw new SobrecargaLoginException(reintentarEnSegundos());
+        }
+        return resultado;
+    }
+
+    /** Lo que tardaría en vaciarse la cola actual al ritmo medio observado, al menos 1 segundo. */
+    private long reintentarEnSegundos() {
+        double mediaNanos = hasheo.mean(TimeUnit.NANOSECONDS);
+        double vaciado = ejecutor.getQueue().size() * mediaNanos / hilos;
+        return Math.max(1, (long) Math.ceil(vaciado / 1_000_000_000d));
+    }
+}
@@ -5,6 +5,8 @@ import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
@@ -12,6 +14,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -32,6 +38,12 @@ public class JwtTokenService {
      */
     private SecretKey signingKey;
 
+    /**
+     * Parser ya configurado con la clave. Es inmutable y thread-safe, así que se construye una
+     * sola vez y se comparte entre todos los requests.
+     */
+    private final JwtParser parser;
+
     /**
      * Tiempo de vida del token en milisegundos. Se inyecta desde application.properties
      * (security.jwt.expiration-ms).
@@ -45,19 +57,24 @@ public class JwtTokenService {
             @Value("${security.jwt.expiration-ms}") long expirationMillis) {
         this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMillis = expirationMillis;
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     /**
-     * Genera un JWT para el usuario autenticado. - subject: username - iat/exp: fechas de emisión y
-     * expiración - claims personalizados: lista de roles
+     * Genera un JWT para el usuario autenticado. - jti: identificador único (permite revocarlo) -
+     * subject: username - iat/exp: fechas de emisión y expiración - claims personalizados: lista de
+     * roles y, si el principal lo conoce, el id del usuario (uid)
      */
     public String generarToken(UserDetails userDetails, List<String> roles) {
         Instant now = Instant.now();
         Instant expiry = now.plusMillis(expirationMillis);
 
-        return Jwts.builder().subject(userDetails.getUsername()).issuedAt(Date.from(now))
-                .expiration(Date.from(expiry)).claims(Map.of("roles", roles)).signWith(signingKey)
-                .compact();
+        JwtBuilder builder = Jwts.builder().id(UUID.randomUUID().toString()).subject(userDetails.getUsername()).issuedAt(Date.from(now))
+                .expiration(Date.from(expiry)).claims(Map.of("roles", roles));
+        if (userDetails instanceof UsuarioAutenticado usuario && usuario.getId() != null) {
+            builder.claim("uid", usuario.getId());
+        }
+        return builder.signWith(signingKey).compact();
     }
 
     /**
@@ -65,8 +82,26 @@ public class JwtTokenService {
      * válida o el token es malformado.
      */
     public String extraerUsername(String token) {
-        return Jwts.parser().verifyWith(signingKey).build().parseSignedClaims(token).getPayload()
-                .getSubject();
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    /**
+     * Valida el token con una sola verificación de firma y devuelve sus claims. Vacío si la firma
+     * no es válida, el token es malformado, está expirado o no tiene subject.
+     */
+    public Optional<TokenValidado> validar(String token) {
+        Claims payload;
+        try {
+            payload = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        // El parser ya rechaza los tokens con exp vencido; exp es obligatorio
+        if (payload.getSubject() == null || payload.getExpiration() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new TokenValidado(payload.getId(), payload.getSubject(), usuarioId(payload), roles(payload),
+                payload.getExpiration().toInstant()));
     }
 
     /**
@@ -75,8 +110,7 @@ public class JwtTokenService {
      */
     public boolean esTokenValido(String token, UserDetails userDetails) {
         try {
-            var payload = Jwts.parser().verifyWith(signingKey).build().parseSignedClaims(token)
-                    .getPayload();
+            var payload = parser.parseSignedClaims(token).getPayload();
 
             String username = payload.getSubject();
             Date expiration = payload.getExpiration();
@@ -87,6 +121,17 @@ public class JwtTokenService {
             return false;
         }
     }
-}
 
+    private static Long usuarioId(Claims payload) {
+        // Los números del payload se deserializan como Integer o Long según su tamaño
+        return payload.get("uid") instanceof Number uid ? uid.longValue() : null;
+    }
 
+    private static List<String> roles(Claims payload) {
+        Object roles = payload.get("roles");
+        if (!(roles instanceof List<?> lista)) {
+            return List.of();
+        }
+        return lista.stream().map(String::valueOf).toList();
+    }
+}
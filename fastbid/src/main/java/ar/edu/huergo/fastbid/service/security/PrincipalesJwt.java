@@ -0,0 +1,69 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Arma el principal de un request a partir de un JWT ya validado.
+ *
+ * Conceptos clave:
+ * - Modo sin estado ({@code fastbid.seguridad.jwt.sin-estado=true}): las autoridades salen
+ *   directo del claim {@code roles}, que viaja firmado, sin consultar la base. Un cambio de
+ *   roles en la base recién se refleja en el próximo login.
+ * - Si el modo está apagado o el token no trae roles, se usa el {@link UserDetailsService}
+ *   detrás de una cache corta: un mismo usuario va a la base como mucho una vez por
+ *   {@code fastbid.seguridad.principales.ttl-segundos}. Sus métricas se publican como
+ *   {@code cache.*} con {@code cache=principales}.
+ * - El principal sin estado no lleva contraseña: solo se usa para autorizar. Sí lleva el id
+ *   del claim {@code uid} (ver {@link UsuarioAutenticado}).
+ */
+@Component
+public class PrincipalesJwt {
+
+    private final UserDetailsService userDetailsService;
+    private final boolean sinEstado;
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalesJwt(UserDetailsService userDetailsService,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${fastbid.seguridad.jwt.sin-estado:true}") boolean sinEstado,
+            @Value("${fastbid.seguridad.principales.maximo:10000}") long maximo,
+            @Value("${fastbid.seguridad.principales.ttl-segundos:30}") long ttlSegundos) {
+        this.userDetailsService = userDetailsService;
+        this.sinEstado = sinEstado;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "principales"));
+    }
+
+    /**
+     * Devuelve el principal del token. Si hay que ir a la base y el usuario ya no existe, se
+     * propaga la {@code UsernameNotFoundException} del {@link UserDetailsService}.
+     */
+    public UserDetails principal(TokenValidado token) {
+        if (sinEstado && !token.roles().isEmpty()) {
+            List<GrantedAuthority> autoridades = token.roles().stream()
+                    .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                    .toList();
+            return new UsuarioAutenticado(token.usuarioId(), token.username(), "", autoridades);
+        }
+        return cache.get(token.username(), userDetailsService::loadUserByUsername);
+    }
+}
@@ -0,0 +1,177 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ar.edu.huergo.fastbid.entity.security.TokenRevocado;
+import ar.edu.huergo.fastbid.repository.security.TokenRevocadoRepository;
+import ar.edu.huergo.fastbid.util.FiltroBloom;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revocación de JWT antes de su expiración, por su claim {@code jti}.
+ *
+ * Conceptos clave:
+ * - La verdad está en la tabla {@code tokens_revocados}; consultarla en cada request sería
+ *   demasiado caro. Delante hay un {@link FiltroBloom} con los jti revocados vigentes: el caso
+ *   común (no revocado) se responde en memoria y solo los positivos, revocados de verdad o
+ *   falsos positivos (~{@code fastbid.seguridad.revocacion.falsos-positivos}), van a la base.
+ * - Las revocaciones confirmadas se recuerdan en una cache chica, así un token revocado que
+ *   se sigue usando no consulta la base en cada request.
+ * - El filtro no admite borrados: cada {@code fastbid.seguridad.revocacion.reconstruccion-segundos}
+ *   se borran de la tabla los revocados ya expirados y se arma un filtro nuevo con el resto,
+ *   dimensionado para al menos {@code fastbid.seguridad.revocacion.esperados} jti.
+ * - Una revocación que llega durante la reconstrucción se agrega también al filtro nuevo, así
+ *   no se pierde al reemplazarlo.
+ * - Métricas: {@code fastbid.jwt.revocacion.consultas} etiquetado con
+ *   {@code resultado=revocado|falso-positivo}.
+ */
+@Slf4j
+@Service
+public class RevocacionTokens {
+
+    private static final int LOTE_CARGA = 10_000;
+
+    private final TokenRevocadoRepository tokenRevocadoRepository;
+    private final long esperados;
+    private final double falsosPositivos;
+    private final long reconstruccionSegundos;
+    private final Cache<String, Boolean> confirmados;
+    private final Counter revocados;
+    private final Counter falsosPositivosContados;
+    private final ScheduledExecutorService reconstruccion;
+
+    private volatile FiltroBloom filtro;
+    private volatile FiltroBloom enConstruccion;
+
+    public RevocacionTokens(TokenRevocadoRepository tokenRevocadoRepository,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${fastbid.seguridad.revocacion.esperados:1000000}") long esperados,
+            @Value("${fastbid.seguridad.revocacion.falsos-positivos:0.01}") double falsosPositivos,
+            @Value("${fastbid.seguridad.revocacion.reconstruccion-segundos:600}") long reconstruccionSegundos) {
+        this.tokenRevocadoRepository = tokenRevocadoRepository;
+        this.esperados = esperados;
+        this.falsosPositivos = falsosPositivos;
+        this.reconstruccionSegundos = reconstruccionSegundos;
+        this.filtro = new FiltroBloom(esperados, falsosPositivos);
+        this.confirmados = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(reconstruccionSegundos))
+                .build();
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.revocados = Counter.builder("fastbid.jwt.revocacion.consultas").tag("resultado", "revocado")
+                .description("Tokens que pasaron el filtro de Bloom y se consultaron en la base")
+                .register(registry);
+        this.falsosPositivosContados = Counter.builder("fastbid.jwt.revocacion.consultas")
+                .tag("resultado", "falso-positivo")
+                .description("Tokens que pasaron el filtro de Bloom y se consultaron en la base")
+                .register(registry);
+        this.reconstruccion = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "revocacion-tokens");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        reconstruir();
+        reconstruccion.scheduleWithFixedDelay(this::reconstruirSinFallar, reconstruccionSegundos,
+                reconstruccionSegundos, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        reconstruccion.shutdownNow();
+    }
+
+    /**
+     * Revoca el token hasta su expiración. Un token sin jti (emitido antes de que existiera el
+     * claim) no se puede revocar y se ignora.
+     */
+    public void revocar(TokenValidado token) {
+        if (token.jti() == null) {
+            return;
+        }
+        // Primero la base: una reconstrucción que empiece después ya lo va a leer. Después el
+        // filtro en construcción y recién entonces el vigente: si la reconstrucción terminó en
+        // el medio, el vigente ya es el nuevo
+        tokenRevocadoRepository.save(new TokenRevocado(token.jti(), token.expiracion()));
+        FiltroBloom nuevo = enConstruccion;
+        if (nuevo != null) {
+            nuevo.agregar(token.jti());
+        }
+        filtro.agregar(token.jti());
+        confirmados.put(token.jti(), Boolean.TRUE);
+    }
+
+    public boolean estaRevocado(String jti) {
+        if (jti == null || !filtro.puedeContener(jti)) {
+            return false;
+        }
+        if (confirmados.getIfPresent(jti) != null) {
+            return true;
+        }
+        if (tokenRevocadoRepository.existsById(jti)) {
+            revocados.increment();
+            confirmados.put(jti, Boolean.TRUE);
+            return true;
+        }
+        falsosPositivosContados.increment();
+        return false;
+    }
+
+    /**
+     * Borra los revocados ya expirados y reemplaza el filtro por uno armado desde la tabla.
+     */
+    void reconstruir() {
+        Instant ahora = Instant.now();
+        int borrados = tokenRevocadoRepository.deleteVencidos(ahora);
+        long vigentes = tokenRevocadoRepository.countByExpiracionAfter(ahora);
+        FiltroBloom nuevo = new FiltroBloom(Math.max(esperados, vigentes * 2), falsosPositivos);
+        enConstruccion = nuevo;
+        try {
+            String desde = "";
+            List<String> lote;
+            do {
+                lote = tokenRevocadoRepository.findJtisVigentesDesde(ahora, desde, Limit.of(LOTE_CARGA));
+                lote.forEach(nuevo::agregar);
+                if (!lote.isEmpty()) {
+                    desde = lote.get(lote.size() - 1);
+                }
+            } while (lote.size() == LOTE_CARGA);
+            filtro = nuevo;
+        } finally {
+            enConstruccion = null;
+        }
+        log.info("Filtro de tokens revocados reconstruido: {} vigentes, {} vencidos borrados, {} KB",
+                vigentes, borrados, nuevo.bytes() / 1024);
+    }
+
+    private void reconstruirSinFallar() {
+        try {
+            reconstruir();
+        } catch (RuntimeException ex) {
+            // Se conserva el filtro anterior, que sigue siendo correcto (solo le sobran vencidos)
+            log.error("No se pudo reconstruir el filtro de tokens revocados", ex);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import lombok.Getter;
+
+/**
+ * El ejecutor de hashes de contraseñas tiene la cola llena: el login se rechaza sin encolarlo.
+ * Se responde 503 con {@code Retry-After}.
+ */
+@Getter
+public class SobrecargaLoginException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public SobrecargaLoginException(long reintentarEnSegundos) {
+        super("Demasiados logins en curso, reintente en " + reintentarEnSegundos + " segundos");
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+}
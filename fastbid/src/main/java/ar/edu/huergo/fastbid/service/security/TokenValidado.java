@@ -0,0 +1,17 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims de un JWT cuya firma y expiración ya se verificaron.
+ *
+ * @param jti identificador único del token (claim {@code jti}); null en tokens emitidos antes de
+ *        que existiera
+ * @param username subject del token
+ * @param usuarioId claim {@code uid}; null en tokens emitidos antes de que existiera
+ * @param roles claim {@code roles} tal como se emitió
+ * @param expiracion instante {@code exp} del token
+ */
+public record TokenValidado(String jti, String username, Long usuarioId, List<String> roles, Instant expiracion) {
+}
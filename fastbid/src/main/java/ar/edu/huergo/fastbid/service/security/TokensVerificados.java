@@ -0,0 +1,141 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cache de tokens ya verificados, delante de {@link JwtTokenService#validar(String)}.
+ *
+ * Conceptos clave:
+ * - Un cliente repite el mismo token en cada request hasta que expira. La primera vez se
+ *   verifica la firma y se parsea el JSON; las siguientes se resuelven con un SHA-256 del
+ *   token y una búsqueda en la cache.
+ * - La clave es el digest (no el token), así la cache no guarda credenciales en claro.
+ * - Cada entrada vence exactamente en el {@code exp} de su token. Los tokens inválidos no se
+ *   guardan, para que no se pueda llenar la cache con basura.
+ * - Los tokens revocados se rechazan aunque estén en la cache: cada validación, acierto o no,
+ *   consulta {@link RevocacionTokens} (en memoria, salvo los positivos del filtro de Bloom).
+ * - Métricas: {@code cache.*} con {@code cache=tokens-jwt} (tasa de aciertos) y el timer
+ *   {@code fastbid.jwt.validacion}, etiquetado con {@code origen=cache|firma}.
+ */
+@Component
+public class TokensVerificados {
+
+    private final JwtTokenService jwtTokenService;
+    private final RevocacionTokens revocacionTokens;
+    private final Cache<ClaveToken, TokenValidado> cache;
+    private final Timer desdeCache;
+    private final Timer verificando;
+
+    public TokensVerificados(JwtTokenService jwtTokenService, RevocacionTokens revocacionTokens,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${fastbid.seguridad.tokens.maximo:50000}") long maximo) {
+        this.jwtTokenService = jwtTokenService;
+        this.revocacionTokens = revocacionTokens;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfter(new HastaExpiracion())
+                .recordStats()
+                .build();
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        CaffeineCacheMetrics.monitor(registry, cache, "tokens-jwt");
+        this.desdeCache = Timer.builder("fastbid.jwt.validacion").tag("origen", "cache")
+                .description("Validación de un JWT en el filtro de autenticación")
+                .register(registry);
+        this.verificando = Timer.builder("fastbid.jwt.validacion").tag("origen", "firma")
+                .description("Validación de un JWT en el filtro de autenticación")
+                .register(registry);
+    }
+
+    /**
+     * Igual que {@link JwtTokenService#validar(String)}, pero sin volver a verificar un token que
+     * ya se verificó y todavía no expiró. Vacío también si el token fue revocado.
+     */
+    public Optional<TokenValidado> validar(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        long inicio = System.nanoTime();
+        ClaveToken clave = ClaveToken.de(token);
+        TokenValidado validado = cache.getIfPresent(clave);
+        if (validado != null) {
+            if (revocacionTokens.estaRevocado(validado.jti())) {
+                cache.invalidate(clave);
+                validado = null;
+            }
+            desdeCache.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return Optional.ofNullable(validado);
+        }
+
+        Optional<TokenValidado> verificado = jwtTokenService.validar(token)
+                .filter(v -> !revocacionTokens.estaRevocado(v.jti()));
+        verificado.ifPresent(v -> cache.put(clave, v));
+        verificando.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return verificado;
+    }
+
+    /** Olvida un token ya verificado: la próxima vez se vuelve a verificar su firma. */
+    public void invalidar(String token) {
+        cache.invalidate(ClaveToken.de(token));
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /** SHA-256 del token, como cuatro longs para comparar y hashear sin arrays. */
+    private record ClaveToken(long a, long b, long c, long d) {
+
+        static ClaveToken de(String token) {
+            // Una instancia por llamada: es barata, y un ThreadLocal no se reutiliza con hilos
+            // virtuales (cada request es un hilo nuevo)
+            MessageDigest sha256;
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+            ByteBuffer digest = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new ClaveToken(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+    }
+
+    /** Cada entrada vive hasta el exp de su token. */
+    private static final class HastaExpiracion implements Expiry<ClaveToken, TokenValidado> {
+
+        @Override
+        public long expireAfterCreate(ClaveToken clave, TokenValidado token, long ahora) {
+            return Math.max(0, Duration.between(Instant.now(), token.expiracion()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ClaveToken clave, TokenValidado token, long ahora, long restante) {
+            return expireAfterCreate(clave, token, ahora);
+        }
+
+        @Override
+        public long expireAfterRead(ClaveToken clave, TokenValidado token, long ahora, long restante) {
+            return restante;
+        }
+    }
+}
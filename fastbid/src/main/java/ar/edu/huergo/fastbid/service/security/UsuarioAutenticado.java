@@ -0,0 +1,30 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Principal de Spring Security que además conoce el id del usuario.
+ *
+ * Conceptos clave:
+ * - El id viaja en el claim {@code uid} del JWT, así los endpoints que necesitan el id (por
+ *   ejemplo, pujar) no consultan la base en cada request para resolverlo desde el username.
+ * - Puede ser null en tokens emitidos antes de que existiera el claim.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class UsuarioAutenticado extends User {
+
+    private final Long id;
+
+    public UsuarioAutenticado(Long id, String username, String password,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+}
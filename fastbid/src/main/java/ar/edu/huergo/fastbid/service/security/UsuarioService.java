@@ -10,6 +10,7 @@ import ar.edu.huergo.fastbid.entity.security.Rol;
 import ar.edu.huergo.fastbid.entity.security.Usuario;
 import ar.edu.huergo.fastbid.repository.security.RolRepository;
 import ar.edu.huergo.fastbid.repository.security.UsuarioRepository;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -23,6 +24,11 @@ public class UsuarioService {
         return usuarioRepository.findAll();
     }
 
+    public Long obtenerIdPorUsername(String username) {
+        return usuarioRepository.findByUsername(username).map(Usuario::getId)
+                .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado: " + username));
+    }
+
     public Usuario registrar(Usuario usuario, String password, String verificacionPassword) {
         if (password == null || verificacionPassword == null) {
             throw new IllegalArgumentException("Las contraseñas no pueden ser null");
@@ -0,0 +1,34 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regla anti-sniping ("cierre suave"): una puja aceptada en los últimos
+ * {@code ventana-segundos} de la subasta corre su fecha de fin {@code extension-segundos}.
+ * Con ventana 0 la regla queda deshabilitada.
+ */
+@Component
+public class CierreSuave {
+
+    private final long ventanaMillis;
+    private final long extensionMillis;
+
+    public CierreSuave(@Value("${fastbid.subastas.cierre-suave.ventana-segundos:0}") long ventanaSegundos,
+            @Value("${fastbid.subastas.cierre-suave.extension-segundos:0}") long extensionSegundos) {
+        this.ventanaMillis = TimeUnit.SECONDS.toMillis(ventanaSegundos);
+        this.extensionMillis = TimeUnit.SECONDS.toMillis(extensionSegundos);
+    }
+
+    /**
+     * Devuelve la fecha de fin que corresponde después de una puja aceptada en {@code ahoraMillis}.
+     */
+    public long extender(long fechaFinMillis, long ahoraMillis) {
+        if (ventanaMillis > 0 && fechaFinMillis - ahoraMillis <= ventanaMillis) {
+            return fechaFinMillis + extensionMillis;
+        }
+        return fechaFinMillis;
+    }
+}
@@ -0,0 +1,400 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Diario (journal) de pujas aceptadas: append-only, segmentado y mapeado en memoria.
+ *
+ * Conceptos clave:
+ * - Cada puja efectiva se escribe como un registro binario de tamaño fijo
+ *   ({@value #TAMANIO_REGISTRO} bytes) en un {@link MappedByteBuffer}: escribir es copiar
+ *   bytes a memoria, sin syscalls ni inserts JPA. El registro lleva además el precio, el
+ *   líder y la fecha de fin (con las prórrogas del cierre suave) que dejó la operación.
+ * - Group commit: un hilo dedicado hace {@code force()} (fsync) de todo lo escrito hasta el
+ *   momento y recién entonces completa los futuros de esas pujas. Muchas pujas comparten
+ *   un mismo fsync, así que la confirmación cuesta microsegundos y sobrevive a un crash.
+ * - Al arrancar se reproducen los segmentos de la ejecución anterior: las pujas que no
+ *   llegaron a la base se insertan y se restaura el precio y el ganador de cada subasta.
+ *   Los segmentos se descartan recién cuando eso quedó confirmado en la base.
+ * - Un segmento lleno se borra cuando todas sus pujas ya fueron persistidas en la base; al
+ *   cerrar, también el actual si no le queda ninguna pendiente.
+ * - Los segmentos solo valen para la base contra la que se escribieron: el directorio guarda
+ *   el identificador de esa base y no se reproduce contra otra (o contra un esquema que se
+ *   volvió a crear, como H2 en memoria con create-drop). Por eso el diario viene apagado.
+ * - Si un fsync falla, el health {@code diarioPujas} pasa a DOWN hasta que uno posterior
+ *   termine bien (ese fsync cubre también lo escrito antes).
+ *
+ * Formato del registro (little endian):
+ * crc32 (int) | tipo (int) | subastaId (long) | usuarioId (long) | monto (double) | fecha (long)
+ * | precioActual (double) | ganadorId (long) | fechaFin (long)
+ */
+@Slf4j
+@Component
+public class DiarioPujas implements HealthIndicator {
+
+    public static final int TAMANIO_REGISTRO = 64;
+
+    private static final int TIPO_PUJA = 1;
+    private static final int TIPO_CIERRE = 2;
+    private static final String ARCHIVO_ESQUEMA = "esquema.id";
+    private static final Pattern NOMBRE_SEGMENTO = Pattern.compile("pujas-(\\d{12})\\.diario");
+    private static final Escritura SIN_DIARIO =
+            new Escritura(-1, CompletableFuture.completedFuture(null));
+
+    /**
+     * Registro leído del diario: una puja efectiva y el estado en que dejó la subasta.
+     * {@code cierre} indica que la operación finalizó la subasta.
+     */
+    public record RegistroPuja(long subastaId, long usuarioId, double monto, long fechaMillis,
+            double precioActual, long ganadorId, long fechaFinMillis, boolean cierre) {}
+
+    /** Posición asignada a un registro y futuro que se completa cuando quedó en disco. */
+    public record Escritura(long secuencia, CompletableFuture<Void> durable) {}
+
+    private record Pendiente(long secuencia, CompletableFuture<Void> futuro) {}
+
+    private final boolean habilitado;
+    private final Path directorio;
+    private final int registrosPorSegmento;
+    private final long esperaOciosaNanos;
+
+    // Estado del escritor, protegido por el monitor de esta instancia
+    private final ByteBuffer registro =
+            ByteBuffer.allocate(TAMANIO_REGISTRO).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+    private final List<Segmento> sellados = new ArrayList<>();
+    private Segmento actual;
+    private long proximaSecuencia;
+    private long primerNumeroDeEstaEjecucion;
+
+    private final ConcurrentLinkedQueue<Pendiente> pendientes = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Segmento> segmentosAbiertos = new ConcurrentHashMap<>();
+    private final Thread hiloForzado;
+    private volatile boolean activo = true;
+    private volatile RuntimeException errorSincronizacion;
+
+    public DiarioPujas(@Value("${fastbid.pujas.diario.habilitado:false}") boolean habilitado,
+            @Value("${fastbid.pujas.diario.directorio:data/diario-pujas}") String directorio,
+            @Value("${fastbid.pujas.diario.registros-por-segmento:1048576}") int registrosPorSegmento,
+            @Value("${fastbid.pujas.diario.espera-ociosa-micros:200}") long esperaOciosaMicros) {
+        this.habilitado = habilitado;
+        this.directorio = Paths.get(directorio);
+        this.registrosPorSegmento = registrosPorSegmento;
+        this.esperaOciosaNanos = TimeUnit.MICROSECONDS.toNanos(esperaOciosaMicros);
+        this.hiloForzado = new Thread(this::forzarEnGrupo, "diario-pujas-fsync");
+        this.hiloForzado.setDaemon(true);
+    }
+
+    @PostConstruct
+    void abrir() throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        Files.createDirectories(directorio);
+        // Los segmentos existentes quedan para reproducir; esta ejecución escribe en uno nuevo
+        primerNumeroDeEstaEjecucion = segmentosAnteriores().stream()
+                .mapToLong(DiarioPujas::numeroDe).max().orElse(0) + 1;
+        actual = abrirSegmento(0);
+        hiloForzado.start();
+        log.info("Diario de pujas abierto en {}", directorio.toAbsolutePath());
+    }
+
+    @PreDestroy
+    void cerrar() throws InterruptedException {
+        if (!habilitado) {
+            return;
+        }
+        activo = false;
+        LockSupport.unpark(hiloForzado);
+        hiloForzado.join(TimeUnit.SECONDS.toMillis(5));
+        synchronized (this) {
+            sellados.forEach(segmento -> segmento.buffer.force());
+            actual.buffer.force();
+            // El persistidor ya se detuvo: un segmento con todas sus pujas en la base no hace
+            // falta para el próximo arranque
+            segmentosAbiertos.forEach((indice, segmento) -> {
+                segmento.cerrar();
+                long escritos = Math.min(registrosPorSegmento, proximaSecuencia - indice * registrosPorSegmento);
+                if (segmento.persistidas.get() >= escritos) {
+                    borrar(segmento.ruta);
+                }
+            });
+            segmentosAbiertos.clear();
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    @Override
+    public Health health() {
+        if (!habilitado) {
+            return Health.unknown().withDetail("habilitado", false).build();
+        }
+        RuntimeException error = errorSincronizacion;
+        return error == null ? Health.up().build() : Health.down(error).build();
+    }
+
+    /**
+     * Ata el diario a la base con la que se usa. Si hay segmentos de la ejecución anterior
+     * escritos contra otra base, o contra un esquema que después se volvió a crear, sus ids
+     * ya no corresponden a las mismas subastas: no se reproducen y el arranque falla.
+     */
+    public void verificarEsquema(String identificador) throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        Path archivo = directorio.resolve(ARCHIVO_ESQUEMA);
+        String anterior = Files.exists(archivo) ? Files.readString(archivo).trim() : null;
+        if (!segmentosAnteriores().isEmpty() && !identificador.equals(anterior)) {
+            throw new IllegalStateException("El diario de pujas en " + directorio.toAbsolutePath()
+                    + " se escribió contra otra base o contra un esquema anterior; no se reproduce");
+        }
+        Files.writeString(archivo, identificador);
+    }
+
+    /**
+     * Agrega un registro al diario. La escritura es una copia a memoria; el futuro devuelto
+     * se completa en el próximo group commit. Los futuros se completan en orden, así que el
+     * de un registro implica los de todos los anteriores.
+     */
+    public Escritura registrar(long subastaId, long usuarioId, double monto, long fechaMillis,
+            double precioActual, long ganadorId, long fechaFinMillis, boolean cierre) {
+        if (!habilitado) {
+            return SIN_DIARIO;
+        }
+
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        long secuencia;
+        synchronized (this) {
+            secuencia = proximaSecuencia++;
+            int posicion = (int) (secuencia % registrosPorSegmento);
+            if (posicion == 0 && secuencia > 0) {
+                sellados.add(actual);
+                actual = abrirSegmento(secuencia / registrosPorSegmento);
+            }
+
+            registro.clear();
+            registro.putInt(0).putInt(cierre ? TIPO_CIERRE : TIPO_PUJA).putLong(subastaId)
+                    .putLong(usuarioId).putDouble(monto).putLong(fechaMillis)
+                    .putDouble(precioActual).putLong(ganadorId).putLong(fechaFinMillis);
+            crc.reset();
+            crc.update(registro.array(), Integer.BYTES, TAMANIO_REGISTRO - Integer.BYTES);
+            registro.putInt(0, (int) crc.getValue());
+            actual.buffer.put(posicion * TAMANIO_REGISTRO, registro, 0, TAMANIO_REGISTRO);
+
+            pendientes.add(new Pendiente(secuencia, durable));
+        }
+        LockSupport.unpark(hiloForzado);
+        return new Escritura(secuencia, durable);
+    }
+
+    /**
+     * Informa que estas secuencias ya están en la base. Cuando un segmento lleno tiene todas
+     * sus pujas persistidas, el archivo deja de ser necesario y se borra.
+     */
+    public void confirmarPersistidas(List<Long> secuencias) {
+        for (long secuencia : secuencias) {
+            if (secuencia < 0) {
+                continue;
+            }
+            long indice = secuencia / registrosPorSegmento;
+            Segmento segmento = segmentosAbiertos.get(indice);
+            if (segmento != null
+                    && segmento.persistidas.incrementAndGet() == registrosPorSegmento) {
+                segmentosAbiertos.remove(indice);
+                synchronized (this) {
+                    sellados.remove(segmento);
+                }
+                segmento.cerrar();
+                borrar(segmento.ruta);
+            }
+        }
+    }
+
+    /**
+     * Recorre, en orden, los registros que dejó la ejecución anterior. La lectura de cada
+     * segmento se corta en el primer registro vacío o con CRC inválido (escritura a medias).
+     */
+    public void reproducir(Consumer<RegistroPuja> consumidor) throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        long leidos = 0;
+        for (Path ruta : segmentosAnteriores()) {
+            try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+                ByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size())
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                CRC32 verificador = new CRC32();
+                for (int pos = 0; pos + TAMANIO_REGISTRO <= datos.limit(); pos += TAMANIO_REGISTRO) {
+                    int tipo = datos.getInt(pos + 4);
+                    if (tipo != TIPO_PUJA && tipo != TIPO_CIERRE) {
+                        break;
+                    }
+                    verificador.reset();
+                    verificador.update(datos.slice(pos + Integer.BYTES, TAMANIO_REGISTRO - Integer.BYTES));
+                    if ((int) verificador.getValue() != datos.getInt(pos)) {
+                        break;
+                    }
+                    consumidor.accept(new RegistroPuja(datos.getLong(pos + 8), datos.getLong(pos + 16),
+                            datos.getDouble(pos + 24), datos.getLong(pos + 32), datos.getDouble(pos + 40),
+                            datos.getLong(pos + 48), datos.getLong(pos + 56), tipo == TIPO_CIERRE));
+                    leidos++;
+                }
+            }
+        }
+        log.info("Diario de pujas: {} registros reproducidos", leidos);
+    }
+
+    /**
+     * Borra los segmentos de la ejecución anterior. Solo debe llamarse cuando todo lo
+     * reproducido ya se confirmó en la base.
+     */
+    public void descartarReproducidos() throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        segmentosAnteriores().forEach(DiarioPujas::borrar);
+    }
+
+    // ---------------------------------------------------------------------------------
+
+    private void forzarEnGrupo() {
+        while (activo || !pendientes.isEmpty()) {
+            if (pendientes.isEmpty()) {
+                LockSupport.parkNanos(esperaOciosaNanos);
+                continue;
+            }
+
+            // Todo lo escrito hasta acá entra en este commit; lo que llegue mientras se hace
+            // el fsync queda para el siguiente. Un segmento sellado sale de la lista recién
+            // cuando su fsync terminó bien: si falla, se vuelve a intentar en el próximo commit
+            List<Segmento> aForzar;
+            Segmento enEscritura;
+            long hasta;
+            synchronized (this) {
+                hasta = proximaSecuencia - 1;
+                aForzar = new ArrayList<>(sellados);
+                enEscritura = actual;
+                aForzar.add(enEscritura);
+            }
+
+            RuntimeException error = null;
+            try {
+                for (Segmento segmento : aForzar) {
+                    segmento.buffer.force();
+                    if (segmento != enEscritura) {
+                        synchronized (this) {
+                            sellados.remove(segmento);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("No se pudo sincronizar el diario de pujas", e);
+                error = e;
+            }
+            errorSincronizacion = error;
+
+            Pendiente pendiente;
+            while ((pendiente = pendientes.peek()) != null && pendiente.secuencia() <= hasta) {
+                pendientes.poll();
+                if (error == null) {
+                    pendiente.futuro().complete(null);
+                } else {
+                    pendiente.futuro().completeExceptionally(error);
+                }
+            }
+        }
+    }
+
+    private Segmento abrirSegmento(long indice) {
+        Path ruta = directorio.resolve(String.format("pujas-%012d.diario", primerNumeroDeEstaEjecucion + indice));
+        try {
+            FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0,
+                    (long) registrosPorSegmento * TAMANIO_REGISTRO);
+            Segmento segmento = new Segmento(ruta, canal, buffer);
+            segmentosAbiertos.put(indice, segmento);
+            return segmento;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el segmento " + ruta, e);
+        }
+    }
+
+    private List<Path> segmentosAnteriores() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.filter(ruta -> numeroDe(ruta) > 0)
+                    .filter(ruta -> primerNumeroDeEstaEjecucion == 0 || numeroDe(ruta) < primerNumeroDeEstaEjecucion)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long numeroDe(Path ruta) {
+        Matcher matcher = NOMBRE_SEGMENTO.matcher(ruta.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    private static void borrar(Path ruta) {
+        try {
+            Files.deleteIfExists(ruta);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el segmento {}", ruta, e);
+        }
+    }
+
+    private static final class Segmento {
+        private final Path ruta;
+        private final FileChannel canal;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger persistidas = new AtomicInteger();
+
+        private Segmento(Path ruta, FileChannel canal, MappedByteBuffer buffer) {
+            this.ruta = ruta;
+            this.canal = canal;
+            this.buffer = buffer;
+        }
+
+        private void cerrar() {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                log.warn("No se pudo cerrar el segmento {}", ruta, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ar.edu.huergo.fastbid.dto.subastas.PrecioSubastaDTO;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Difusión en tiempo real (Server-Sent Events) del precio y el líder de cada subasta.
+ *
+ * Conceptos clave:
+ * - Coalescencia por subasta: publicar solo reemplaza el último estado pendiente de esa
+ *   subasta. Cada {@code ventana-ms} se envía a los suscriptores únicamente el más reciente,
+ *   sin importar cuántas pujas hubo en el medio.
+ * - Cada suscriptor guarda a su vez solo el último estado que le falta recibir: si el cliente
+ *   es lento, los estados intermedios se pisan y nunca se acumula una cola.
+ * - Los envíos corren en hilos virtuales; las conexiones abiertas no ocupan hilos del
+ *   servidor (SseEmitter usa el soporte asíncrono del servlet).
+ * - Una subasta sale del mapa de suscriptores cuando se va su último cliente o cuando
+ *   finaliza, así el mapa solo guarda subastas con alguien mirando.
+ */
+@Slf4j
+@Component
+public class DifusorPrecios {
+
+    private final long ventanaMillis;
+    private final long timeoutMillis;
+    private final Map<Long, Set<Suscriptor>> suscriptores = new ConcurrentHashMap<>();
+    private final Map<Long, PrecioSubastaDTO> pendientes = new ConcurrentHashMap<>();
+    private final Map<Long, PrecioSubastaDTO> ultimos = new ConcurrentHashMap<>();
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "difusor-precios");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public DifusorPrecios(@Value("${fastbid.subastas.eventos.ventana-ms:100}") long ventanaMillis,
+            @Value("${fastbid.subastas.eventos.timeout-ms:1800000}") long timeoutMillis) {
+        this.ventanaMillis = ventanaMillis;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        temporizador.scheduleAtFixedRate(this::difundirPendientes, ventanaMillis, ventanaMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        temporizador.shutdown();
+        envios.shutdown();
+    }
+
+    /**
+     * Registra un nuevo suscriptor y le envía enseguida el estado actual de la subasta.
+     * {@code estadoInicial} solo se consulta si todavía no hubo publicaciones de esa subasta.
+     */
+    public SseEmitter suscribir(Long subastaId, Supplier<PrecioSubastaDTO> estadoInicial) {
+        PrecioSubastaDTO actual = ultimos.get(subastaId);
+        if (actual == null) {
+            actual = estadoInicial.get();
+        }
+
+        SseEmitter emisor = crearEmisor();
+        Suscriptor suscriptor = new Suscriptor(subastaId, emisor);
+        emisor.onCompletion(suscriptor::quitar);
+        emisor.onTimeout(suscriptor::quitar);
+        emisor.onError(error -> suscriptor.quitar());
+        // compute y no computeIfAbsent(...).add: el alta no puede caer en un conjunto que
+        // quitar() acaba de sacar del mapa por quedar vacío
+        suscriptores.compute(subastaId, (id, deLaSubasta) -> {
+            Set<Suscriptor> conjunto = deLaSubasta != null ? deLaSubasta : ConcurrentHashMap.newKeySet();
+            conjunto.add(suscriptor);
+            return conjunto;
+        });
+
+        suscriptor.ofrecer(actual);
+        return emisor;
+    }
+
+    /**
+     * Publica el nuevo estado de una subasta. Es O(1) y no bloquea: se puede llamar desde
+     * el hilo de un shard del motor de pujas.
+     */
+    public void publicar(PrecioSubastaDTO precio) {
+        pendientes.put(precio.subastaId(), precio);
+    }
+
+    public int cantidadSuscriptores() {
+        return suscriptores.values().stream().mapToInt(Set::size).sum();
+    }
+
+    int cantidadSubastasObservadas() {
+        return suscriptores.size();
+    }
+
+    SseEmitter crearEmisor() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // Una ventana de coalescencia; la agenda iniciar()
+    void difundirPendientes() {
+        try {
+            Iterator<Long> ids = pendientes.keySet().iterator();
+            while (ids.hasNext()) {
+                Long subastaId = ids.next();
+                PrecioSubastaDTO precio = pendientes.remove(subastaId);
+                if (precio == null) {
+                    continue;
+                }
+                if (precio.estado() == SubastaEstado.ACTIVA) {
+                    ultimos.put(subastaId, precio);
+                } else {
+                    ultimos.remove(subastaId);
+                }
+                // Si la subasta terminó, este es el último envío: los suscriptores se cierran solos
+                Set<Suscriptor> destinatarios = precio.estado() == SubastaEstado.ACTIVA
+                        ? suscriptores.get(subastaId)
+                        : suscriptores.remove(subastaId);
+                if (destinatarios != null) {
+                    destinatarios.forEach(suscriptor -> suscriptor.ofrecer(precio));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría la tarea periódica
+            log.error("Error difundiendo precios", e);
+        }
+    }
+
+    private final class Suscriptor {
+        private final Long subastaId;
+        private final SseEmitter emisor;
+        private final AtomicReference<PrecioSubastaDTO> porEnviar = new AtomicReference<>();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        private Suscriptor(Long subastaId, SseEmitter emisor) {
+            this.subastaId = subastaId;
+            this.emisor = emisor;
+        }
+
+        private void ofrecer(PrecioSubastaDTO precio) {
+            porEnviar.set(precio);
+            if (enviando.compareAndSet(false, true)) {
+                envios.execute(this::enviar);
+            }
+        }
+
+        private void enviar() {
+            do {
+                PrecioSubastaDTO precio;
+                while ((precio = porEnviar.getAndSet(null)) != null) {
+                    try {
+                        emisor.send(SseEmitter.event().name("precio").data(precio));
+                        if (precio.estado() != SubastaEstado.ACTIVA) {
+                            emisor.complete();
+                        }
+                    } catch (IOException | IllegalStateException e) {
+                        // El cliente se desconectó
+                        quitar();
+                        return;
+                    }
+                }
+                enviando.set(false);
+                // Si llegó algo entre el último getAndSet y el set(false), lo retomamos
+            } while (porEnviar.get() != null && enviando.compareAndSet(false, true));
+        }
+
+        private void quitar() {
+            suscriptores.computeIfPresent(subastaId, (id, deLaSubasta) -> {
+                deLaSubasta.remove(this);
+                return deLaSubasta.isEmpty() ? null : deLaSubasta;
+            });
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import ar.edu.huergo.fastbid.dto.subastas.ResultadoPujaDTO;
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+
+/**
+ * Estado en memoria de una subasta ACTIVA.
+ *
+ * No es thread-safe a propósito: cada instancia pertenece a un único shard de
+ * {@link MotorPujas} y solo el hilo de ese shard la lee y la modifica, por lo que
+ * aplicar una puja no necesita locks ni operaciones atómicas.
+ *
+ * Las pujas automáticas (proxy) se guardan en un árbol ordenado por monto máximo. Cada
+ * operación se resuelve mirando solo los dos máximos más altos, en O(log n): el primero
+ * queda como líder pagando lo justo para superar al segundo (o a la puja manual), sin
+ * reproducir la escalada de a un incremento. Por eso una operación genera como mucho un
+ * puñado de pujas efectivas, sin importar cuántos proxies haya.
+ */
+public class EstadoSubasta {
+
+    /** Puja que efectivamente quedó registrada al aplicar una operación. */
+    public record PujaEfectiva(long usuarioId, double monto) {}
+
+    // A igual máximo gana el registrado primero
+    private record Maxima(long usuarioId, double monto, long orden) {}
+
+    private static final Comparator<Maxima> POR_MONTO_DESC = Comparator
+            .comparingDouble(Maxima::monto).reversed()
+            .thenComparingLong(Maxima::orden);
+
+    private final long idSubasta;
+    private final double incrementoMinimo;
+    private final Double compraInmediata;
+    private final CierreSuave cierreSuave;
+    private final long fechaInicioMillis;
+
+    private long fechaFinMillis;
+    private double precioActual;
+    private Long ganadorId;
+    private SubastaEstado estado;
+
+    private final TreeSet<Maxima> maximas = new TreeSet<>(POR_MONTO_DESC);
+    private final Map<Long, Maxima> maximaPorUsuario = new HashMap<>();
+    private final List<PujaEfectiva> efectivas = new ArrayList<>(3);
+    private long proximoOrden;
+
+    public EstadoSubasta(Subasta subasta, CierreSuave cierreSuave) {
+        this.idSubasta = subasta.getIdSubasta();
+        this.incrementoMinimo = subasta.getIncrementoMinimo();
+        this.compraInmediata = subasta.getCompraInmediata();
+        this.cierreSuave = cierreSuave;
+        this.fechaInicioMillis = subasta.getFechaInicio().toInstant().toEpochMilli();
+        this.fechaFinMillis = subasta.getFechaFin().toInstant().toEpochMilli();
+        this.precioActual = subasta.getPrecioActual();
+        this.ganadorId = subasta.getGanadorId();
+        this.estado = subasta.getEstado();
+    }
+
+    /**
+     * Valida y aplica una puja. Reglas:
+     * - La subasta debe estar ACTIVA, haber llegado a su fecha de inicio y no a la de fin.
+     * - La primera puja debe igualar al menos el precio actual (precio inicial);
+     *   las siguientes deben superarlo en al menos {@code incrementoMinimo}.
+     * - Si el monto alcanza {@code compraInmediata}, la subasta se cierra a ese precio.
+     * - Si no, las pujas automáticas responden (ver {@link #resolverAutomaticas()}) y se
+     *   aplica el {@link CierreSuave}: la fecha de fin puede correrse en el lugar, sin
+     *   tocar la base ni el planificador (el cierre vuelve a chequearla).
+     * Una puja aceptada puede quedar superada en el acto por una automática.
+     */
+    public ResultadoPujaDTO aplicarPuja(long usuarioId, double monto, long ahoraMillis) {
+        efectivas.clear();
+        String motivo = validarAbierta(ahoraMillis);
+        if (motivo != null) {
+            return rechazar(motivo);
+        }
+
+        double minimo = siguienteMinimo();
+        if (monto < minimo) {
+            return rechazar("El monto debe ser al menos " + minimo);
+        }
+
+        efectivas.add(new PujaEfectiva(usuarioId, monto));
+        if (compraInmediata != null && monto >= compraInmediata) {
+            precioActual = compraInmediata;
+            ganadorId = usuarioId;
+            estado = SubastaEstado.FINALIZADA;
+        } else {
+            precioActual = monto;
+            ganadorId = usuarioId;
+            resolverAutomaticas();
+            extenderSiSigueAbierta(ahoraMillis);
+        }
+        return ResultadoPujaDTO.aceptada(idSubasta, precioActual, ganadorId, estado);
+    }
+
+    /**
+     * Compra inmediata: cierra la subasta a {@code compraInmediata} a nombre del usuario.
+     * Como el estado lo modifica un único hilo, la primera compra gana y cualquier puja o
+     * compra posterior ve la subasta FINALIZADA y se rechaza.
+     */
+    public ResultadoPujaDTO comprarAhora(long usuarioId, long ahoraMillis) {
+        efectivas.clear();
+        String motivo = validarAbierta(ahoraMillis);
+        if (motivo != null) {
+            return rechazar(motivo);
+        }
+        if (compraInmediata == null) {
+            return rechazar("La subasta no tiene precio de compra inmediata");
+        }
+
+        precioActual = compraInmediata;
+        ganadorId = usuarioId;
+        estado = SubastaEstado.FINALIZADA;
+        efectivas.add(new PujaEfectiva(usuarioId, compraInmediata));
+        return ResultadoPujaDTO.aceptada(idSubasta, precioActual, ganadorId, estado);
+    }
+
+    /**
+     * Registra (o sube) el monto máximo de la puja automática de un usuario y resuelve la
+     * subasta contra las demás. El máximo debe alcanzar el próximo monto válido, salvo que
+     * el usuario ya sea el líder, y solo puede subirse.
+     */
+    public ResultadoPujaDTO registrarMaxima(long usuarioId, double montoMaximo, long ahoraMillis) {
+        efectivas.clear();
+        String motivo = validarAbierta(ahoraMillis);
+        if (motivo != null) {
+            return rechazar(motivo);
+        }
+
+        Maxima anterior = maximaPorUsuario.get(usuarioId);
+        if (anterior != null && montoMaximo <= anterior.monto()) {
+            return rechazar("El monto máximo debe superar al ya registrado (" + anterior.monto() + ")");
+        }
+        double minimo = esLider(usuarioId) ? precioActual : siguienteMinimo();
+        if (montoMaximo < minimo) {
+            return rechazar("El monto máximo debe ser al menos " + minimo);
+        }
+
+        cargarMaxima(usuarioId, montoMaximo);
+        resolverAutomaticas();
+        if (!efectivas.isEmpty()) {
+            extenderSiSigueAbierta(ahoraMillis);
+        }
+        return ResultadoPujaDTO.aceptada(idSubasta, precioActual, ganadorId, estado);
+    }
+
+    /**
+     * Agrega o reemplaza el máximo de un usuario sin resolver la subasta. Se usa al cargar
+     * desde la base, en orden de registro.
+     */
+    public void cargarMaxima(long usuarioId, double montoMaximo) {
+        Maxima anterior = maximaPorUsuario.remove(usuarioId);
+        if (anterior != null) {
+            maximas.remove(anterior);
+        }
+        Maxima maxima = new Maxima(usuarioId, montoMaximo, proximoOrden++);
+        maximas.add(maxima);
+        maximaPorUsuario.put(usuarioId, maxima);
+    }
+
+    /**
+     * Enfrenta a los dos máximos más altos con el estado actual. El primero solo puja si
+     * puede alcanzar el próximo monto válido; si el segundo también puede, ambos "pujan"
+     * su tope de una vez y el primero queda líder a un incremento del segundo (o en su
+     * propio tope, si no le alcanza para más).
+     */
+    private void resolverAutomaticas() {
+        if (maximas.isEmpty()) {
+            return;
+        }
+        Iterator<Maxima> iterador = maximas.iterator();
+        Maxima primera = iterador.next();
+        Maxima segunda = iterador.hasNext() ? iterador.next() : null;
+
+        double minimo = siguienteMinimo();
+        boolean lider = esLider(primera.usuarioId());
+        boolean hayRival = segunda != null && segunda.monto() >= minimo;
+        if (lider ? !hayRival : primera.monto() < minimo) {
+            return;
+        }
+
+        double nuevoPrecio = hayRival
+                ? Math.min(primera.monto(), Math.max(minimo, segunda.monto() + incrementoMinimo))
+                : minimo;
+        if (hayRival) {
+            efectivas.add(new PujaEfectiva(segunda.usuarioId(), segunda.monto()));
+        }
+        if (compraInmediata != null && nuevoPrecio >= compraInmediata) {
+            nuevoPrecio = compraInmediata;
+            estado = SubastaEstado.FINALIZADA;
+        }
+        precioActual = nuevoPrecio;
+        ganadorId = primera.usuarioId();
+        efectivas.add(new PujaEfectiva(primera.usuarioId(), nuevoPrecio));
+    }
+
+    private String validarAbierta(long ahoraMillis) {
+        if (estado != SubastaEstado.ACTIVA) {
+            return "La subasta no está activa";
+        }
+        if (ahoraMillis < fechaInicioMillis) {
+            return "La subasta todavía no comenzó";
+        }
+        if (ahoraMillis >= fechaFinMillis) {
+            return "La subasta ya finalizó";
+        }
+        return null;
+    }
+
+    private double siguienteMinimo() {
+        return ganadorId == null ? precioActual : precioActual + incrementoMinimo;
+    }
+
+    private boolean esLider(long usuarioId) {
+        return ganadorId != null && ganadorId == usuarioId;
+    }
+
+    private void extenderSiSigueAbierta(long ahoraMillis) {
+        if (estado == SubastaEstado.ACTIVA) {
+            fechaFinMillis = cierreSuave.extender(fechaFinMillis, ahoraMillis);
+        }
+    }
+
+    private ResultadoPujaDTO rechazar(String motivo) {
+        return ResultadoPujaDTO.rechazada(motivo, idSubasta, precioActual, ganadorId, estado);
+    }
+
+    public long getIdSubasta() {
+        return idSubasta;
+    }
+
+    public double getPrecioActual() {
+        return precioActual;
+    }
+
+    public Long getGanadorId() {
+        return ganadorId;
+    }
+
+    public SubastaEstado getEstado() {
+        return estado;
+    }
+
+    public long getFechaFinMillis() {
+        return fechaFinMillis;
+    }
+
+    /**
+     * Pujas efectivas que dejó la última operación aceptada, en orden (la última es la del
+     * líder). Vacía si la operación no movió el precio. Se reutiliza entre operaciones.
+     */
+    public List<PujaEfectiva> getPujasEfectivas() {
+        return efectivas;
+    }
+}
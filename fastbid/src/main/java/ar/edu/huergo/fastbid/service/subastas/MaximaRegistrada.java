@@ -0,0 +1,12 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+/**
+ * Monto máximo de una puja automática ya aceptado por {@link MotorPujas}, pendiente de ser
+ * escrito en la base por {@link PersistidorPujas}.
+ */
+public record MaximaRegistrada(
+        long subastaId,
+        long usuarioId,
+        double montoMaximo,
+        long fechaMillis
+) {}
@@ -0,0 +1,280 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import ar.edu.huergo.fastbid.dto.subastas.PrecioSubastaDTO;
+import ar.edu.huergo.fastbid.dto.subastas.ResultadoPujaDTO;
+import ar.edu.huergo.fastbid.entity.subastas.PujaAutomatica;
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import ar.edu.huergo.fastbid.repository.subastas.PujaAutomaticaRepository;
+import ar.edu.huergo.fastbid.repository.subastas.SubastaRepository;
+import ar.edu.huergo.fastbid.service.subastas.DiarioPujas.RegistroPuja;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor de pujas en memoria.
+ *
+ * Conceptos clave:
+ * - Las subastas ACTIVA se mantienen en memoria como {@link EstadoSubasta}.
+ * - Cada subasta se asigna siempre al mismo shard (según su id). Cada shard es un único
+ *   hilo, así que todas las pujas de una subasta se aplican en serie por un solo escritor
+ *   y el camino crítico no toma locks ni hace read-modify-write contra la base.
+ * - Cada puja aceptada se registra en {@link DiarioPujas} y se confirma al cliente después
+ *   del fsync de ese registro; la escritura en la base la hace {@link PersistidorPujas}
+ *   en lotes, de forma asíncrona. Si el fsync falla la puja se confirma igual, porque ya
+ *   está aplicada y difundida; la falla se ve en el health del diario.
+ * - Cada cambio de precio o líder se publica en {@link DifusorPrecios}.
+ * - Las pujas automáticas viven en el {@link EstadoSubasta} de su subasta y se resuelven en
+ *   el mismo hilo; sus máximos se escriben en la base con el resto del lote.
+ */
+@Slf4j
+@Service
+public class MotorPujas {
+
+    private static final int LOTE_RECUPERACION = 1000;
+
+    private final SubastaRepository subastaRepository;
+    private final PujaAutomaticaRepository pujaAutomaticaRepository;
+    private final PersistidorPujas persistidorPujas;
+    private final DiarioPujas diarioPujas;
+    private final DifusorPrecios difusorPrecios;
+    private final CierreSuave cierreSuave;
+    private final Shard[] shards;
+
+    public MotorPujas(SubastaRepository subastaRepository,
+            PujaAutomaticaRepository pujaAutomaticaRepository, PersistidorPujas persistidorPujas,
+            DiarioPujas diarioPujas, DifusorPrecios difusorPrecios, CierreSuave cierreSuave,
+            @Value("${fastbid.pujas.shards:0}") int cantidadShards) {
+        this.subastaRepository = subastaRepository;
+        this.pujaAutomaticaRepository = pujaAutomaticaRepository;
+        this.persistidorPujas = persistidorPujas;
+        this.diarioPujas = diarioPujas;
+        this.difusorPrecios = difusorPrecios;
+        this.cierreSuave = cierreSuave;
+        int cantidad = cantidadShards > 0 ? cantidadShards : Runtime.getRuntime().availableProcessors();
+        this.shards = new Shard[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarSubastasActivas() throws IOException {
+        recuperarDesdeDiario();
+        List<Subasta> activas = subastaRepository.findByEstado(SubastaEstado.ACTIVA);
+        Map<Long, List<PujaAutomatica>> maximas = pujaAutomaticaRepository
+                .findBySubastaIdInOrderByFechaAsc(activas.stream().map(Subasta::getIdSubasta).toList())
+                .stream().collect(Collectors.groupingBy(PujaAutomatica::getSubastaId));
+        activas.forEach(subasta -> registrar(subasta,
+                maximas.getOrDefault(subasta.getIdSubasta(), List.of())));
+        log.info("Motor de pujas iniciado con {} shards y {} subastas activas", shards.length,
+                activas.size());
+    }
+
+    /**
+     * Reproduce el diario de la ejecución anterior: inserta las pujas que no llegaron a la
+     * base antes de un crash y restaura precio y ganador de cada subasta, en lotes. El diario
+     * se descarta solo si todos los lotes se confirmaron; si alguno falla, el arranque falla
+     * y los segmentos quedan para el próximo intento. Tampoco arranca si el diario se escribió
+     * contra otra base.
+     */
+    private void recuperarDesdeDiario() throws IOException {
+        if (!diarioPujas.isHabilitado()) {
+            return;
+        }
+        diarioPujas.verificarEsquema(persistidorPujas.identificadorEsquema());
+        List<RegistroPuja> lote = new ArrayList<>(LOTE_RECUPERACION);
+        diarioPujas.reproducir(registro -> {
+            lote.add(registro);
+            if (lote.size() == LOTE_RECUPERACION) {
+                persistidorPujas.recuperar(lote);
+                lote.clear();
+            }
+        });
+        persistidorPujas.recuperar(lote);
+        diarioPujas.descartarReproducidos();
+    }
+
+    /**
+     * Carga (o reemplaza) una subasta en el shard que le corresponde.
+     */
+    public void registrar(Subasta subasta) {
+        registrar(subasta, List.of());
+    }
+
+    private void registrar(Subasta subasta, List<PujaAutomatica> maximas) {
+        EstadoSubasta estado = new EstadoSubasta(subasta, cierreSuave);
+        maximas.forEach(maxima -> estado.cargarMaxima(maxima.getUsuarioId(), maxima.getMontoMaximo()));
+        Shard shard = shardDe(estado.getIdSubasta());
+        shard.ejecutor.execute(() -> shard.subastas.put(estado.getIdSubasta(), estado));
+    }
+
+    /**
+     * Encola la puja en el shard de la subasta. El futuro se completa cuando el hilo del
+     * shard la validó y, si fue aceptada, cuando quedó registrada en el diario; la escritura
+     * en la base ocurre después, en segundo plano.
+     */
+    public CompletableFuture<ResultadoPujaDTO> pujar(long subastaId, long usuarioId, double monto) {
+        return procesarEnShard(subastaId, usuarioId, monto, Operacion.PUJA);
+    }
+
+    /**
+     * Compra inmediata. El hilo del shard actúa como compare-and-set en memoria: la primera
+     * compra cierra la subasta y la saca del motor, las siguientes se rechazan sin tocar la
+     * base ni tomar locks.
+     */
+    public CompletableFuture<ResultadoPujaDTO> comprarAhora(long subastaId, long usuarioId) {
+        return procesarEnShard(subastaId, usuarioId, 0, Operacion.COMPRA_INMEDIATA);
+    }
+
+    /**
+     * Registra (o sube) el monto máximo de la puja automática del usuario. Igual que
+     * {@link #pujar}, el futuro se completa cuando el shard la resolvió y el estado
+     * resultante quedó en el diario.
+     */
+    public CompletableFuture<ResultadoPujaDTO> registrarMaxima(long subastaId, long usuarioId,
+            double montoMaximo) {
+        return procesarEnShard(subastaId, usuarioId, montoMaximo, Operacion.PUJA_AUTOMATICA);
+    }
+
+    private CompletableFuture<ResultadoPujaDTO> procesarEnShard(long subastaId, long usuarioId,
+            double monto, Operacion operacion) {
+        Shard shard = shardDe(subastaId);
+        return CompletableFuture.supplyAsync(() -> shard.procesar(subastaId, usuarioId, monto, operacion),
+                shard.ejecutor).thenCompose(Function.identity());
+    }
+
+    /**
+     * Saca del motor las subastas que llegaron a su fecha de fin: a partir de que el futuro
+     * se completa, cualquier puja sobre ellas se rechaza.
+     *
+     * Antes de finalizar, cada shard vuelve a chequear la fecha de fin en memoria, que el
+     * cierre suave puede haber corrido. Esas subastas no se finalizan y se devuelven con su
+     * nueva fecha de fin (id → epoch millis) para que el llamador las reprograme.
+     */
+    public CompletableFuture<Map<Long, Long>> finalizar(Collection<Long> subastaIds, long ahoraMillis) {
+        Map<Shard, List<Long>> porShard = subastaIds.stream()
+                .collect(Collectors.groupingBy(this::shardDe));
+        Map<Long, Long> prorrogadas = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] tareas = porShard.entrySet().stream()
+                .map(entrada -> CompletableFuture.runAsync(
+                        () -> entrada.getValue().forEach(
+                                id -> entrada.getKey().finalizar(id, ahoraMillis, prorrogadas)),
+                        entrada.getKey().ejecutor))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(tareas).thenApply(v -> prorrogadas);
+    }
+
+    @PreDestroy
+    void detener() {
+        for (Shard shard : shards) {
+            shard.ejecutor.shutdown();
+        }
+    }
+
+    private enum Operacion { PUJA, PUJA_AUTOMATICA, COMPRA_INMEDIATA }
+
+    private Shard shardDe(long subastaId) {
+        return shards[Math.floorMod(Long.hashCode(subastaId), shards.length)];
+    }
+
+    /**
+     * Un shard: un hilo propio y las subastas que le pertenecen. El mapa solo se toca
+     * desde ese hilo, por eso es un HashMap común.
+     */
+    private final class Shard {
+
+        private final Map<Long, EstadoSubasta> subastas = new HashMap<>();
+        private final ExecutorService ejecutor;
+
+        private Shard(int indice) {
+            this.ejecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread hilo = new Thread(r, "motor-pujas-" + indice);
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+
+        private CompletableFuture<ResultadoPujaDTO> procesar(long subastaId, long usuarioId,
+                double monto, Operacion operacion) {
+            EstadoSubasta estado = subastas.get(subastaId);
+            if (estado == null) {
+                return CompletableFuture.completedFuture(
+                        ResultadoPujaDTO.rechazada("La subasta no está activa", subastaId, 0, null, null));
+            }
+
+            long ahora = System.currentTimeMillis();
+            ResultadoPujaDTO resultado = switch (operacion) {
+                case PUJA -> estado.aplicarPuja(usuarioId, monto, ahora);
+                case PUJA_AUTOMATICA -> estado.registrarMaxima(usuarioId, monto, ahora);
+                case COMPRA_INMEDIATA -> estado.comprarAhora(usuarioId, ahora);
+            };
+            if (!resultado.aceptada()) {
+                return CompletableFuture.completedFuture(resultado);
+            }
+            if (operacion == Operacion.PUJA_AUTOMATICA) {
+                persistidorPujas.encolar(new MaximaRegistrada(subastaId, usuarioId, monto, ahora));
+            }
+
+            List<EstadoSubasta.PujaEfectiva> efectivas = estado.getPujasEfectivas();
+            if (efectivas.isEmpty()) {
+                // Solo subió el tope del líder: el precio no cambió
+                return CompletableFuture.completedFuture(resultado);
+            }
+
+            // Un registro en el diario por cada puja efectiva, todos con el estado final. Basta
+            // esperar al último: el group commit confirma los registros en orden
+            boolean finalizada = estado.getEstado() != SubastaEstado.ACTIVA;
+            DiarioPujas.Escritura escritura = null;
+            for (EstadoSubasta.PujaEfectiva efectiva : efectivas) {
+                escritura = diarioPujas.registrar(subastaId, efectiva.usuarioId(), efectiva.monto(),
+                        ahora, estado.getPrecioActual(), estado.getGanadorId(), estado.getFechaFinMillis(),
+                        finalizada);
+                persistidorPujas.encolar(new PujaAceptada(subastaId, efectiva.usuarioId(),
+                        efectiva.monto(), ahora, estado.getPrecioActual(), estado.getGanadorId(),
+                        estado.getEstado(), estado.getFechaFinMillis(), escritura.secuencia()));
+            }
+            if (finalizada) {
+                subastas.remove(subastaId);
+            }
+            difusorPrecios.publicar(new PrecioSubastaDTO(subastaId, estado.getPrecioActual(),
+                    estado.getGanadorId(), estado.getEstado()));
+            // Para este punto la puja ya está aplicada, encolada y difundida: la respuesta no
+            // puede contradecirla. Una falla de fsync la registra el diario en su health
+            return escritura.durable().handle((v, error) -> resultado);
+        }
+
+        private void finalizar(long subastaId, long ahoraMillis, Map<Long, Long> prorrogadas) {
+            EstadoSubasta estado = subastas.get(subastaId);
+            if (estado != null && estado.getFechaFinMillis() > ahoraMillis) {
+                prorrogadas.put(subastaId, estado.getFechaFinMillis());
+                return;
+            }
+            subastas.remove(subastaId);
+            if (estado != null) {
+                difusorPrecios.publicar(new PrecioSubastaDTO(subastaId, estado.getPrecioActual(),
+                        estado.getGanadorId(), SubastaEstado.FINALIZADA));
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import ar.edu.huergo.fastbid.service.subastas.DiarioPujas.RegistroPuja;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Escritor asíncrono de pujas aceptadas.
+ *
+ * Los shards de {@link MotorPujas} solo encolan; un hilo dedicado drena la cola en lotes
+ * y, en una única transacción por lote, inserta las pujas con JDBC batch y actualiza
+ * cada subasta una sola vez con el último estado conocido. Así la base nunca está en el
+ * camino crítico de una puja y no hay contención por el lock de fila de la subasta.
+ * Si la base falla, el lote no se descarta: se reintenta con backoff exponencial hasta que
+ * entra. Lo que se pierda en un crash antes de llegar a la base se recupera desde
+ * {@link DiarioPujas}.
+ *
+ * Los máximos de las pujas automáticas viajan en el mismo lote. No pasan por el diario:
+ * ante un crash antes del lote se pierde el tope, pero no el precio que ya produjo.
+ */
+@Slf4j
+@Component
+public class PersistidorPujas {
+
+    private static final int TAMANIO_LOTE = 1000;
+    private static final long ESPERA_INICIAL_MILLIS = 100;
+    private static final long ESPERA_MAXIMA_MILLIS = 10_000;
+
+    private static final String INSERT_PUJA =
+            "INSERT INTO pujas (subasta_id, usuario_id, monto, fecha) VALUES (?, ?, ?, ?)";
+
+    // La condición sobre precio_actual evita que un lote atrasado pise un precio mayor;
+    // el estado solo puede pasar a FINALIZADA, nunca volver atrás. La fecha de fin lleva
+    // las prórrogas del cierre suave, que así se escriben junto con el precio
+    private static final String UPDATE_SUBASTA =
+            "UPDATE subastas SET precio_actual = ?, ganador_id = ?, fecha_fin = ?, "
+                    + "estado = CASE WHEN ? THEN 'FINALIZADA' ELSE estado END, version = version + 1 "
+                    + "WHERE id_subasta = ? AND precio_actual <= ?";
+
+    // Igual que UPDATE_SUBASTA: el registro del diario trae la fecha de fin con las prórrogas
+    private static final String UPDATE_RECUPERADA =
+            "UPDATE subastas SET precio_actual = ?, ganador_id = ?, fecha_fin = ?, "
+                    + "estado = CASE WHEN ? THEN 'FINALIZADA' ELSE estado END, version = version + 1 "
+                    + "WHERE id_subasta = ? AND precio_actual <= ?";
+
+    // Sintaxis MERGE ... KEY de H2: inserta o reemplaza el máximo del usuario en la subasta.
+    // El motor solo acepta máximos crecientes y la cola es FIFO, así que pisar es correcto
+    private static final String MERGE_MAXIMA =
+            "MERGE INTO pujas_automaticas (subasta_id, usuario_id, monto_maximo, fecha) "
+                    + "KEY (subasta_id, usuario_id) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_IDENTIDAD =
+            "SELECT identificador FROM identidad_esquema WHERE id = 1";
+
+    private static final String INSERT_IDENTIDAD =
+            "INSERT INTO identidad_esquema (id, identificador) VALUES (1, ?)";
+
+    private final ConcurrentLinkedQueue<MaximaRegistrada> maximasPendientes = new ConcurrentLinkedQueue<>();
+    private final BlockingQueue<PujaAceptada> pendientes = new LinkedBlockingQueue<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DiarioPujas diarioPujas;
+    private final Thread hilo;
+    private volatile boolean activo = true;
+
+    public PersistidorPujas(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            DiarioPujas diarioPujas) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.diarioPujas = diarioPujas;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hilo = new Thread(this::ejecutar, "persistidor-pujas");
+        this.hilo.setDaemon(true);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        hilo.start();
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        // Deja que el hilo termine de escribir lo que quedó en la cola
+        activo = false;
+        hilo.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void encolar(PujaAceptada puja) {
+        pendientes.add(puja);
+    }
+
+    public void encolar(MaximaRegistrada maxima) {
+        maximasPendientes.add(maxima);
+    }
+
+    /**
+     * Aplica, de forma sincrónica y en una transacción, un lote de registros reproducidos
+     * del diario al arrancar: inserta las pujas que todavía no están en la base y lleva cada
+     * subasta al último estado del lote. Es idempotente: una puja se reconoce por subasta,
+     * usuario, monto y fecha (el motor nunca acepta dos iguales), y el UPDATE no baja precios.
+     * Los registros de subastas que no existen en la base se descartan.
+     */
+    public void recuperar(List<RegistroPuja> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+
+        int insertadas = transactionTemplate.execute(status -> {
+            Set<Long> subastas = subastasExistentes(registros.stream()
+                    .map(RegistroPuja::subastaId).distinct().toList());
+            List<RegistroPuja> validos = registros.stream()
+                    .filter(registro -> subastas.contains(registro.subastaId()))
+                    .toList();
+            if (validos.size() < registros.size()) {
+                log.warn("Diario de pujas: {} registros de subastas inexistentes descartados",
+                        registros.size() - validos.size());
+            }
+            if (validos.isEmpty()) {
+                return 0;
+            }
+
+            // El diario está en orden de aplicación: el último registro de cada subasta manda
+            Map<Long, RegistroPuja> ultimas = new LinkedHashMap<>();
+            validos.forEach(registro -> ultimas.put(registro.subastaId(), registro));
+            Set<ClavePuja> existentes = pujasExistentes(ultimas.keySet(),
+                    validos.stream().mapToLong(RegistroPuja::fechaMillis).min().orElseThrow());
+            List<RegistroPuja> faltantes = validos.stream()
+                    .filter(registro -> !existentes.contains(ClavePuja.de(registro)))
+                    .toList();
+            jdbcTemplate.batchUpdate(INSERT_PUJA, faltantes, TAMANIO_LOTE, (ps, registro) -> {
+                ps.setLong(1, registro.subastaId());
+                ps.setLong(2, registro.usuarioId());
+                ps.setDouble(3, registro.monto());
+                ps.setObject(4, aFecha(registro.fechaMillis()));
+            });
+            jdbcTemplate.batchUpdate(UPDATE_RECUPERADA, new ArrayList<>(ultimas.values()), ultimas.size(),
+                    (ps, registro) -> {
+                        ps.setDouble(1, registro.precioActual());
+                        ps.setLong(2, registro.ganadorId());
+                        ps.setObject(3, aFecha(registro.fechaFinMillis()));
+                        ps.setBoolean(4, registro.cierre());
+                        ps.setLong(5, registro.subastaId());
+                        ps.setDouble(6, registro.precioActual());
+                    });
+            return faltantes.size();
+        });
+        log.info("Recuperadas desde el diario {} pujas faltantes", insertadas);
+    }
+
+    /**
+     * Identificador de esta base (ver {@link ar.edu.huergo.fastbid.entity.subastas.IdentidadEsquema}).
+     * Si el esquema es nuevo, lo genera.
+     */
+    public String identificadorEsquema() {
+        return transactionTemplate.execute(status -> {
+            List<String> actual = jdbcTemplate.queryForList(SELECT_IDENTIDAD, String.class);
+            if (!actual.isEmpty()) {
+                return actual.get(0);
+            }
+            String nuevo = UUID.randomUUID().toString();
+            jdbcTemplate.update(INSERT_IDENTIDAD, nuevo);
+            return nuevo;
+        });
+    }
+
+    private Set<Long> subastasExistentes(Collection<Long> subastaIds) {
+        String marcadores = String.join(", ", Collections.nCopies(subastaIds.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id_subasta FROM subastas WHERE id_subasta IN (" + marcadores + ")",
+                Long.class, subastaIds.toArray()));
+    }
+
+    private Set<ClavePuja> pujasExistentes(Collection<Long> subastaIds, long desdeMillis) {
+        String marcadores = String.join(", ", Collections.nCopies(subastaIds.size(), "?"));
+        List<Object> parametros = new ArrayList<>(subastaIds);
+        parametros.add(aFecha(desdeMillis));
+        return new HashSet<>(jdbcTemplate.query(
+                "SELECT subasta_id, usuario_id, monto, fecha FROM pujas WHERE subasta_id IN ("
+                        + marcadores + ") AND fecha >= ?",
+                (rs, fila) -> new ClavePuja(rs.getLong(1), rs.getLong(2), rs.getDouble(3),
+                        rs.getObject(4, OffsetDateTime.class).toInstant().toEpochMilli()),
+                parametros.toArray()));
+    }
+
+    private record ClavePuja(long subastaId, long usuarioId, double monto, long fechaMillis) {
+        private static ClavePuja de(RegistroPuja registro) {
+            return new ClavePuja(registro.subastaId(), registro.usuarioId(), registro.monto(),
+                    registro.fechaMillis());
+        }
+    }
+
+    private void ejecutar() {
+        List<PujaAceptada> lote = new ArrayList<>(TAMANIO_LOTE);
+        List<MaximaRegistrada> maximas = new ArrayList<>();
+        long esperaMillis = ESPERA_INICIAL_MILLIS;
+        while (activo || !lote.isEmpty() || !maximas.isEmpty() || !pendientes.isEmpty()
+                || !maximasPendientes.isEmpty()) {
+            try {
+                // Un lote que falló se reintenta tal cual antes de tomar pujas nuevas
+                if (lote.isEmpty() && maximas.isEmpty()) {
+                    PujaAceptada primera = pendientes.poll(100, TimeUnit.MILLISECONDS);
+                    if (primera != null) {
+                        lote.add(primera);
+                        pendientes.drainTo(lote, TAMANIO_LOTE - 1);
+                    }
+                    MaximaRegistrada maxima;
+                    while (maximas.size() < TAMANIO_LOTE && (maxima = maximasPendientes.poll()) != null) {
+                        maximas.add(maxima);
+                    }
+                }
+                if (lote.isEmpty() && maximas.isEmpty()) {
+                    continue;
+                }
+                persistir(lote, maximas);
+                lote.clear();
+                maximas.clear();
+                esperaMillis = ESPERA_INICIAL_MILLIS;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // La transacción se revirtió entera: el lote se conserva y se reintenta con
+                // backoff exponencial. Mientras tanto sus pujas siguen en el diario
+                log.error("No se pudo persistir un lote de {} pujas y {} máximos, reintento en {} ms",
+                        lote.size(), maximas.size(), esperaMillis, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(esperaMillis));
+                esperaMillis = Math.min(ESPERA_MAXIMA_MILLIS, esperaMillis * 2);
+            }
+        }
+    }
+
+    private void persistir(List<PujaAceptada> lote, List<MaximaRegistrada> maximas) {
+        // Solo importa el último estado de cada subasta dentro del lote
+        Map<Long, PujaAceptada> ultimas = new LinkedHashMap<>();
+        for (PujaAceptada puja : lote) {
+            ultimas.merge(puja.subastaId(), puja,
+                    (anterior, nueva) -> nueva.precioActual() >= anterior.precioActual() ? nueva : anterior);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!maximas.isEmpty()) {
+                jdbcTemplate.batchUpdate(MERGE_MAXIMA, maximas, maximas.size(), (ps, maxima) -> {
+                    ps.setLong(1, maxima.subastaId());
+                    ps.setLong(2, maxima.usuarioId());
+                    ps.setDouble(3, maxima.montoMaximo());
+                    ps.setObject(4, aFecha(maxima.fechaMillis()));
+                });
+            }
+            if (lote.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_PUJA, lote, lote.size(), (ps, puja) -> {
+                ps.setLong(1, puja.subastaId());
+                ps.setLong(2, puja.usuarioId());
+                ps.setDouble(3, puja.monto());
+                ps.setObject(4, aFecha(puja.fechaMillis()));
+            });
+            jdbcTemplate.batchUpdate(UPDATE_SUBASTA, new ArrayList<>(ultimas.values()), ultimas.size(),
+                    (ps, puja) -> {
+                        ps.setDouble(1, puja.precioActual());
+                        ps.setObject(2, puja.ganadorId());
+                        ps.setObject(3, aFecha(puja.fechaFinMillis()));
+                        ps.setBoolean(4, puja.estado() == SubastaEstado.FINALIZADA);
+                        ps.setLong(5, puja.subastaId());
+                        ps.setDouble(6, puja.precioActual());
+                    });
+        });
+        diarioPujas.confirmarPersistidas(lote.stream().map(PujaAceptada::secuencia).toList());
+    }
+
+    private static OffsetDateTime aFecha(long epochMillis) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,204 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import ar.edu.huergo.fastbid.repository.subastas.SubastaRepository;
+import ar.edu.huergo.fastbid.repository.subastas.SubastaRepository.PlazosSubasta;
+import ar.edu.huergo.fastbid.util.RuedaTemporizadora;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Planificador del ciclo de vida de las subastas: PROGRAMADA → ACTIVA en {@code fechaInicio}
+ * y ACTIVA → FINALIZADA en {@code fechaFin}.
+ *
+ * En lugar de consultar periódicamente toda la tabla, al arrancar se cargan los plazos de
+ * las subastas pendientes en una {@link RuedaTemporizadora}. Un hilo propio la avanza cada
+ * tick; las transiciones que vencen en el mismo tick se aplican juntas con un UPDATE por
+ * lote y se informan al {@link MotorPujas}.
+ *
+ * El cierre vuelve a validar la fecha de fin: si el {@link CierreSuave} la corrió, la
+ * subasta no se finaliza y su cierre se reprograma con la nueva fecha.
+ */
+@Slf4j
+@Service
+public class PlanificadorSubastas {
+
+    private static final int TAMANIO_LOTE = 1000;
+    private static final long ESPERA_REINTENTO_MILLIS = 1000;
+
+    private record Transicion(long subastaId, SubastaEstado hacia) {}
+
+    private record Programacion(long vencimientoMillis, Transicion transicion) {}
+
+    private final SubastaRepository subastaRepository;
+    private final MotorPujas motorPujas;
+    private final TransactionTemplate transactionTemplate;
+    private final long tickMillis;
+    private final RuedaTemporizadora<Transicion> rueda;
+    private final ConcurrentLinkedQueue<Programacion> nuevas = new ConcurrentLinkedQueue<>();
+    private final Thread hilo;
+    private volatile boolean activo = true;
+
+    public PlanificadorSubastas(SubastaRepository subastaRepository, MotorPujas motorPujas,
+            TransactionTemplate transactionTemplate,
+            @Value("${fastbid.subastas.planificador.tick-ms:5}") long tickMillis,
+            @Value("${fastbid.subastas.planificador.ranuras:512}") int ranuras) {
+        this.subastaRepository = subastaRepository;
+        this.motorPujas = motorPujas;
+        this.transactionTemplate = transactionTemplate;
+        this.tickMillis = tickMillis;
+        this.rueda = new RuedaTemporizadora<>(tickMillis, ranuras, System.currentTimeMillis());
+        this.hilo = new Thread(this::ejecutar, "planificador-subastas");
+        this.hilo.setDaemon(true);
+    }
+
+    // Después de que el motor cargó las subastas activas
+    @Order(2)
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarPlazos() {
+        List<PlazosSubasta> pendientes = subastaRepository
+                .findPlazosByEstadoIn(List.of(SubastaEstado.PROGRAMADA, SubastaEstado.ACTIVA));
+        for (PlazosSubasta plazos : pendientes) {
+            if (plazos.getEstado() == SubastaEstado.PROGRAMADA) {
+                programar(plazos.getIdSubasta(), plazos.getFechaInicio(), SubastaEstado.ACTIVA);
+            } else {
+                programar(plazos.getIdSubasta(), plazos.getFechaFin(), SubastaEstado.FINALIZADA);
+            }
+        }
+        hilo.start();
+        log.info("Planificador de subastas iniciado con {} transiciones pendientes", pendientes.size());
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        activo = false;
+        hilo.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Programa la próxima transición de una subasta recién creada.
+     */
+    public void programar(Subasta subasta) {
+        if (subasta.getEstado() == SubastaEstado.PROGRAMADA) {
+            programar(subasta.getIdSubasta(), subasta.getFechaInicio(), SubastaEstado.ACTIVA);
+        } else if (subasta.getEstado() == SubastaEstado.ACTIVA) {
+            programar(subasta.getIdSubasta(), subasta.getFechaFin(), SubastaEstado.FINALIZADA);
+        }
+    }
+
+    private void programar(long subastaId, OffsetDateTime cuando, SubastaEstado hacia) {
+        // La rueda solo la toca el hilo del planificador; el resto encola
+        nuevas.add(new Programacion(cuando.toInstant().toEpochMilli(), new Transicion(subastaId, hacia)));
+    }
+
+    private void ejecutar() {
+        List<Transicion> vencidas = new ArrayList<>();
+        while (activo) {
+            Programacion programacion;
+            while ((programacion = nuevas.poll()) != null) {
+                rueda.agregar(programacion.vencimientoMillis(), programacion.transicion());
+            }
+
+            rueda.avanzar(System.currentTimeMillis(), vencidas::add);
+            if (!vencidas.isEmpty()) {
+                try {
+                    aplicar(vencidas);
+                } catch (RuntimeException e) {
+                    log.error("No se pudieron aplicar {} transiciones, se reintentarán", vencidas.size(), e);
+                    long reintento = System.currentTimeMillis() + ESPERA_REINTENTO_MILLIS;
+                    vencidas.forEach(transicion -> rueda.agregar(reintento, transicion));
+                }
+                vencidas.clear();
+            }
+
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(tickMillis));
+        }
+    }
+
+    private void aplicar(List<Transicion> vencidas) {
+        List<Long> aperturas = new ArrayList<>();
+        List<Long> cierres = new ArrayList<>();
+        for (Transicion transicion : vencidas) {
+            (transicion.hacia() == SubastaEstado.ACTIVA ? aperturas : cierres).add(transicion.subastaId());
+        }
+        if (!aperturas.isEmpty()) {
+            abrir(aperturas);
+        }
+        if (!cierres.isEmpty()) {
+            cerrar(cierres);
+        }
+    }
+
+    private void abrir(List<Long> ids) {
+        int abiertas = cambiarEstadoEnLotes(ids, SubastaEstado.PROGRAMADA, SubastaEstado.ACTIVA);
+        for (Subasta subasta : subastaRepository.findAllById(ids)) {
+            if (subasta.getEstado() == SubastaEstado.ACTIVA) {
+                motorPujas.registrar(subasta);
+                rueda.agregar(subasta.getFechaFin().toInstant().toEpochMilli(),
+                        new Transicion(subasta.getIdSubasta(), SubastaEstado.FINALIZADA));
+            }
+        }
+        log.debug("Abiertas {} subastas", abiertas);
+    }
+
+    private void cerrar(List<Long> ids) {
+        long ahora = System.currentTimeMillis();
+        // Primero el motor deja de aceptar pujas; recién después se marca en la base.
+        // Las que el cierre suave prorrogó siguen abiertas y vuelven a la rueda una sola vez.
+        Map<Long, Long> prorrogadas = motorPujas.finalizar(ids, ahora).join();
+        prorrogadas.forEach((id, fechaFin) -> reprogramarCierre(id, fechaFin));
+
+        List<Long> vencidas = ids.stream().filter(id -> !prorrogadas.containsKey(id)).toList();
+        OffsetDateTime limite = OffsetDateTime.ofInstant(Instant.ofEpochMilli(ahora), ZoneOffset.UTC);
+        int cerradas = 0;
+        for (int desdeIndice = 0; desdeIndice < vencidas.size(); desdeIndice += TAMANIO_LOTE) {
+            List<Long> lote = vencidas.subList(desdeIndice, Math.min(vencidas.size(), desdeIndice + TAMANIO_LOTE));
+            Integer filas = transactionTemplate.execute(status -> subastaRepository
+                    .finalizarVencidas(lote, limite, SubastaEstado.ACTIVA, SubastaEstado.FINALIZADA));
+            cerradas += filas != null ? filas : 0;
+        }
+
+        if (cerradas < vencidas.size()) {
+            // Las pujas por el camino sin motor prorrogan directamente en la base
+            for (PlazosSubasta plazos : subastaRepository
+                    .findPlazosByIdSubastaInAndEstado(vencidas, SubastaEstado.ACTIVA)) {
+                reprogramarCierre(plazos.getIdSubasta(), plazos.getFechaFin().toInstant().toEpochMilli());
+            }
+        }
+        log.debug("Finalizadas {} subastas, {} prorrogadas por cierre suave", cerradas,
+                ids.size() - cerradas);
+    }
+
+    private void reprogramarCierre(long subastaId, long fechaFinMillis) {
+        rueda.agregar(fechaFinMillis, new Transicion(subastaId, SubastaEstado.FINALIZADA));
+    }
+
+    private int cambiarEstadoEnLotes(List<Long> ids, SubastaEstado desde, SubastaEstado hacia) {
+        int cambiadas = 0;
+        for (int desdeIndice = 0; desdeIndice < ids.size(); desdeIndice += TAMANIO_LOTE) {
+            List<Long> lote = ids.subList(desdeIndice, Math.min(ids.size(), desdeIndice + TAMANIO_LOTE));
+            Integer filas = transactionTemplate
+                    .execute(status -> subastaRepository.cambiarEstado(lote, desde, hacia));
+            cambiadas += filas != null ? filas : 0;
+        }
+        return cambiadas;
+    }
+}
@@ -0,0 +1,20 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+
+/**
+ * Puja ya aceptada por {@link MotorPujas}, junto con el estado de la subasta que dejó,
+ * pendiente de ser escrita en la base por {@link PersistidorPujas}. {@code secuencia} es su
+ * posición en {@link DiarioPujas} (-1 si el diario está deshabilitado).
+ */
+public record PujaAceptada(
+        long subastaId,
+        long usuarioId,
+        double monto,
+        long fechaMillis,
+        double precioActual,
+        Long ganadorId,
+        SubastaEstado estado,
+        long fechaFinMillis,
+        long secuencia
+) {}
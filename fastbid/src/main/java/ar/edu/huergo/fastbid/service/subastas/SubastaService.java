@@ -0,0 +1,185 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ar.edu.huergo.fastbid.dto.subastas.PrecioSubastaDTO;
+import ar.edu.huergo.fastbid.dto.subastas.ResultadoPujaDTO;
+import ar.edu.huergo.fastbid.entity.subastas.Puja;
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import ar.edu.huergo.fastbid.repository.producto.ProductoRepository;
+import ar.edu.huergo.fastbid.repository.subastas.PujaRepository;
+import ar.edu.huergo.fastbid.repository.subastas.SubastaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class SubastaService {
+    private final SubastaRepository subastaRepository;
+    private final PujaRepository pujaRepository;
+    private final ProductoRepository productoRepository;
+    private final MotorPujas motorPujas;
+    private final PlanificadorSubastas planificadorSubastas;
+    private final DifusorPrecios difusorPrecios;
+    private final CierreSuave cierreSuave;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /** Conflictos de versión detectados por {@link #pujar} (cada uno implica un reintento). */
+    private Counter conflictos;
+
+    @Value("${fastbid.pujas.reintentos.maximo:8}")
+    private int maximoIntentos = 8;
+
+    @Value("${fastbid.pujas.reintentos.espera-base-micros:100}")
+    private long esperaBaseMicros = 100;
+
+    @Value("${fastbid.pujas.reintentos.espera-maxima-micros:10000}")
+    private long esperaMaximaMicros = 10_000;
+
+    @PostConstruct
+    void registrarMetricas() {
+        conflictos = Counter.builder("fastbid.pujas.conflictos")
+                .description("Conflictos de versión del camino optimista de pujas (cada uno implica un reintento)")
+                .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    public List<Subasta> obtenerSubastas() {
+        return subastaRepository.findAll();
+    }
+
+    public Subasta obtenerSubastaPorId(Long id) {
+        return subastaRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Subasta no encontrada: " + id));
+    }
+
+    public Subasta crearSubasta(Subasta subasta) {
+        if (!subasta.getFechaFin().isAfter(subasta.getFechaInicio())) {
+            throw new IllegalArgumentException("La fecha de fin debe ser posterior a la de inicio");
+        }
+        subasta.setIdSubasta(null);
+        subasta.setVersion(null);
+        subasta.setPrecioActual(subasta.getPrecioInicial());
+        subasta.setGanadorId(null);
+        if (subasta.getCompraInmediata() == null) {
+            // Sin precio propio, la subasta hereda el de compra inmediata del producto
+            productoRepository.findById(subasta.getProductoId())
+                    .ifPresent(producto -> subasta.setCompraInmediata(producto.getPrecioCompraInmediata()));
+        }
+        // El estado siempre sale de las fechas: el que mande el cliente se ignora
+        subasta.setEstado(subasta.getFechaInicio().isAfter(OffsetDateTime.now())
+                ? SubastaEstado.PROGRAMADA
+                : SubastaEstado.ACTIVA);
+
+        Subasta creada = subastaRepository.save(subasta);
+        if (creada.getEstado() == SubastaEstado.ACTIVA) {
+            motorPujas.registrar(creada);
+        }
+        planificadorSubastas.programar(creada);
+        return creada;
+    }
+
+    /**
+     * Puja directa contra la base, sin pasar por el motor en memoria.
+     *
+     * Cada intento lee la subasta, valida la puja con las mismas reglas que el motor y
+     * hace un compare-and-set sobre la versión. Si otro postor escribió en el medio, el
+     * UPDATE no afecta filas y se reintenta (con backoff exponencial y jitter) hasta
+     * {@code fastbid.pujas.reintentos.maximo} veces. Así dos escritores concurrentes nunca
+     * pueden pisarse el precio en silencio.
+     */
+    public ResultadoPujaDTO pujar(Long subastaId, Long usuarioId, double monto) {
+        for (int intento = 1; ; intento++) {
+            ResultadoPujaDTO resultado = transactionTemplate
+                    .execute(status -> intentarPuja(subastaId, usuarioId, monto));
+            if (resultado != null) {
+                if (resultado.aceptada()) {
+                    difusorPrecios.publicar(new PrecioSubastaDTO(subastaId, resultado.precioActual(),
+                            resultado.ganadorId(), resultado.estado()));
+                }
+                return resultado;
+            }
+
+            conflictos.increment();
+            if (intento >= maximoIntentos) {
+                Subasta subasta = obtenerSubastaPorId(subastaId);
+                return ResultadoPujaDTO.rechazada("La subasta tiene demasiada actividad, reintente",
+                        subastaId, subasta.getPrecioActual(), subasta.getGanadorId(), subasta.getEstado());
+            }
+            esperarAntesDeReintentar(intento);
+        }
+    }
+
+    /**
+     * Compra inmediata directa contra la base: un único UPDATE condicional decide el
+     * ganador, así que los clics simultáneos no se serializan leyendo la fila ni pueden
+     * dejar dos ganadores. Las pujas del camino optimista que lleguen después fallan el
+     * compare-and-set de versión y ven la subasta FINALIZADA al releerla.
+     */
+    public ResultadoPujaDTO comprarAhora(Long subastaId, Long usuarioId) {
+        Boolean ganada = transactionTemplate.execute(status -> {
+            int filas = subastaRepository.comprarAhora(subastaId, usuarioId, OffsetDateTime.now(),
+                    SubastaEstado.ACTIVA, SubastaEstado.FINALIZADA);
+            return filas == 1;
+        });
+
+        Subasta subasta = obtenerSubastaPorId(subastaId);
+        if (!Boolean.TRUE.equals(ganada)) {
+            String motivo = subasta.getCompraInmediata() == null
+                    ? "La subasta no tiene precio de compra inmediata"
+                    : "La subasta no está activa";
+            return ResultadoPujaDTO.rechazada(motivo, subastaId, subasta.getPrecioActual(),
+                    subasta.getGanadorId(), subasta.getEstado());
+        }
+
+        pujaRepository.save(new Puja(null, subastaId, usuarioId, subasta.getPrecioActual(), OffsetDateTime.now()));
+        difusorPrecios.publicar(new PrecioSubastaDTO(subastaId, subasta.getPrecioActual(),
+                subasta.getGanadorId(), subasta.getEstado()));
+        return ResultadoPujaDTO.aceptada(subastaId, subasta.getPrecioActual(), subasta.getGanadorId(),
+                subasta.getEstado());
+    }
+
+    // Devuelve null si perdió la carrera contra otro escritor
+    private ResultadoPujaDTO intentarPuja(Long subastaId, Long usuarioId, double monto) {
+        Subasta subasta = obtenerSubastaPorId(subastaId);
+        EstadoSubasta estado = new EstadoSubasta(subasta, cierreSuave);
+        ResultadoPujaDTO resultado = estado.aplicarPuja(usuarioId, monto, System.currentTimeMillis());
+        if (!resultado.aceptada()) {
+            return resultado;
+        }
+
+        OffsetDateTime fechaFin = subasta.getFechaFin().toInstant().toEpochMilli() == estado.getFechaFinMillis()
+                ? subasta.getFechaFin()
+                : OffsetDateTime.ofInstant(Instant.ofEpochMilli(estado.getFechaFinMillis()), ZoneOffset.UTC);
+        int filas = subastaRepository.actualizarSiVersion(subastaId, subasta.getVersion(),
+                resultado.precioActual(), resultado.ganadorId(), resultado.estado(), fechaFin);
+        if (filas == 0) {
+            return null;
+        }
+        pujaRepository.save(new Puja(null, subastaId, usuarioId, monto, OffsetDateTime.now()));
+        return resultado;
+    }
+
+    private void esperarAntesDeReintentar(int intento) {
+        // Backoff exponencial con "full jitter" para que los perdedores no choquen otra vez juntos
+        long tope = Math.min(esperaMaximaMicros, esperaBaseMicros << Math.min(intento, 20));
+        long espera = ThreadLocalRandom.current().nextLong(tope + 1);
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(espera));
+    }
+}
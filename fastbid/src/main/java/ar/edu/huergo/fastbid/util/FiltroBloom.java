@@ -0,0 +1,89 @@
+package ar.edu.huergo.fastbid.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de cadenas: responde "seguro que no está" o "puede estar" usando unos pocos
+ * bits por elemento, sin guardar los elementos.
+ *
+ * Conceptos clave:
+ * - Se dimensiona con la cantidad esperada de elementos y la tasa de falsos positivos
+ *   aceptable: {@code m = -n ln p / (ln 2)^2} bits y {@code k = m/n ln 2} funciones de hash.
+ *   Un millón de elementos al 1% ocupa ~1,2 MB.
+ * - Las k posiciones salen de dos hashes de 64 bits (doble hashing de Kirsch-Mitzenmacher),
+ *   así cada operación recorre la cadena una sola vez.
+ * - No admite borrados: para quitar elementos se construye uno nuevo.
+ *
+ * Thread-safe: los bits se prenden con compare-and-set y nunca se apagan.
+ */
+public class FiltroBloom {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long cantidadBits;
+    private final int funciones;
+
+    public FiltroBloom(long esperados, double probabilidadFalsoPositivo) {
+        if (esperados < 1 || probabilidadFalsoPositivo <= 0 || probabilidadFalsoPositivo >= 1) {
+            throw new IllegalArgumentException(
+                    "esperados debe ser al menos 1 y la probabilidad estar entre 0 y 1");
+        }
+        long m = (long) Math.ceil(-esperados * Math.log(probabilidadFalsoPositivo) / (LN2 * LN2));
+        this.bits = new AtomicLongArray(Math.toIntExact((m + 63) / 64));
+        this.cantidadBits = bits.length() * 64L;
+        this.funciones = Math.max(1, (int) Math.round((double) cantidadBits / esperados * LN2));
+    }
+
+    public void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1) | 1;
+        for (int i = 0; i < funciones; i++) {
+            long posicion = Math.floorMod(h1 + i * h2, cantidadBits);
+            int indice = (int) (posicion >>> 6);
+            long mascara = 1L << posicion;
+            long actual = bits.get(indice);
+            while ((actual & mascara) == 0 && !bits.compareAndSet(indice, actual, actual | mascara)) {
+                actual = bits.get(indice);
+            }
+        }
+    }
+
+    /** false si el valor seguro no se agregó; true si pudo haberse agregado. */
+    public boolean puedeContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1) | 1;
+        for (int i = 0; i < funciones; i++) {
+            long posicion = Math.floorMod(h1 + i * h2, cantidadBits);
+            if ((bits.get((int) (posicion >>> 6)) & (1L << posicion)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Memoria ocupada por los bits. */
+    public long bytes() {
+        return cantidadBits / 8;
+    }
+
+    public int funciones() {
+        return funciones;
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres, con mezcla final para repartir los bits altos
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h = (h ^ valor.charAt(i)) * 0x100000001b3L;
+        }
+        return mezclar(h);
+    }
+
+    // Finalizador de SplitMix64
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
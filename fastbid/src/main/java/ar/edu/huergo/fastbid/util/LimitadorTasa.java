@@ -0,0 +1,116 @@
+package ar.edu.huergo.fastbid.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de tasa por clave (usuario, IP...) con semántica de token bucket.
+ *
+ * Conceptos clave:
+ * - Cada balde admite ráfagas de hasta {@code capacidad} pedidos y se recarga a
+ *   {@code porSegundo} tokens por segundo.
+ * - El balde se guarda como un único {@code long}: el instante teórico en que vuelve a estar
+ *   lleno (algoritmo GCRA, equivalente a un token bucket). Consumir un token es un
+ *   compare-and-set sobre ese valor, sin locks ni hilos de recarga.
+ * - Las claves se reparten en franjas, cada una un {@link ConcurrentHashMap}. Un balde que
+ *   quedó lleno y ocioso más de {@code ociosidad} se puede descartar sin perder nada (uno
+ *   nuevo arranca igual de lleno). Cada llamada barre, como mucho, una franja por intervalo,
+ *   así la memoria queda acotada a las claves activas sin un hilo de limpieza.
+ *
+ * Thread-safe.
+ */
+public class LimitadorTasa {
+
+    private static final int FRANJAS = 64;
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final long ociosidadNanos;
+    private final long intervaloBarridoNanos;
+    private final ConcurrentHashMap<String, AtomicLong>[] franjas;
+    private final AtomicLong proximoBarrido;
+    private final AtomicInteger franjaABarrer = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    public LimitadorTasa(int capacidad, double porSegundo, long ociosidadNanos, long inicioNanos) {
+        if (capacidad < 1 || porSegundo <= 0) {
+            throw new IllegalArgumentException("capacidad debe ser al menos 1 y porSegundo positivo");
+        }
+        this.intervaloNanos = Math.max(1, (long) (1_000_000_000L / porSegundo));
+        this.toleranciaNanos = intervaloNanos * capacidad;
+        this.ociosidadNanos = ociosidadNanos;
+        // Una vuelta completa de barrido tarda, como mucho, una ociosidad
+        this.intervaloBarridoNanos = Math.max(1, ociosidadNanos / FRANJAS);
+        this.proximoBarrido = new AtomicLong(inicioNanos + intervaloBarridoNanos);
+        this.franjas = new ConcurrentHashMap[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Intenta consumir un token de la clave. Devuelve 0 si se permitió el pedido o, si no,
+     * cuántos nanosegundos faltan para que haya un token disponible.
+     */
+    public long intentar(String clave, long ahoraNanos) {
+        barrerSiCorresponde(ahoraNanos);
+
+        ConcurrentHashMap<String, AtomicLong> franja = franjas[indiceDe(clave)];
+        AtomicLong lleno = franja.get(clave);
+        if (lleno == null) {
+            lleno = franja.computeIfAbsent(clave, k -> new AtomicLong(ahoraNanos));
+        }
+
+        while (true) {
+            long actual = lleno.get();
+            long nuevo = Math.max(actual, ahoraNanos) + intervaloNanos;
+            long exceso = nuevo - ahoraNanos - toleranciaNanos;
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (lleno.compareAndSet(actual, nuevo)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Devuelve a la clave el token de un {@link #intentar} permitido cuyo pedido igual se
+     * rechazó por otro motivo (por ejemplo, otro límite).
+     */
+    public void devolver(String clave) {
+        AtomicLong lleno = franjas[indiceDe(clave)].get(clave);
+        if (lleno != null) {
+            // intentar() nunca deja el balde por encima de lleno: el valor se acota a "ahora"
+            lleno.addAndGet(-intervaloNanos);
+        }
+    }
+
+    /** Cantidad de baldes en memoria. */
+    public int size() {
+        int total = 0;
+        for (ConcurrentHashMap<String, AtomicLong> franja : franjas) {
+            total += franja.size();
+        }
+        return total;
+    }
+
+    private void barrerSiCorresponde(long ahoraNanos) {
+        long proximo = proximoBarrido.get();
+        if (ahoraNanos < proximo
+                || !proximoBarrido.compareAndSet(proximo, ahoraNanos + intervaloBarridoNanos)) {
+            return;
+        }
+        // Un balde que se descarta justo mientras otro hilo lo usa le regala, como mucho,
+        // un token a esa clave
+        int indice = Math.floorMod(franjaABarrer.getAndIncrement(), FRANJAS);
+        long limite = ahoraNanos - ociosidadNanos;
+        franjas[indice].values().removeIf(lleno -> lleno.get() - limite < 0);
+    }
+
+    private static int indiceDe(String clave) {
+        int hash = clave.hashCode();
+        return (hash ^ (hash >>> 16)) & (FRANJAS - 1);
+    }
+}
@@ -0,0 +1,33 @@
+package ar.edu.huergo.fastbid.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON Merge Patch (RFC 7396): los campos presentes en el patch reemplazan a los del
+ * documento, un {@code null} borra el campo y los campos ausentes quedan como estaban. Los
+ * objetos se combinan recursivamente; los arreglos se reemplazan completos.
+ */
+public final class MergePatch {
+
+    private MergePatch() {
+    }
+
+    public static JsonNode aplicar(JsonNode documento, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+        ObjectNode resultado = documento != null && documento.isObject()
+                ? ((ObjectNode) documento).deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+        patch.fields().forEachRemaining(campo -> {
+            if (campo.getValue().isNull()) {
+                resultado.remove(campo.getKey());
+            } else {
+                resultado.set(campo.getKey(), aplicar(resultado.get(campo.getKey()), campo.getValue()));
+            }
+        });
+        return resultado;
+    }
+}
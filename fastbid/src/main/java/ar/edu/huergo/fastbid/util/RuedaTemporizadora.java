@@ -0,0 +1,127 @@
+package ar.edu.huergo.fastbid.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Rueda temporizadora jerárquica (hierarchical timing wheel).
+ *
+ * Conceptos clave:
+ * - El nivel 0 tiene {@code ranuras} casilleros de {@code tickMillis} cada uno; cada nivel
+ *   superior tiene casilleros {@code ranuras} veces más anchos. Con pocos niveles se cubren
+ *   plazos de meses sin recorrer todas las tareas en cada tick.
+ * - Agregar una tarea es O(1): se calcula el nivel y el casillero según su vencimiento.
+ * - Cuando el tiempo entra en un casillero de un nivel superior, sus tareas se redistribuyen
+ *   en los niveles inferiores ("cascada"); las del nivel 0 se disparan al cerrar su tick.
+ * - Una tarea nunca se dispara antes de su vencimiento; como máximo un tick después.
+ *
+ * No es thread-safe: debe usarla un único hilo (el que la hace avanzar).
+ */
+public class RuedaTemporizadora<T> {
+
+    private record Entrada<T>(long vencimientoMillis, T tarea) {}
+
+    private final long tickMillis;
+    private final int ranuras;
+    private final List<Nivel<T>> niveles = new ArrayList<>();
+    private final ArrayDeque<Entrada<T>> vencidas = new ArrayDeque<>();
+    private long tiempoActual;
+    private int cantidad;
+
+    public RuedaTemporizadora(long tickMillis, int ranuras, long inicioMillis) {
+        if (tickMillis <= 0 || ranuras < 2) {
+            throw new IllegalArgumentException("tickMillis debe ser positivo y ranuras al menos 2");
+        }
+        this.tickMillis = tickMillis;
+        this.ranuras = ranuras;
+        this.tiempoActual = inicioMillis - Math.floorMod(inicioMillis, tickMillis);
+        this.niveles.add(new Nivel<>(tickMillis, ranuras));
+    }
+
+    /**
+     * Programa una tarea. Si su vencimiento ya pasó se dispara en el próximo {@link #avanzar}.
+     */
+    public void agregar(long vencimientoMillis, T tarea) {
+        cantidad++;
+        ubicar(new Entrada<>(vencimientoMillis, tarea));
+    }
+
+    /**
+     * Avanza el reloj hasta {@code ahoraMillis} y entrega, en orden de tick, todas las tareas
+     * cuyo vencimiento ya pasó.
+     */
+    public void avanzar(long ahoraMillis, Consumer<T> alVencer) {
+        disparar(vencidas, alVencer);
+        while (tiempoActual + tickMillis <= ahoraMillis) {
+            tiempoActual += tickMillis;
+
+            // El casillero de nivel 0 que acaba de terminar contiene solo tareas vencidas.
+            // Se vacía antes de la cascada porque comparte ranura con el último casillero
+            // que la cascada puede ocupar
+            disparar(niveles.get(0).casillero(tiempoActual / tickMillis - 1), alVencer);
+
+            // Cascada de arriba hacia abajo: el casillero que acaba de empezar en cada nivel
+            // superior se reparte en los niveles de abajo
+            for (int i = niveles.size() - 1; i > 0; i--) {
+                Nivel<T> nivel = niveles.get(i);
+                if (Math.floorMod(tiempoActual, nivel.tickMillis) == 0) {
+                    ArrayDeque<Entrada<T>> casillero = nivel.casillero(tiempoActual / nivel.tickMillis);
+                    while (!casillero.isEmpty()) {
+                        ubicar(casillero.poll());
+                    }
+                }
+            }
+            disparar(vencidas, alVencer);
+        }
+    }
+
+    public int size() {
+        return cantidad;
+    }
+
+    private void ubicar(Entrada<T> entrada) {
+        if (entrada.vencimientoMillis() < tiempoActual) {
+            vencidas.add(entrada);
+            return;
+        }
+        for (int i = 0; ; i++) {
+            if (i == niveles.size()) {
+                Nivel<T> anterior = niveles.get(i - 1);
+                niveles.add(new Nivel<>(anterior.tickMillis * ranuras, ranuras));
+            }
+            Nivel<T> nivel = niveles.get(i);
+            long casillero = entrada.vencimientoMillis() / nivel.tickMillis;
+            if (casillero - tiempoActual / nivel.tickMillis < ranuras) {
+                nivel.casillero(casillero).add(entrada);
+                return;
+            }
+        }
+    }
+
+    private void disparar(ArrayDeque<Entrada<T>> entradas, Consumer<T> alVencer) {
+        while (!entradas.isEmpty()) {
+            cantidad--;
+            alVencer.accept(entradas.poll().tarea());
+        }
+    }
+
+    private static final class Nivel<T> {
+        private final long tickMillis;
+        private final ArrayDeque<Entrada<T>>[] casilleros;
+
+        @SuppressWarnings("unchecked")
+        private Nivel(long tickMillis, int ranuras) {
+            this.tickMillis = tickMillis;
+            this.casilleros = new ArrayDeque[ranuras];
+            for (int i = 0; i < ranuras; i++) {
+                casilleros[i] = new ArrayDeque<>();
+            }
+        }
+
+        private ArrayDeque<Entrada<T>> casillero(long indiceAbsoluto) {
+            return casilleros[(int) Math.floorMod(indiceAbsoluto, (long) casilleros.length)];
+        }
+    }
+}
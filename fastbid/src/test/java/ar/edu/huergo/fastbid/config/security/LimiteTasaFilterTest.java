@@ -0,0 +1,106 @@
+package ar.edu.huergo.fastbid.config.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import ar.edu.huergo.fastbid.service.security.UsuarioAutenticado;
+
+@DisplayName("Tests de Unidad - LimiteTasaFilter")
+class LimiteTasaFilterTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debería responder 429 con Retry-After al agotar el balde del usuario")
+    void deberiaResponder429AlAgotarBaldeDeUsuario() throws Exception {
+        // Given: 2 pedidos de ráfaga por usuario, 1 por segundo
+        LimiteTasaFilter filtro = new LimiteTasaFilter(true, 2, 1, 100, 50, 300);
+        autenticar(7L, "postor@test.com");
+
+        // When
+        MockHttpServletResponse primera = pujar(filtro, "10.0.0.1");
+        MockHttpServletResponse segunda = pujar(filtro, "10.0.0.1");
+        MockFilterChain cadena = new MockFilterChain();
+        MockHttpServletResponse tercera = new MockHttpServletResponse();
+        filtro.doFilter(pedido("10.0.0.1"), tercera, cadena);
+
+        // Then
+        assertEquals(200, primera.getStatus());
+        assertEquals(200, segunda.getStatus());
+        assertEquals(429, tercera.getStatus());
+        assertEquals("1", tercera.getHeader("Retry-After"));
+        assertEquals("application/problem+json", tercera.getContentType());
+        assertNull(cadena.getRequest(), "el pedido rechazado no debería llegar al controlador");
+    }
+
+    @Test
+    @DisplayName("Debería llevar el balde por id de usuario y no por username")
+    void deberiaLimitarPorIdDeUsuario() throws Exception {
+        // Given
+        LimiteTasaFilter filtro = new LimiteTasaFilter(true, 1, 1, 100, 50, 300);
+
+        // When: el mismo username con otro id (por ejemplo, tras recrear la cuenta)
+        autenticar(7L, "postor@test.com");
+        MockHttpServletResponse delPrimero = pujar(filtro, "10.0.0.1");
+        autenticar(8L, "postor@test.com");
+        MockHttpServletResponse delSegundo = pujar(filtro, "10.0.0.1");
+
+        // Then
+        assertEquals(200, delPrimero.getStatus());
+        assertEquals(200, delSegundo.getStatus());
+    }
+
+    @Test
+    @DisplayName("No debería gastar el balde de la IP con pedidos que rechaza el del usuario")
+    void noDeberiaGastarBaldeDeIpConRechazosDeUsuario() throws Exception {
+        // Given: 3 pedidos de ráfaga por IP, 1 por usuario
+        LimiteTasaFilter filtro = new LimiteTasaFilter(true, 1, 1, 3, 1, 300);
+        autenticar(7L, "insistente@test.com");
+        assertEquals(200, pujar(filtro, "10.0.0.1").getStatus());
+
+        // When: el mismo usuario insiste desde la IP compartida
+        for (int i = 0; i < 5; i++) {
+            assertEquals(429, pujar(filtro, "10.0.0.1").getStatus());
+        }
+
+        // Then: a otros usuarios detrás de la misma IP les quedan los dos tokens restantes
+        autenticar(8L, "vecino1@test.com");
+        assertEquals(200, pujar(filtro, "10.0.0.1").getStatus());
+        autenticar(9L, "vecino2@test.com");
+        assertEquals(200, pujar(filtro, "10.0.0.1").getStatus());
+        autenticar(10L, "vecino3@test.com");
+        assertEquals(429, pujar(filtro, "10.0.0.1").getStatus());
+    }
+
+    // --------- Helpers ----------
+    private static void autenticar(Long id, String username) {
+        UsuarioAutenticado usuario = new UsuarioAutenticado(id, username, "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+    }
+
+    private static MockHttpServletRequest pedido(String ip) {
+        MockHttpServletRequest pedido = new MockHttpServletRequest("POST", "/api/subastas/1/pujas");
+        pedido.setRemoteAddr(ip);
+        return pedido;
+    }
+
+    private static MockHttpServletResponse pujar(LimiteTasaFilter filtro, String ip) throws Exception {
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        filtro.doFilter(pedido(ip), respuesta, new MockFilterChain());
+        return respuesta;
+    }
+}
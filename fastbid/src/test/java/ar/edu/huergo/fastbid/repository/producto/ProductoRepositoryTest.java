@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 @DataJpaTest
 @DisplayName("Tests de Integración - ProductoRepository")
@@ -138,6 +139,43 @@ class ProductoRepositoryTest {
         assertTrue(productoRepository.findById(id).isEmpty());
     }
 
+    @Test
+    @DisplayName("Debería paginar por id desde el último producto visto")
+    void deberiaPaginarPorIdDesdeElUltimoVisto() {
+        List<Producto> primera = productoRepository
+                .findByIdProductoGreaterThanOrderByIdProductoAsc(Long.MIN_VALUE, Limit.of(2));
+        List<Producto> segunda = productoRepository
+                .findByIdProductoGreaterThanOrderByIdProductoAsc(primera.get(1).getIdProducto(), Limit.of(2));
+
+        assertEquals(List.of(producto1.getIdProducto(), producto2.getIdProducto()),
+                primera.stream().map(Producto::getIdProducto).toList());
+        assertEquals(List.of(producto3.getIdProducto()),
+                segunda.stream().map(Producto::getIdProducto).toList());
+    }
+
+    @Test
+    @DisplayName("Debería paginar por fecha de fin desempatando por id")
+    void deberiaPaginarPorFechaFin() {
+        // Given: dos productos con la misma fecha de fin, antes que los del setUp
+        LocalDateTime fin = LocalDateTime.now().plusHours(1).withNano(0);
+        Producto a = buildProductoValido("Serrucho", "Dientes templados", 7_000.0, "ACTIVO");
+        a.setFechaFin(fin);
+        Producto b = buildProductoValido("Cinta métrica", "5 metros", 3_000.0, "ACTIVO");
+        b.setFechaFin(fin);
+        a = entityManager.persistAndFlush(a);
+        b = entityManager.persistAndFlush(b);
+
+        // When
+        List<Producto> primera = productoRepository
+                .findPaginaPorFechaFin(LocalDateTime.now(), Long.MIN_VALUE, Limit.of(1));
+        List<Producto> segunda = productoRepository
+                .findPaginaPorFechaFin(fin, primera.get(0).getIdProducto(), Limit.of(1));
+
+        // Then
+        assertEquals(a.getIdProducto(), primera.get(0).getIdProducto());
+        assertEquals(b.getIdProducto(), segunda.get(0).getIdProducto());
+    }
+
     @Test
     @DisplayName("Debería fallar al persistir producto inválido (Bean Validation)")
     void deberiaValidarRestriccionesAlPersistir() {
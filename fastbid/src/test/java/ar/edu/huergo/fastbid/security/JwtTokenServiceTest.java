@@ -1,13 +1,16 @@
 package ar.edu.huergo.fastbid.security;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +25,8 @@ import org.mockito.quality.Strictness;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import ar.edu.huergo.fastbid.service.security.JwtTokenService;
+import ar.edu.huergo.fastbid.service.security.TokenValidado;
+import ar.edu.huergo.fastbid.service.security.UsuarioAutenticado;
 
 /**
  * Tests de seguridad para JwtTokenService (FastBid)
@@ -211,4 +216,69 @@ class JwtTokenServiceTest {
         assertEquals("usuario.especial+test@dominio-test.com", usernameExtraido);
         assertTrue(jwtTokenService.esTokenValido(token, usuarioEspecial));
     }
+
+    @Test
+    @DisplayName("Debería validar el token y devolver sus claims en un solo paso")
+    void deberiaValidarYDevolverClaims() {
+        // Given
+        String token = jwtTokenService.generarToken(userDetails, List.of("ROLE_CLIENTE", "ROLE_ADMIN"));
+
+        // When
+        Optional<TokenValidado> validado = jwtTokenService.validar(token);
+
+        // Then
+        assertTrue(validado.isPresent());
+        assertEquals("usuario@test.com", validado.get().username());
+        assertEquals(List.of("ROLE_CLIENTE", "ROLE_ADMIN"), validado.get().roles());
+        assertTrue(validado.get().expiracion().isAfter(Instant.now()));
+    }
+
+    @Test
+    @DisplayName("Debería devolver vacío al validar un token inválido, expirado o de otra clave")
+    void deberiaRechazarTokensInvalidosAlValidar() throws InterruptedException {
+        // Given
+        JwtTokenService conExpiracionCorta = new JwtTokenService(SECRET_KEY, 1L);
+        String expirado = conExpiracionCorta.generarToken(userDetails, List.of("ROLE_CLIENTE"));
+        JwtTokenService otraClave = new JwtTokenService(SECRET_KEY + "-distinta", EXPIRATION_MS);
+        String firmadoConOtraClave = otraClave.generarToken(userDetails, List.of("ROLE_CLIENTE"));
+        Thread.sleep(10); // esperar a que expire
+
+        // When / Then
+        assertTrue(jwtTokenService.validar(expirado).isEmpty());
+        assertTrue(jwtTokenService.validar(firmadoConOtraClave).isEmpty());
+        assertTrue(jwtTokenService.validar("token.malformado.invalido").isEmpty());
+        assertTrue(jwtTokenService.validar("").isEmpty());
+        assertTrue(jwtTokenService.validar(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería incluir un jti distinto en cada token")
+    void deberiaIncluirJtiUnico() {
+        String token1 = jwtTokenService.generarToken(userDetails, List.of("ROLE_CLIENTE"));
+        String token2 = jwtTokenService.generarToken(userDetails, List.of("ROLE_CLIENTE"));
+
+        String jti1 = jwtTokenService.validar(token1).orElseThrow().jti();
+        String jti2 = jwtTokenService.validar(token2).orElseThrow().jti();
+
+        assertNotNull(jti1);
+        assertNotEquals(jti1, jti2);
+    }
+
+    @Test
+    @DisplayName("Debería emitir el id del usuario en el claim uid")
+    void deberiaEmitirUid() {
+        // Given
+        UserDetails usuario = new UsuarioAutenticado(42L, "usuario@test.com", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE")));
+
+        // When
+        TokenValidado conId = jwtTokenService
+                .validar(jwtTokenService.generarToken(usuario, List.of("ROLE_CLIENTE"))).orElseThrow();
+        TokenValidado sinId = jwtTokenService
+                .validar(jwtTokenService.generarToken(userDetails, List.of("ROLE_CLIENTE"))).orElseThrow();
+
+        // Then: un principal que no conoce el id emite el token sin uid
+        assertEquals(42L, conId.usuarioId());
+        assertNull(sinId.usuarioId());
+    }
 }
@@ -0,0 +1,185 @@
+package ar.edu.huergo.fastbid.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.huergo.fastbid.dto.ResultadoImportacionDTO;
+import ar.edu.huergo.fastbid.dto.ResultadoImportacionDTO.ErrorFilaDTO;
+import ar.edu.huergo.fastbid.entity.Producto;
+import ar.edu.huergo.fastbid.mapper.ProductoMapper;
+import ar.edu.huergo.fastbid.repository.producto.ProductoRepository;
+import ar.edu.huergo.fastbid.service.ImportadorProductos.Formato;
+import ar.edu.huergo.fastbid.service.busqueda.FacetasProductos;
+import ar.edu.huergo.fastbid.service.busqueda.IndiceProductos;
+import jakarta.validation.Validation;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Unidad - ImportadorProductos")
+class ImportadorProductosTest {
+
+    private static final String ENCABEZADO = "nombre,descripcion,precioInicial,imagenes,categoriaId,estado,"
+            + "fechaPublicacion,fechaFin,usuarioId,condicion,ubicacion,cantidad";
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private IndiceProductos indiceProductos;
+
+    @Mock
+    private FacetasProductos facetasProductos;
+
+    @Mock
+    private VersionCatalogo versionCatalogo;
+
+    private ImportadorProductos importador;
+
+    @BeforeEach
+    void setUp() {
+        importador = new ImportadorProductos(productoRepository, new ProductoMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                indiceProductos, facetasProductos, versionCatalogo);
+    }
+
+    private static ByteArrayInputStream archivo(String... lineas) {
+        return new ByteArrayInputStream(String.join("\n", lineas).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String filaCsv(String nombre, String precio) {
+        return nombre + ",\"Usado, en caja\"," + precio + ",http://ex.com/1.jpg|http://ex.com/2.jpg,1,ACTIVO,"
+                + "2030-01-01T10:00:00,2030-01-08T10:00:00,1,USADO,Rosario,1";
+    }
+
+    @Test
+    @DisplayName("Debería importar las filas válidas de un CSV e informar las inválidas")
+    void deberiaImportarCsvConErroresPorFila() throws IOException {
+        // Given
+        AtomicLong ids = new AtomicLong(100);
+        List<Producto> guardados = new ArrayList<>();
+        when(productoRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Producto> productos = invocation.getArgument(0);
+            productos.forEach(producto -> producto.setIdProducto(ids.incrementAndGet()));
+            guardados.addAll(productos);
+            return productos;
+        });
+
+        // When
+        ResultadoImportacionDTO resultado = importador.importar(archivo(ENCABEZADO,
+                filaCsv("Taladro", "1500.5"),
+                filaCsv("Amoladora", "-3"),
+                "",
+                filaCsv("Sierra", "no-es-numero"),
+                filaCsv("Lijadora", "900")), Formato.CSV);
+
+        // Then
+        assertEquals(4, resultado.filasProcesadas());
+        assertEquals(2, resultado.productosImportados());
+        assertEquals(2, resultado.filasConError());
+        assertEquals(List.of(3L, 5L), resultado.errores().stream().map(ErrorFilaDTO::fila).toList());
+        assertTrue(resultado.errores().get(0).mensaje().contains("precioInicial"));
+
+        verify(productoRepository, times(1)).saveAll(any());
+        assertEquals("Usado, en caja", guardados.get(0).getDescripcion());
+        assertEquals(List.of("http://ex.com/1.jpg", "http://ex.com/2.jpg"), guardados.get(0).getImagenes());
+        verify(indiceProductos, times(1)).indexar(101L, "Taladro", "Usado, en caja");
+        verify(facetasProductos, times(1)).indexar(102L, 1L, "USADO", "Rosario", 900.0);
+        verify(versionCatalogo, times(1)).registrarCambio();
+    }
+
+    @Test
+    @DisplayName("Debería informar las líneas NDJSON mal formadas sin abortar")
+    void deberiaImportarNdjson() throws IOException {
+        // Given
+        when(productoRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        String valido = "{\"nombre\":\"Taladro\",\"precioInicial\":100,\"imagenes\":[\"http://ex.com/1.jpg\"],"
+                + "\"categoriaId\":1,\"estado\":\"ACTIVO\",\"fechaPublicacion\":\"2030-01-01T10:00:00\","
+                + "\"fechaFin\":\"2030-01-08T10:00:00\",\"usuarioId\":1,\"cantidad\":1}";
+
+        // When
+        ResultadoImportacionDTO resultado = importador.importar(archivo(valido, "{\"nombre\": ", valido),
+                Formato.NDJSON);
+
+        // Then
+        assertEquals(2, resultado.productosImportados());
+        assertEquals(List.of(2L), resultado.errores().stream().map(ErrorFilaDTO::fila).toList());
+    }
+
+    @Test
+    @DisplayName("Debería informar todas las filas de un lote que no se pudo guardar")
+    void deberiaInformarLoteFallido() throws IOException {
+        // Given
+        when(productoRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("duplicado"));
+
+        // When
+        ResultadoImportacionDTO resultado = importador.importar(archivo(ENCABEZADO,
+                filaCsv("Taladro", "100"), filaCsv("Sierra", "200")), Formato.CSV);
+
+        // Then
+        assertEquals(0, resultado.productosImportados());
+        assertEquals(2, resultado.filasConError());
+        verify(indiceProductos, never()).indexar(anyLong(), any(), any());
+        verify(facetasProductos, never()).indexar(anyLong(), any(), any(), any(), anyDouble());
+        verifyNoInteractions(versionCatalogo);
+    }
+
+    @Test
+    @DisplayName("Debería informar las filas de un lote cuyo commit falló y seguir con el siguiente")
+    void deberiaInformarLoteConCommitFallido() throws IOException {
+        // Given: el primer commit falla, el segundo no
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        doThrow(new TransactionSystemException("No se pudo confirmar"))
+                .doNothing()
+                .when(transactionManager).commit(any());
+        ImportadorProductos conCommitFallido = new ImportadorProductos(productoRepository, new ProductoMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(), new TransactionTemplate(transactionManager),
+                indiceProductos, facetasProductos, versionCatalogo);
+        ReflectionTestUtils.setField(conCommitFallido, "tamanioLote", 2);
+        when(productoRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ResultadoImportacionDTO resultado = conCommitFallido.importar(archivo(ENCABEZADO,
+                filaCsv("Taladro", "100"), filaCsv("Sierra", "200"), filaCsv("Lijadora", "300")), Formato.CSV);
+
+        // Then
+        assertEquals(3, resultado.filasProcesadas());
+        assertEquals(1, resultado.productosImportados());
+        assertEquals(List.of(2L, 3L), resultado.errores().stream().map(ErrorFilaDTO::fila).toList());
+        assertTrue(resultado.errores().get(0).mensaje().contains("No se pudo confirmar"));
+        verify(versionCatalogo, times(1)).registrarCambio();
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un CSV con columnas desconocidas o un formato no soportado")
+    void deberiaRechazarArchivoInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importador.importar(archivo("nombre,color"), Formato.CSV));
+        assertThrows(IllegalArgumentException.class, () -> Formato.desde("application/json"));
+    }
+}
@@ -0,0 +1,100 @@
+package ar.edu.huergo.fastbid.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import ar.edu.huergo.fastbid.dto.ProductoDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests de Unidad - ProductoCache")
+class ProductoCacheTest {
+
+    private final AtomicInteger cargas = new AtomicInteger();
+
+    private final Function<Long, ProductoVersionado> cargar = id -> {
+        cargas.incrementAndGet();
+        return id < 0 ? null : versionado(id);
+    };
+
+    @Test
+    @DisplayName("Debería cargar en el primer fallo y servir los aciertos sin volver a cargar")
+    void deberiaCachearTrasElPrimerFallo() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("registry", registry);
+        ProductoCache cache = new ProductoCache(beans.getBeanProvider(MeterRegistry.class), true, 100, 60);
+
+        // When
+        ProductoVersionado primero = cache.obtener(1L, cargar);
+        ProductoVersionado segundo = cache.obtener(1L, cargar);
+
+        // Then
+        assertSame(primero, segundo);
+        assertEquals(1, cargas.get());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "productos").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "productos").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Debería volver a cargar un producto invalidado")
+    void deberiaRecargarTrasInvalidar() {
+        // Given
+        ProductoCache cache = crear(true);
+        cache.obtener(1L, cargar);
+
+        // When
+        cache.invalidar(1L);
+        cache.obtener(1L, cargar);
+
+        // Then
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    @DisplayName("No debería guardar un producto inexistente")
+    void noDeberiaCachearInexistentes() {
+        ProductoCache cache = crear(true);
+
+        assertNull(cache.obtener(-1L, cargar));
+        assertNull(cache.obtener(-1L, cargar));
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    @DisplayName("Debería ir siempre a la base con la cache deshabilitada")
+    void deberiaCargarSiempreDeshabilitada() {
+        // Given
+        ProductoCache cache = crear(false);
+
+        // When
+        cache.obtener(1L, cargar);
+        cache.obtener(1L, cargar);
+        cache.invalidar(1L);
+
+        // Then
+        assertEquals(2, cargas.get());
+    }
+
+    // --------- Helpers ----------
+    private static ProductoCache crear(boolean habilitado) {
+        return new ProductoCache(new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                habilitado, 100, 60);
+    }
+
+    private static ProductoVersionado versionado(Long id) {
+        return new ProductoVersionado(new ProductoDTO(id, "Producto " + id, "Descripción", 100.0,
+                List.of("http://example.com/1.jpg"), 1L, "ACTIVO", null, null, 1L, null, null, "NUEVO",
+                "Buenos Aires", 1), 0L, null);
+    }
+}
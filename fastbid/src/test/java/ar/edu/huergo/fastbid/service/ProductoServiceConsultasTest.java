@@ -0,0 +1,240 @@
+package ar.edu.huergo.fastbid.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import ar.edu.huergo.fastbid.dto.PaginaDTO;
+import ar.edu.huergo.fastbid.dto.ProductoDTO;
+import ar.edu.huergo.fastbid.entity.Producto;
+import ar.edu.huergo.fastbid.mapper.ProductoMapper;
+import ar.edu.huergo.fastbid.service.busqueda.FacetasProductos;
+import ar.edu.huergo.fastbid.service.busqueda.IndiceProductos;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Regresión de cantidad de consultas: listar una página de productos (con sus imágenes)
+ * no debe generar una consulta por producto, y modificar un producto no debe reescribir
+ * sus imágenes si no cambiaron.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ProductoService.class, ProductoMapper.class, ProductoCache.class, IndiceProductos.class,
+        FacetasProductos.class, VersionCatalogo.class})
+@DisplayName("Tests de Integración - Consultas de productos")
+class ProductoServiceConsultasTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoMapper productoMapper;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 150; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Producto " + i);
+            producto.setDescripcion("Descripción " + i);
+            producto.setPrecioInicial(100.0 + i);
+            producto.setImagenes(List.of("http://example.com/" + i + "/1.jpg",
+                    "http://example.com/" + i + "/2.jpg"));
+            producto.setCategoriaId(1L);
+            producto.setEstado("ACTIVO");
+            producto.setFechaPublicacion(LocalDateTime.now());
+            producto.setFechaFin(LocalDateTime.now().plusDays(1).plusMinutes(i));
+            producto.setUsuarioId(1L);
+            producto.setCantidad(1);
+            entityManager.persist(producto);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Debería listar una página de 100 productos con a lo sumo 2 consultas")
+    void deberiaListarPaginaConDosConsultas() {
+        // Given
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        // When
+        PaginaDTO<Producto> pagina = productoService.obtenerPagina(OrdenProductos.ID, null, 100);
+        List<ProductoDTO> productos = productoMapper.toDtoList(pagina.contenido());
+
+        // Then
+        assertEquals(100, productos.size());
+        assertTrue(productos.stream().allMatch(producto -> producto.imagenes().size() == 2));
+        assertNotNull(pagina.siguienteCursor());
+        assertTrue(estadisticas.getPrepareStatementCount() <= 2,
+                "Consultas ejecutadas: " + estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Debería mantener 2 consultas en una página profunda ordenada por fecha de fin")
+    void deberiaMantenerConsultasEnPaginaProfunda() {
+        // Given
+        PaginaDTO<Producto> primera = productoService.obtenerPagina(OrdenProductos.FIN_PROXIMO, null, 100);
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        // When
+        PaginaDTO<Producto> segunda = productoService
+                .obtenerPagina(OrdenProductos.FIN_PROXIMO, primera.siguienteCursor(), 100);
+        List<ProductoDTO> productos = productoMapper.toDtoList(segunda.contenido());
+
+        // Then
+        assertEquals(50, productos.size());
+        assertNull(segunda.siguienteCursor());
+        assertTrue(estadisticas.getPrepareStatementCount() <= 2,
+                "Consultas ejecutadas: " + estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Debería exportar el catálogo por lotes con una consulta de imágenes por lote")
+    void deberiaExportarCatalogoPorLotes() {
+        // Given
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        List<ProductoDTO> exportados = new ArrayList<>();
+
+        // When
+        long cantidad = productoService.exportarCatalogo(null, exportados::add);
+
+        // Then: el cursor + 1 consulta de imágenes por cada lote de 500
+        assertEquals(150, cantidad);
+        assertEquals(150, exportados.size());
+        assertTrue(exportados.stream().allMatch(producto -> producto.imagenes().size() == 2));
+        assertTrue(estadisticas.getPrepareStatementCount() <= 2,
+                "Consultas ejecutadas: " + estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Debería exportar solo lo modificado desde la fecha indicada")
+    void deberiaExportarIncremental() {
+        assertEquals(0, productoService.exportarCatalogo(
+                OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(1).toInstant(), producto -> { }));
+        assertEquals(150, productoService.exportarCatalogo(
+                OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(1).toInstant(), producto -> { }));
+    }
+
+    @Test
+    @DisplayName("Debería respetar el offset de la fecha indicada aunque no sea el de la JVM")
+    void deberiaExportarIncrementalConOffset() {
+        // Given: el mismo instante expresado lejos de la zona en la que se guardó la fecha
+        OffsetDateTime haceUnMinuto = OffsetDateTime.now(ZoneOffset.ofHours(14)).minusMinutes(1);
+        OffsetDateTime enUnMinuto = OffsetDateTime.now(ZoneOffset.ofHours(-12)).plusMinutes(1);
+
+        // When / Then
+        assertEquals(150, productoService.exportarCatalogo(haceUnMinuto.toInstant(), producto -> { }));
+        assertEquals(0, productoService.exportarCatalogo(enUnMinuto.toInstant(), producto -> { }));
+    }
+
+    @Test
+    @DisplayName("Debería modificar el precio sin tocar la tabla de imágenes")
+    void deberiaModificarPrecioSinReescribirImagenes() {
+        // Given
+        Long id = productoService.obtenerPagina(OrdenProductos.ID, null, 1).contenido().get(0).getIdProducto();
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        // When
+        Producto modificado = productoService.modificarProducto(id, actual -> new ProductoDTO(
+                actual.idProducto(), actual.nombre(), actual.descripcion(), 999.0, actual.imagenes(),
+                actual.categoriaId(), actual.estado(), actual.fechaPublicacion(), actual.fechaFin(),
+                actual.usuarioId(), actual.subastaId(), actual.precioCompraInmediata(), actual.condicion(),
+                actual.ubicacion(), actual.cantidad()));
+
+        // Then
+        assertEquals(999.0, modificado.getPrecioInicial());
+        assertEquals(1, estadisticas.getEntityUpdateCount());
+        assertEquals(0, estadisticas.getCollectionUpdateCount());
+        assertEquals(0, estadisticas.getCollectionRecreateCount());
+    }
+
+    @Test
+    @DisplayName("Debería actualizar solo la imagen que cambió")
+    void deberiaActualizarSoloImagenModificada() {
+        // Given
+        Long id = productoService.obtenerPagina(OrdenProductos.ID, null, 1).contenido().get(0).getIdProducto();
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        // When
+        Producto modificado = productoService.modificarProducto(id, actual -> new ProductoDTO(
+                actual.idProducto(), actual.nombre(), actual.descripcion(), actual.precioInicial(),
+                List.of(actual.imagenes().get(0), "http://example.com/nueva.jpg"),
+                actual.categoriaId(), actual.estado(), actual.fechaPublicacion(), actual.fechaFin(),
+                actual.usuarioId(), actual.subastaId(), actual.precioCompraInmediata(), actual.condicion(),
+                actual.ubicacion(), actual.cantidad()));
+
+        // Then
+        assertEquals("http://example.com/nueva.jpg", modificado.getImagenes().get(1));
+        assertEquals(1, estadisticas.getCollectionUpdateCount());
+        assertEquals(0, estadisticas.getCollectionRecreateCount());
+    }
+
+    @Test
+    @DisplayName("Debería servir desde la cache un producto ya leído sin ir a la base")
+    void deberiaServirDesdeCacheSinConsultas() {
+        // Given
+        Long id = productoService.obtenerPagina(OrdenProductos.ID, null, 1).contenido().get(0).getIdProducto();
+        entityManager.clear();
+        ProductoVersionado primero = productoService.obtenerProductoVersionadoPorId(id);
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        // When
+        ProductoVersionado segundo = productoService.obtenerProductoVersionadoPorId(id);
+
+        // Then
+        assertSame(primero, segundo);
+        assertEquals(2, segundo.producto().imagenes().size());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Debería invalidar la cache al actualizar o eliminar el producto")
+    void deberiaInvalidarCacheAlModificar() {
+        // Given
+        Long id = productoService.obtenerPagina(OrdenProductos.ID, null, 1).contenido().get(0).getIdProducto();
+        Producto detalles = productoMapper.toEntity(productoService.obtenerProductoDtoPorId(id));
+        detalles.setNombre("Renombrado");
+
+        // When
+        productoService.actualizarProducto(id, detalles);
+        entityManager.flush();
+        entityManager.clear();
+        ProductoDTO actualizado = productoService.obtenerProductoDtoPorId(id);
+        productoService.eliminarProducto(id);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertEquals("Renombrado", actualizado.nombre());
+        assertNull(productoService.obtenerProductoDtoPorId(id));
+    }
+}
@@ -11,6 +11,8 @@ import java.util.Optional;
 
 import ar.edu.huergo.fastbid.entity.Producto;
 import ar.edu.huergo.fastbid.repository.producto.ProductoRepository;
+import ar.edu.huergo.fastbid.service.busqueda.FacetasProductos;
+import ar.edu.huergo.fastbid.service.busqueda.IndiceProductos;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -29,6 +31,18 @@ class ProductoServiceTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private ProductoCache productoCache;
+
+    @Mock
+    private IndiceProductos indiceProductos;
+
+    @Mock
+    private FacetasProductos facetasProductos;
+
+    @Mock
+    private VersionCatalogo versionCatalogo;
+
     @InjectMocks
     private ProductoService productoService;
 
@@ -126,6 +140,9 @@ class ProductoServiceTest {
         assertNotNull(resultado.getIdProducto());
         assertEquals("Amoladora", resultado.getNombre());
         verify(productoRepository, times(1)).save(nuevo);
+        verify(indiceProductos, times(1)).indexar(20L, "Amoladora", "850W 115mm");
+        verify(facetasProductos, times(1)).indexar(20L, 1L, "NUEVO", "Buenos Aires, Argentina", 65_000.0);
+        verify(versionCatalogo, times(1)).registrarCambio();
     }
 
     @Test
@@ -151,6 +168,27 @@ class ProductoServiceTest {
         assertEquals(producto1.getIdProducto(), actualizado.getIdProducto()); // preserva el id
         verify(productoRepository, times(1)).findById(10L);
         verify(productoRepository, times(1)).save(any(Producto.class));
+        verify(productoCache, times(1)).invalidar(10L);
+        verify(indiceProductos, times(1)).indexar(10L, "Taladro Makita 13mm", "Percutor + maletín");
+        verify(versionCatalogo, times(1)).registrarCambio();
+    }
+
+    @Test
+    @DisplayName("No debería reindexar el texto si solo cambió el precio")
+    void noDeberiaReindexarTextoSiSoloCambioElPrecio() {
+        // Given
+        Producto detalles = buildProducto("Taladro", "Percutor 13mm", 118_500.0, "ACTIVO", 3);
+        when(productoRepository.findById(10L)).thenReturn(Optional.of(producto1));
+        when(productoRepository.save(any(Producto.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        productoService.actualizarProducto(10L, detalles);
+
+        // Then
+        verify(indiceProductos, never()).indexar(any(), any(), any());
+        verify(facetasProductos, times(1)).indexar(10L, 1L, "NUEVO", "Buenos Aires, Argentina", 118_500.0);
+        verify(productoCache, times(1)).invalidar(10L);
     }
 
     @Test
@@ -166,6 +204,7 @@ class ProductoServiceTest {
         assertNull(res);
         verify(productoRepository, times(1)).findById(404L);
         verify(productoRepository, never()).save(any(Producto.class));
+        verifyNoInteractions(indiceProductos, facetasProductos, versionCatalogo);
     }
 
     @Test
@@ -174,5 +213,9 @@ class ProductoServiceTest {
         // When / Then
         assertDoesNotThrow(() -> productoService.eliminarProducto(10L));
         verify(productoRepository, times(1)).deleteById(10L);
+        verify(productoCache, times(1)).invalidar(10L);
+        verify(indiceProductos, times(1)).eliminar(10L);
+        verify(facetasProductos, times(1)).eliminar(10L);
+        verify(versionCatalogo, times(1)).registrarCambio();
     }
 }
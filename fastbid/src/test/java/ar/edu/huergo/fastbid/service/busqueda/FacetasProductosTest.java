@@ -0,0 +1,116 @@
+package ar.edu.huergo.fastbid.service.busqueda;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.fastbid.repository.producto.ProductoRepository;
+
+@DisplayName("Tests de Unidad - FacetasProductos")
+class FacetasProductosTest {
+
+    private static final FiltroProductos SIN_FILTRO = new FiltroProductos(null, null, null, null, null);
+
+    private FacetasProductos facetas;
+
+    @BeforeEach
+    void setUp() {
+        facetas = new FacetasProductos(mock(ProductoRepository.class), 1000);
+        facetas.indexar(1L, 1L, "NUEVO", "Córdoba", 100.0);
+        facetas.indexar(2L, 1L, "usado", "Rosario", 250.0);
+        facetas.indexar(3L, 2L, "NUEVO", "Rosario", 400.0);
+        facetas.indexar(4L, 2L, "REACONDICIONADO", "Córdoba", 900.0);
+        facetas.indexar(5L, 3L, "NUEVO", "Córdoba", 50.0);
+    }
+
+    @Test
+    @DisplayName("Debería combinar valores de una faceta con OR y facetas con AND")
+    void deberiaCombinarFiltros() {
+        // Given
+        FiltroProductos filtro = new FiltroProductos(List.of(1L, 2L), List.of("nuevo"), null, null, null);
+
+        // When
+        FacetasProductos.Resultado resultado = facetas.filtrar(filtro, -1, 10);
+
+        // Then
+        assertEquals(List.of(1L, 3L), resultado.ids());
+        assertEquals(2, resultado.total());
+        assertFalse(resultado.hayMas());
+    }
+
+    @Test
+    @DisplayName("Debería filtrar por rango de precio inclusivo")
+    void deberiaFiltrarPorPrecio() {
+        FiltroProductos filtro = new FiltroProductos(null, null, null, 100.0, 400.0);
+
+        assertEquals(List.of(1L, 2L, 3L), facetas.filtrar(filtro, -1, 10).ids());
+        assertEquals(List.of(4L), facetas.filtrar(new FiltroProductos(null, null, null, 500.0, null), -1, 10).ids());
+        assertTrue(facetas.filtrar(new FiltroProductos(null, null, null, 500.0, 100.0), -1, 10).ids().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería contar cada faceta con los filtros de las demás")
+    void deberiaContarFacetasDisyuntivas() {
+        // Given: categoría 1 elegida
+        FiltroProductos filtro = new FiltroProductos(List.of(1L), null, null, null, null);
+
+        // When
+        Map<String, Map<String, Long>> conteos = facetas.filtrar(filtro, -1, 10).facetas();
+
+        // Then: las categorías se cuentan sin su propio filtro, el resto dentro de la categoría 1
+        assertEquals(Map.of("1", 2L, "2", 2L, "3", 1L), conteos.get(FacetasProductos.CATEGORIA));
+        assertEquals(Map.of("NUEVO", 1L, "USADO", 1L), conteos.get(FacetasProductos.CONDICION));
+        assertEquals(Map.of("Córdoba", 1L, "Rosario", 1L), conteos.get(FacetasProductos.UBICACION));
+    }
+
+    @Test
+    @DisplayName("Debería paginar por id a partir del cursor")
+    void deberiaPaginar() {
+        FacetasProductos.Resultado primera = facetas.filtrar(SIN_FILTRO, -1, 2);
+        FacetasProductos.Resultado segunda = facetas.filtrar(SIN_FILTRO, 2, 2);
+        FacetasProductos.Resultado tercera = facetas.filtrar(SIN_FILTRO, 4, 2);
+
+        assertEquals(List.of(1L, 2L), primera.ids());
+        assertTrue(primera.hayMas());
+        assertEquals(List.of(3L, 4L), segunda.ids());
+        assertEquals(List.of(5L), tercera.ids());
+        assertFalse(tercera.hayMas());
+        assertEquals(5, tercera.total());
+    }
+
+    @Test
+    @DisplayName("Debería mover solo el precio cuando es lo único que cambió")
+    void deberiaMoverSoloElPrecio() {
+        // When
+        facetas.indexar(1L, 1L, "NUEVO", "Córdoba", 950.0);
+
+        // Then
+        assertEquals(List.of(1L, 4L),
+                facetas.filtrar(new FiltroProductos(null, null, null, 900.0, null), -1, 10).ids());
+        assertTrue(facetas.filtrar(new FiltroProductos(null, null, null, 100.0, 100.0), -1, 10).ids().isEmpty());
+        assertEquals(List.of(1L, 2L),
+                facetas.filtrar(new FiltroProductos(List.of(1L), null, List.of("Córdoba", "Rosario"), null, null), -1, 10).ids());
+        assertEquals(5, facetas.size());
+    }
+
+    @Test
+    @DisplayName("Debería reflejar actualizaciones y bajas")
+    void deberiaActualizarYEliminar() {
+        // When
+        facetas.indexar(1L, 3L, "USADO", "Córdoba", 120.0);
+        facetas.eliminar(5L);
+
+        // Then
+        FiltroProductos categoria3 = new FiltroProductos(List.of(3L), null, null, null, null);
+        assertEquals(List.of(1L), facetas.filtrar(categoria3, -1, 10).ids());
+        assertEquals(Map.of("USADO", 2L, "NUEVO", 1L, "REACONDICIONADO", 1L),
+                facetas.filtrar(SIN_FILTRO, -1, 10).facetas().get(FacetasProductos.CONDICION));
+        assertEquals(4, facetas.size());
+    }
+}
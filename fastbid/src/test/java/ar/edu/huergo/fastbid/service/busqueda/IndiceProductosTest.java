@@ -0,0 +1,96 @@
+package ar.edu.huergo.fastbid.service.busqueda;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.fastbid.repository.producto.ProductoRepository;
+
+@DisplayName("Tests de Unidad - IndiceProductos")
+class IndiceProductosTest {
+
+    private IndiceProductos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceProductos(mock(ProductoRepository.class), 1000);
+        indice.indexar(1L, "Taladro percutor Bosch", "Taladro de 13mm con maletín");
+        indice.indexar(2L, "Amoladora angular", "850W, ideal para cortar y pulir. Incluye taladro de regalo");
+        indice.indexar(3L, "Camión de juguete", "Camiones a escala para niños");
+    }
+
+    @Test
+    @DisplayName("Debería encontrar sin distinguir mayúsculas, acentos ni plurales")
+    void deberiaIgnorarAcentosYPlurales() {
+        assertEquals(List.of(3L), indice.buscar("CAMION", 10));
+        assertEquals(List.of(3L), indice.buscar("camiónes", 10));
+        assertEquals(List.of(1L, 2L), indice.buscar("taladros", 10));
+    }
+
+    @Test
+    @DisplayName("Debería rankear primero al producto con más coincidencias")
+    void deberiaRankearPorRelevancia() {
+        // When
+        List<Long> resultado = indice.buscar("taladro percutor", 10);
+
+        // Then: el 1 tiene ambos términos, y "taladro" en el nombre
+        assertEquals(List.of(1L, 2L), resultado);
+        assertEquals(List.of(1L), indice.buscar("taladro percutor", 1));
+    }
+
+    @Test
+    @DisplayName("Debería devolver vacío para palabras vacías o términos inexistentes")
+    void deberiaDevolverVacio() {
+        assertTrue(indice.buscar("de la con", 10).isEmpty());
+        assertTrue(indice.buscar("heladera", 10).isEmpty());
+        assertTrue(indice.buscar("   ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería reemplazar el texto de un producto actualizado")
+    void deberiaReindexarAlActualizar() {
+        // When
+        indice.indexar(1L, "Sierra circular", "Hoja de 185mm");
+
+        // Then
+        assertEquals(List.of(2L), indice.buscar("taladro", 10));
+        assertEquals(List.of(1L), indice.buscar("sierra", 10));
+        assertEquals(3, indice.size());
+    }
+
+    @Test
+    @DisplayName("Debería dejar de encontrar un producto eliminado")
+    void deberiaOlvidarEliminados() {
+        indice.eliminar(1L);
+
+        assertEquals(List.of(2L), indice.buscar("taladro", 10));
+        assertEquals(2, indice.size());
+    }
+
+    @Test
+    @DisplayName("Debería compactar los documentos borrados sin perder resultados")
+    void deberiaCompactar() {
+        // Given
+        for (long id = 100; id < 2_100; id++) {
+            indice.indexar(id, "Producto " + id, "repuesto generico");
+        }
+
+        // When: se borran 1.000 y se actualiza otro
+        for (long id = 100; id < 1_100; id++) {
+            indice.eliminar(id);
+        }
+        indice.indexar(2_000L, "Repuesto especial", "unico");
+
+        // Then
+        assertEquals(1_003, indice.size());
+        assertTrue(indice.documentos() < 1_010, "Documentos: " + indice.documentos());
+        assertEquals(List.of(2_000L), indice.buscar("especial", 10));
+        assertEquals(1_000, indice.buscar("repuesto", 2_000).size());
+        assertEquals(List.of(1L, 2L), indice.buscar("taladro", 10));
+    }
+}
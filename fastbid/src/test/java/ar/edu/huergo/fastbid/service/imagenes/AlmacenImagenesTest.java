@@ -0,0 +1,110 @@
+package ar.edu.huergo.fastbid.service.imagenes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Tests de Unidad - AlmacenImagenes")
+class AlmacenImagenesTest {
+
+    @TempDir
+    Path directorio;
+
+    private AlmacenImagenes almacen;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        almacen = new AlmacenImagenes(directorio, 1024 * 1024, 32, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        almacen.detener();
+    }
+
+    private static byte[] png(int ancho, int alto) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_ARGB), "png", salida);
+        return salida.toByteArray();
+    }
+
+    private long archivosGuardados() throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            return archivos.filter(Files::isRegularFile)
+                    .map(ruta -> ruta.getFileName().toString())
+                    .filter(nombre -> !nombre.contains("-min") && !nombre.startsWith("miniatura-"))
+                    .count();
+        }
+    }
+
+    @Test
+    @DisplayName("Debería guardar por hash de contenido y deduplicar subidas iguales")
+    void deberiaDeduplicar() throws IOException {
+        // Given
+        byte[] contenido = png(100, 50);
+
+        // When
+        ImagenAlmacenada primera = almacen.guardar(new ByteArrayInputStream(contenido));
+        ImagenAlmacenada segunda = almacen.guardar(new ByteArrayInputStream(contenido));
+
+        // Then
+        assertEquals(primera.nombre(), segunda.nombre());
+        assertTrue(primera.nombre().matches("[0-9a-f]{64}\\.png"));
+        assertEquals("image/png", primera.tipoContenido());
+        assertEquals(contenido.length, primera.bytes());
+        assertEquals(1, archivosGuardados());
+        assertEquals(Optional.of(primera.ruta()), almacen.buscar(primera.nombre()).map(ImagenAlmacenada::ruta));
+    }
+
+    @Test
+    @DisplayName("Debería generar la miniatura en segundo plano")
+    void deberiaGenerarMiniatura() throws Exception {
+        // Given
+        ImagenAlmacenada imagen = almacen.guardar(new ByteArrayInputStream(png(200, 100)));
+
+        // When: se espera a que el pool termine
+        Optional<ImagenAlmacenada> miniatura = Optional.empty();
+        for (int intento = 0; intento < 100 && miniatura.isEmpty(); intento++) {
+            Thread.sleep(20);
+            miniatura = almacen.buscarMiniatura(imagen.nombre());
+        }
+
+        // Then
+        assertTrue(miniatura.isPresent());
+        BufferedImage leida = ImageIO.read(miniatura.get().ruta().toFile());
+        assertEquals(32, leida.getWidth());
+        assertEquals(16, leida.getHeight());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar contenido que no es imagen y archivos demasiado grandes")
+    void deberiaRechazarContenidoInvalido() throws IOException {
+        assertThrows(IllegalArgumentException.class,
+                () -> almacen.guardar(new ByteArrayInputStream("<html>hola</html>".getBytes())));
+        assertThrows(IllegalArgumentException.class,
+                () -> almacen.guardar(new ByteArrayInputStream(new byte[2 * 1024 * 1024])));
+        assertEquals(0, archivosGuardados());
+    }
+
+    @Test
+    @DisplayName("Debería ignorar nombres que no son de una imagen del almacén")
+    void deberiaIgnorarNombresInvalidos() throws IOException {
+        assertTrue(almacen.buscar("../../etc/passwd").isEmpty());
+        assertTrue(almacen.buscar("a".repeat(64) + ".png").isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests de Unidad - EjecutorContrasenias")
+class EjecutorContraseniasTest {
+
+    private MeterRegistry registry;
+    private EjecutorContrasenias ejecutor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("registry", registry);
+        // Un hilo y lugar para un solo login en espera
+        ejecutor = new EjecutorContrasenias(beans.getBeanProvider(MeterRegistry.class), 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ejecutor.detener();
+    }
+
+    @Test
+    @DisplayName("Debería ejecutar la tarea fuera del hilo que la pide y medirla")
+    void deberiaEjecutarEnElPool() throws Exception {
+        // When
+        String hilo = ejecutor.ejecutar(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(hilo.startsWith("login-bcrypt-"));
+        assertEquals(1, registry.timer("fastbid.login.hash").count());
+        assertEquals(1, registry.timer("fastbid.login.espera").count());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con Retry-After cuando la cola está llena")
+    void deberiaRechazarConColaLlena() throws Exception {
+        // Given: el único hilo ocupado y la cola con un login esperando
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Boolean> enCurso = ejecutor.ejecutar(() -> esperar(liberar));
+        CompletableFuture<Boolean> enCola = ejecutor.ejecutar(() -> true);
+
+        // When
+        SobrecargaLoginException ex = assertThrows(SobrecargaLoginException.class,
+                () -> ejecutor.ejecutar(() -> true));
+
+        // Then
+        assertTrue(ex.getReintentarEnSegundos() >= 1);
+        assertEquals(1, registry.counter("fastbid.login.rechazados").count());
+        liberar.countDown();
+        assertTrue(enCurso.get(5, TimeUnit.SECONDS));
+        assertTrue(enCola.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Debería propagar en el futuro la excepción de la tarea")
+    void deberiaPropagarExcepcion() {
+        // When
+        CompletableFuture<String> resultado = ejecutor.ejecutar(() -> {
+            throw new BadCredentialsException("Credenciales inválidas");
+        });
+
+        // Then
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> resultado.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(BadCredentialsException.class, ex.getCause());
+    }
+
+    private static boolean esperar(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
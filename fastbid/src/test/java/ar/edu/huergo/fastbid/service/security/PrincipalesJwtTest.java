@@ -0,0 +1,101 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Unidad - PrincipalesJwt")
+class PrincipalesJwtTest {
+
+    private static final Instant EXPIRACION = Instant.now().plusSeconds(3600);
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private UserDetails usuarioEnBase;
+
+    @BeforeEach
+    void setUp() {
+        usuarioEnBase = User.withUsername("usuario@test.com").password("hash").roles("CLIENTE").build();
+    }
+
+    @Test
+    @DisplayName("Debería armar las autoridades desde el claim roles sin consultar la base")
+    void deberiaArmarAutoridadesDesdeClaims() {
+        // Given
+        PrincipalesJwt principales = crear(true);
+        TokenValidado token = new TokenValidado("jti-1", "usuario@test.com", 7L,
+                List.of("ROLE_CLIENTE", "ROLE_VENDEDOR"), EXPIRACION);
+
+        // When
+        UserDetails principal = principales.principal(token);
+
+        // Then
+        assertEquals("usuario@test.com", principal.getUsername());
+        assertEquals(Set.of("ROLE_CLIENTE", "ROLE_VENDEDOR"), autoridades(principal));
+        assertEquals(7L, assertInstanceOf(UsuarioAutenticado.class, principal).getId());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Debería cargar una sola vez desde la base si el token no trae roles")
+    void deberiaCachearCuandoNoHayRoles() {
+        // Given
+        PrincipalesJwt principales = crear(true);
+        TokenValidado token = new TokenValidado("jti-1", "usuario@test.com", 7L, List.of(), EXPIRACION);
+        when(userDetailsService.loadUserByUsername("usuario@test.com")).thenReturn(usuarioEnBase);
+
+        // When
+        UserDetails primero = principales.principal(token);
+        UserDetails segundo = principales.principal(token);
+
+        // Then
+        assertSame(usuarioEnBase, primero);
+        assertSame(usuarioEnBase, segundo);
+        verify(userDetailsService, times(1)).loadUserByUsername("usuario@test.com");
+    }
+
+    @Test
+    @DisplayName("Debería usar la base (con cache) si el modo sin estado está apagado")
+    void deberiaUsarLaBaseSinModoSinEstado() {
+        // Given
+        PrincipalesJwt principales = crear(false);
+        TokenValidado token = new TokenValidado("jti-1", "usuario@test.com", 7L, List.of("ROLE_ADMIN"), EXPIRACION);
+        when(userDetailsService.loadUserByUsername("usuario@test.com")).thenReturn(usuarioEnBase);
+
+        // When
+        UserDetails principal = principales.principal(token);
+
+        // Then: manda lo que dice la base, no el claim
+        assertEquals(Set.of("ROLE_CLIENTE"), autoridades(principal));
+    }
+
+    private PrincipalesJwt crear(boolean sinEstado) {
+        return new PrincipalesJwt(userDetailsService,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), sinEstado, 100, 30);
+    }
+
+    private static Set<String> autoridades(UserDetails principal) {
+        return principal.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,92 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Limit;
+
+import ar.edu.huergo.fastbid.entity.security.TokenRevocado;
+import ar.edu.huergo.fastbid.repository.security.TokenRevocadoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Unidad - RevocacionTokens")
+class RevocacionTokensTest {
+
+    private static final Instant EXPIRACION = Instant.now().plusSeconds(3600);
+
+    @Mock
+    private TokenRevocadoRepository tokenRevocadoRepository;
+
+    private RevocacionTokens revocacion;
+
+    @BeforeEach
+    void setUp() {
+        revocacion = new RevocacionTokens(tokenRevocadoRepository,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), 1_000, 0.01, 600);
+    }
+
+    @Test
+    @DisplayName("Debería responder en memoria, sin consultar la base, para un token no revocado")
+    void deberiaResolverEnMemoriaNoRevocados() {
+        // When
+        boolean revocado = revocacion.estaRevocado("jti-nunca-revocado");
+
+        // Then
+        assertFalse(revocado);
+        verifyNoInteractions(tokenRevocadoRepository);
+    }
+
+    @Test
+    @DisplayName("Debería guardar la revocación y reconocerla sin volver a la base")
+    void deberiaRevocar() {
+        // When
+        revocacion.revocar(new TokenValidado("jti-1", "usuario@test.com", 7L, List.of(), EXPIRACION));
+
+        // Then
+        verify(tokenRevocadoRepository).save(new TokenRevocado("jti-1", EXPIRACION));
+        assertTrue(revocacion.estaRevocado("jti-1"));
+        verify(tokenRevocadoRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    @DisplayName("Debería ignorar los tokens sin jti")
+    void deberiaIgnorarTokensSinJti() {
+        revocacion.revocar(new TokenValidado(null, "usuario@test.com", 7L, List.of(), EXPIRACION));
+
+        assertFalse(revocacion.estaRevocado(null));
+        verifyNoInteractions(tokenRevocadoRepository);
+    }
+
+    @Test
+    @DisplayName("Debería reconstruir el filtro desde la base sin los revocados vencidos")
+    void deberiaReconstruirDesdeLaBase() {
+        // Given: la base tiene un revocado vigente que este nodo no conocía
+        when(tokenRevocadoRepository.deleteVencidos(any())).thenReturn(3);
+        when(tokenRevocadoRepository.countByExpiracionAfter(any())).thenReturn(1L);
+        when(tokenRevocadoRepository.findJtisVigentesDesde(any(), eq(""), any(Limit.class)))
+                .thenReturn(List.of("jti-de-otro-nodo"));
+        when(tokenRevocadoRepository.existsById("jti-de-otro-nodo")).thenReturn(true);
+        assertFalse(revocacion.estaRevocado("jti-de-otro-nodo"));
+
+        // When
+        revocacion.reconstruir();
+
+        // Then
+        assertTrue(revocacion.estaRevocado("jti-de-otro-nodo"));
+        verify(tokenRevocadoRepository).deleteVencidos(any());
+    }
+}
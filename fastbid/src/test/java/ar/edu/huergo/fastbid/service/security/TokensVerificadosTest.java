@@ -0,0 +1,117 @@
+package ar.edu.huergo.fastbid.service.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.userdetails.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests de Unidad - TokensVerificados")
+class TokensVerificadosTest {
+
+    private static final String SECRET_KEY =
+            "mi-clave-secreta-para-jwt-que-debe-ser-lo-suficientemente-larga-para-ser-segura";
+
+    private JwtTokenService jwtTokenService;
+    private RevocacionTokens revocacionTokens;
+    private MeterRegistry registry;
+    private TokensVerificados tokensVerificados;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenService = spy(new JwtTokenService(SECRET_KEY, 3_600_000L));
+        revocacionTokens = mock(RevocacionTokens.class);
+        registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("registry", registry);
+        tokensVerificados = new TokensVerificados(jwtTokenService, revocacionTokens,
+                beans.getBeanProvider(MeterRegistry.class), 100);
+        token = jwtTokenService.generarToken(
+                User.withUsername("usuario@test.com").password("sin-uso").build(), List.of("ROLE_CLIENTE"));
+    }
+
+    @Test
+    @DisplayName("Debería verificar la firma una sola vez para el mismo token")
+    void deberiaVerificarUnaSolaVez() {
+        // When
+        Optional<TokenValidado> primero = tokensVerificados.validar(token);
+        Optional<TokenValidado> segundo = tokensVerificados.validar(token);
+
+        // Then
+        assertTrue(primero.isPresent());
+        assertEquals(primero, segundo);
+        verify(jwtTokenService, times(1)).validar(token);
+        assertEquals(1, registry.timer("fastbid.jwt.validacion", "origen", "cache").count());
+        assertEquals(1, registry.timer("fastbid.jwt.validacion", "origen", "firma").count());
+    }
+
+    @Test
+    @DisplayName("Debería no guardar los tokens inválidos")
+    void deberiaNoGuardarInvalidos() {
+        // When
+        assertTrue(tokensVerificados.validar("token.malformado.invalido").isEmpty());
+        assertTrue(tokensVerificados.validar("token.malformado.invalido").isEmpty());
+        assertTrue(tokensVerificados.validar(null).isEmpty());
+
+        // Then
+        assertEquals(0, tokensVerificados.size());
+        verify(jwtTokenService, times(2)).validar("token.malformado.invalido");
+    }
+
+    @Test
+    @DisplayName("Debería volver a verificar un token invalidado")
+    void deberiaVolverAVerificarTrasInvalidar() {
+        // Given
+        tokensVerificados.validar(token);
+
+        // When
+        tokensVerificados.invalidar(token);
+        tokensVerificados.validar(token);
+
+        // Then
+        verify(jwtTokenService, times(2)).validar(token);
+    }
+
+    @Test
+    @DisplayName("Debería descartar la entrada cuando el token expira")
+    void deberiaExpirarConElToken() {
+        // Given: un token validado que vence en el pasado inmediato
+        TokenValidado vencido = new TokenValidado("jti-1", "usuario@test.com", 7L, List.of("ROLE_CLIENTE"),
+                Instant.now().minusMillis(1));
+        doReturn(Optional.of(vencido)).when(jwtTokenService).validar("otro.token.firmado");
+
+        // When
+        tokensVerificados.validar("otro.token.firmado");
+        tokensVerificados.validar("otro.token.firmado");
+
+        // Then
+        assertEquals(0, tokensVerificados.size());
+        verify(jwtTokenService, times(2)).validar("otro.token.firmado");
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un token revocado aunque ya esté en la cache")
+    void deberiaRechazarTokenRevocado() {
+        // Given
+        TokenValidado validado = tokensVerificados.validar(token).orElseThrow();
+
+        // When
+        when(revocacionTokens.estaRevocado(validado.jti())).thenReturn(true);
+
+        // Then
+        assertTrue(tokensVerificados.validar(token).isEmpty());
+        assertTrue(tokensVerificados.validar(token).isEmpty());
+        assertEquals(0, tokensVerificados.size());
+    }
+}
@@ -0,0 +1,67 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+
+@DisplayName("Tests de Unidad - CierreSuave")
+class CierreSuaveTest {
+
+    private static final long FIN = 1_700_000_000_000L;
+
+    private final CierreSuave cierreSuave = new CierreSuave(60, 120);
+
+    @Test
+    @DisplayName("Debería correr la fecha de fin con una puja dentro de la ventana")
+    void deberiaExtenderDentroDeLaVentana() {
+        assertEquals(FIN + TimeUnit.SECONDS.toMillis(120), cierreSuave.extender(FIN, FIN - 1_000));
+        // El borde de la ventana también cuenta
+        assertEquals(FIN + TimeUnit.SECONDS.toMillis(120),
+                cierreSuave.extender(FIN, FIN - TimeUnit.SECONDS.toMillis(60)));
+    }
+
+    @Test
+    @DisplayName("No debería tocar la fecha de fin con una puja fuera de la ventana")
+    void noDeberiaExtenderFueraDeLaVentana() {
+        assertEquals(FIN, cierreSuave.extender(FIN, FIN - TimeUnit.SECONDS.toMillis(61)));
+    }
+
+    @Test
+    @DisplayName("No debería extender nunca con la ventana en 0")
+    void noDeberiaExtenderDeshabilitado() {
+        assertEquals(FIN, new CierreSuave(0, 120).extender(FIN, FIN - 1));
+    }
+
+    @Test
+    @DisplayName("Debería prorrogar la subasta en memoria solo con pujas dentro de la ventana")
+    void deberiaProrrogarEstadoSubasta() {
+        // Given
+        Subasta subasta = new Subasta();
+        subasta.setIdSubasta(1L);
+        subasta.setFechaInicio(OffsetDateTime.ofInstant(Instant.ofEpochMilli(FIN), ZoneOffset.UTC).minusHours(1));
+        subasta.setFechaFin(OffsetDateTime.ofInstant(Instant.ofEpochMilli(FIN), ZoneOffset.UTC));
+        subasta.setPrecioInicial(100.0);
+        subasta.setPrecioActual(100.0);
+        subasta.setIncrementoMinimo(10.0);
+        subasta.setEstado(SubastaEstado.ACTIVA);
+        EstadoSubasta estado = new EstadoSubasta(subasta, cierreSuave);
+
+        // When
+        estado.aplicarPuja(7L, 100.0, FIN - TimeUnit.MINUTES.toMillis(10));
+        long trasPujaTemprana = estado.getFechaFinMillis();
+        estado.aplicarPuja(8L, 110.0, FIN - 1_000);
+
+        // Then
+        assertEquals(FIN, trasPujaTemprana);
+        assertEquals(FIN + TimeUnit.SECONDS.toMillis(120), estado.getFechaFinMillis());
+    }
+}
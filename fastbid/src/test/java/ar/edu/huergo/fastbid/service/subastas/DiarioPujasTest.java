@@ -0,0 +1,233 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ar.edu.huergo.fastbid.service.subastas.DiarioPujas.RegistroPuja;
+
+@DisplayName("Tests de Unidad - DiarioPujas")
+class DiarioPujasTest {
+
+    private static final long FECHA = 1_700_000_000_000L;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debería reproducir tras reiniciar las pujas confirmadas en la ejecución anterior")
+    void deberiaReproducirTrasReiniciar() throws Exception {
+        // Given
+        DiarioPujas anterior = abrir(8);
+        escribir(anterior, 3);
+        anterior.cerrar();
+
+        // When
+        DiarioPujas siguiente = abrir(8);
+        List<RegistroPuja> reproducidos = reproducir(siguiente);
+        siguiente.cerrar();
+
+        // Then
+        assertEquals(List.of(registro(0, false), registro(1, false), registro(2, true)), reproducidos);
+    }
+
+    @Test
+    @DisplayName("Debería reproducir la fecha de fin prorrogada por el cierre suave")
+    void deberiaReproducirProrroga() throws Exception {
+        // Given: la segunda puja corrió el fin un minuto y no llegó a la base antes del crash
+        DiarioPujas anterior = abrir(8);
+        anterior.registrar(1L, 7L, 150.0, FECHA, 150.0, 7L, FECHA + 60_000, false).durable().join();
+        anterior.registrar(1L, 8L, 160.0, FECHA + 1, 160.0, 8L, FECHA + 120_000, false).durable().join();
+        anterior.cerrar();
+
+        // When
+        DiarioPujas siguiente = abrir(8);
+        List<RegistroPuja> reproducidos = reproducir(siguiente);
+        siguiente.cerrar();
+
+        // Then
+        assertEquals(FECHA + 120_000, reproducidos.get(1).fechaFinMillis());
+    }
+
+    @Test
+    @DisplayName("Debería pasar a un segmento nuevo al llenarse el actual y reproducirlos en orden")
+    void deberiaRotarSegmentos() throws Exception {
+        // Given
+        DiarioPujas anterior = abrir(2);
+        List<DiarioPujas.Escritura> escrituras = escribir(anterior, 5);
+        anterior.cerrar();
+
+        // When
+        DiarioPujas siguiente = abrir(2);
+        List<RegistroPuja> reproducidos = reproducir(siguiente);
+        siguiente.cerrar();
+
+        // Then: 5 registros en 3 segmentos, con secuencias consecutivas. El segmento vacío de
+        // la segunda ejecución se borró al cerrar
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L),
+                escrituras.stream().map(DiarioPujas.Escritura::secuencia).toList());
+        assertEquals(List.of("pujas-000000000001.diario", "pujas-000000000002.diario",
+                "pujas-000000000003.diario"), segmentos());
+        assertEquals(5, reproducidos.size());
+        assertEquals(4, reproducidos.get(4).usuarioId());
+    }
+
+    @Test
+    @DisplayName("Debería cortar la reproducción en el primer registro con CRC inválido")
+    void deberiaCortarEnCrcInvalido() throws Exception {
+        // Given: se altera el monto del segundo registro sin recalcular su CRC
+        DiarioPujas anterior = abrir(8);
+        escribir(anterior, 3);
+        anterior.cerrar();
+        try (RandomAccessFile archivo = new RandomAccessFile(directorio.resolve("pujas-000000000001.diario").toFile(), "rw")) {
+            archivo.seek(DiarioPujas.TAMANIO_REGISTRO + 24);
+            archivo.writeLong(Double.doubleToLongBits(999.0));
+        }
+
+        // When
+        DiarioPujas siguiente = abrir(8);
+        List<RegistroPuja> reproducidos = reproducir(siguiente);
+        siguiente.cerrar();
+
+        // Then
+        assertEquals(List.of(registro(0, false)), reproducidos);
+    }
+
+    @Test
+    @DisplayName("Debería descartar un registro escrito a medias al final del segmento")
+    void deberiaDescartarColaRota() throws Exception {
+        // Given: el último registro quedó con el tipo escrito pero sin el resto de los datos
+        DiarioPujas anterior = abrir(8);
+        escribir(anterior, 3);
+        anterior.cerrar();
+        try (RandomAccessFile archivo = new RandomAccessFile(directorio.resolve("pujas-000000000001.diario").toFile(), "rw")) {
+            archivo.seek(2L * DiarioPujas.TAMANIO_REGISTRO + 8);
+            archivo.write(new byte[DiarioPujas.TAMANIO_REGISTRO - 8]);
+        }
+
+        // When
+        DiarioPujas siguiente = abrir(8);
+        List<RegistroPuja> reproducidos = reproducir(siguiente);
+        siguiente.cerrar();
+
+        // Then
+        assertEquals(List.of(registro(0, false), registro(1, false)), reproducidos);
+    }
+
+    @Test
+    @DisplayName("Debería borrar solo los segmentos de la ejecución anterior al descartarlos")
+    void deberiaDescartarReproducidos() throws Exception {
+        // Given
+        DiarioPujas anterior = abrir(2);
+        escribir(anterior, 3);
+        anterior.cerrar();
+        DiarioPujas siguiente = abrir(2);
+        reproducir(siguiente);
+
+        // When
+        siguiente.descartarReproducidos();
+
+        // Then: queda solo el segmento en el que escribe esta ejecución
+        assertEquals(List.of("pujas-000000000003.diario"), segmentos());
+        assertTrue(reproducir(siguiente).isEmpty());
+        siguiente.cerrar();
+    }
+
+    @Test
+    @DisplayName("Debería borrar un segmento lleno cuando todas sus pujas están en la base")
+    void deberiaBorrarSegmentoPersistido() throws Exception {
+        // Given
+        DiarioPujas diario = abrir(2);
+        escribir(diario, 3);
+
+        // When
+        diario.confirmarPersistidas(List.of(0L, 1L));
+
+        // Then
+        assertEquals(List.of("pujas-000000000002.diario"), segmentos());
+        diario.cerrar();
+    }
+
+    @Test
+    @DisplayName("Debería borrar al cerrar los segmentos sin pujas pendientes de persistir")
+    void deberiaBorrarAlCerrarSegmentosPersistidos() throws Exception {
+        // Given: el primer segmento quedó con una puja sin llegar a la base
+        DiarioPujas diario = abrir(2);
+        escribir(diario, 4);
+        diario.confirmarPersistidas(List.of(1L, 2L, 3L));
+
+        // When
+        diario.cerrar();
+
+        // Then
+        assertEquals(List.of("pujas-000000000001.diario"), segmentos());
+    }
+
+    @Test
+    @DisplayName("No debería reproducir un diario escrito contra otra base")
+    void noDeberiaReproducirContraOtraBase() throws Exception {
+        // Given
+        DiarioPujas anterior = abrir(8);
+        anterior.verificarEsquema("base-anterior");
+        escribir(anterior, 2);
+        anterior.cerrar();
+
+        // When
+        DiarioPujas siguiente = abrir(8);
+
+        // Then: contra un esquema recreado falla; contra la misma base se puede reproducir
+        assertThrows(IllegalStateException.class, () -> siguiente.verificarEsquema("base-nueva"));
+        siguiente.verificarEsquema("base-anterior");
+        assertEquals(2, reproducir(siguiente).size());
+        siguiente.cerrar();
+    }
+
+    // --------- Helpers ----------
+    private DiarioPujas abrir(int registrosPorSegmento) throws IOException {
+        DiarioPujas diario = new DiarioPujas(true, directorio.toString(), registrosPorSegmento, 50);
+        diario.abrir();
+        return diario;
+    }
+
+    // El último registro cierra la subasta
+    private static List<DiarioPujas.Escritura> escribir(DiarioPujas diario, int cantidad) {
+        List<DiarioPujas.Escritura> escrituras = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            RegistroPuja registro = registro(i, i == cantidad - 1);
+            escrituras.add(diario.registrar(registro.subastaId(), registro.usuarioId(), registro.monto(),
+                    registro.fechaMillis(), registro.precioActual(), registro.ganadorId(),
+                    registro.fechaFinMillis(), registro.cierre()));
+        }
+        escrituras.forEach(escritura -> escritura.durable().join());
+        return escrituras;
+    }
+
+    private static RegistroPuja registro(int i, boolean cierre) {
+        return new RegistroPuja(1L, i, 100.0 + i * 10, FECHA + i, 100.0 + i * 10, i, FECHA + 60_000, cierre);
+    }
+
+    private static List<RegistroPuja> reproducir(DiarioPujas diario) throws IOException {
+        List<RegistroPuja> reproducidos = new ArrayList<>();
+        diario.reproducir(reproducidos::add);
+        return reproducidos;
+    }
+
+    private List<String> segmentos() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.map(ruta -> ruta.getFileName().toString())
+                    .filter(nombre -> nombre.endsWith(".diario"))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ar.edu.huergo.fastbid.dto.subastas.PrecioSubastaDTO;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+
+@DisplayName("Tests de Unidad - DifusorPrecios")
+class DifusorPreciosTest {
+
+    private static final PrecioSubastaDTO INICIAL = precio(100.0, SubastaEstado.ACTIVA);
+
+    private CountDownLatch liberarEnvios;
+    private boolean desconectados;
+    private List<EmisorDePrueba> emisores;
+    private DifusorPrecios difusor;
+
+    @BeforeEach
+    void setUp() {
+        liberarEnvios = new CountDownLatch(0);
+        emisores = new CopyOnWriteArrayList<>();
+        // Sin iniciar(): el test dispara cada ventana a mano con difundirPendientes()
+        difusor = new DifusorPrecios(100, 60_000) {
+            @Override
+            SseEmitter crearEmisor() {
+                EmisorDePrueba emisor = new EmisorDePrueba(liberarEnvios, desconectados);
+                emisores.add(emisor);
+                return emisor;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        difusor.detener();
+    }
+
+    @Test
+    @DisplayName("Debería enviar solo el último estado de una ráfaga de publicaciones")
+    void deberiaCoalescerRafagas() throws Exception {
+        // Given
+        difusor.suscribir(1L, () -> INICIAL);
+        EmisorDePrueba emisor = emisores.get(0);
+        emisor.esperarEnvios(1);
+
+        // When: cien pujas dentro de la misma ventana
+        for (int i = 1; i <= 100; i++) {
+            difusor.publicar(precio(100.0 + i, SubastaEstado.ACTIVA));
+        }
+        difusor.difundirPendientes();
+        difusor.difundirPendientes();
+
+        // Then
+        emisor.esperarEnvios(2);
+        assertEquals(List.of(INICIAL, precio(200.0, SubastaEstado.ACTIVA)), emisor.enviados);
+    }
+
+    @Test
+    @DisplayName("No debería acumular una cola para un cliente lento")
+    void noDeberiaEncolarParaClienteLento() throws Exception {
+        // Given: el cliente no termina de recibir el estado inicial
+        liberarEnvios = new CountDownLatch(1);
+        difusor.suscribir(1L, () -> INICIAL);
+        EmisorDePrueba emisor = emisores.get(0);
+
+        // When: mientras tanto llegan cincuenta ventanas con precios distintos
+        for (int i = 1; i <= 50; i++) {
+            difusor.publicar(precio(100.0 + i, SubastaEstado.ACTIVA));
+            difusor.difundirPendientes();
+        }
+        liberarEnvios.countDown();
+
+        // Then: los intermedios se pisaron; solo le llega el más reciente
+        emisor.esperarEnvios(2);
+        Thread.sleep(50);
+        assertEquals(List.of(INICIAL, precio(150.0, SubastaEstado.ACTIVA)), emisor.enviados);
+        assertEquals(2, emisor.intentos.get());
+    }
+
+    @Test
+    @DisplayName("Debería cerrar el emisor y quitar al suscriptor cuando la subasta finaliza")
+    void deberiaCompletarAlFinalizar() throws Exception {
+        // Given
+        difusor.suscribir(1L, () -> INICIAL);
+        EmisorDePrueba emisor = emisores.get(0);
+        assertEquals(1, difusor.cantidadSuscriptores());
+
+        // When
+        difusor.publicar(precio(300.0, SubastaEstado.FINALIZADA));
+        difusor.difundirPendientes();
+
+        // Then
+        assertTrue(emisor.completado.await(5, TimeUnit.SECONDS));
+        assertEquals(precio(300.0, SubastaEstado.FINALIZADA), emisor.enviados.get(emisor.enviados.size() - 1));
+        assertEquals(0, difusor.cantidadSuscriptores());
+        assertEquals(0, difusor.cantidadSubastasObservadas());
+    }
+
+    @Test
+    @DisplayName("Debería olvidar la subasta cuando se desconecta su último suscriptor")
+    void deberiaOlvidarSubastaSinSuscriptores() throws Exception {
+        // Given: dos clientes que se desconectan antes de recibir el estado inicial
+        desconectados = true;
+
+        // When
+        difusor.suscribir(1L, () -> INICIAL);
+        difusor.suscribir(1L, () -> INICIAL);
+
+        // Then
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (difusor.cantidadSubastasObservadas() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, difusor.cantidadSuscriptores());
+        assertEquals(0, difusor.cantidadSubastasObservadas());
+    }
+
+    // --------- Helpers ----------
+    private static PrecioSubastaDTO precio(double monto, SubastaEstado estado) {
+        return new PrecioSubastaDTO(1L, monto, 7L, estado);
+    }
+
+    /** Emisor sin servlet detrás: registra lo que se le envía y puede demorar cada envío. */
+    private static final class EmisorDePrueba extends SseEmitter {
+        private final CountDownLatch liberar;
+        private final boolean desconectado;
+        private final List<PrecioSubastaDTO> enviados = new CopyOnWriteArrayList<>();
+        private final AtomicInteger intentos = new AtomicInteger();
+        private final CountDownLatch completado = new CountDownLatch(1);
+
+        private EmisorDePrueba(CountDownLatch liberar, boolean desconectado) {
+            this.liberar = liberar;
+            this.desconectado = desconectado;
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            intentos.incrementAndGet();
+            if (desconectado) {
+                throw new IOException("Broken pipe");
+            }
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            evento.build().stream()
+                    .map(dato -> dato.getData())
+                    .filter(PrecioSubastaDTO.class::isInstance)
+                    .map(PrecioSubastaDTO.class::cast)
+                    .forEach(enviados::add);
+        }
+
+        @Override
+        public synchronized void complete() {
+            super.complete();
+            completado.countDown();
+        }
+
+        private void esperarEnvios(int cantidad) throws InterruptedException {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (enviados.size() < cantidad && System.nanoTime() < limite) {
+                Thread.sleep(5);
+            }
+            assertEquals(cantidad, enviados.size());
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.fastbid.dto.subastas.ResultadoPujaDTO;
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import ar.edu.huergo.fastbid.service.subastas.EstadoSubasta.PujaEfectiva;
+
+@DisplayName("Tests de Unidad - EstadoSubasta")
+class EstadoSubastaTest {
+
+    private static final long AHORA = System.currentTimeMillis();
+
+    private EstadoSubasta estado;
+
+    @BeforeEach
+    void setUp() {
+        estado = new EstadoSubasta(crearSubasta(null, OffsetDateTime.now().minusHours(1)), new CierreSuave(0, 0));
+    }
+
+    // --------- Pujas manuales ----------
+
+    @Test
+    @DisplayName("Debería aceptar como primera puja el precio inicial")
+    void deberiaAceptarPrimeraPujaAlPrecioInicial() {
+        ResultadoPujaDTO resultado = estado.aplicarPuja(9L, 100.0, AHORA);
+
+        assertTrue(resultado.aceptada());
+        assertEquals(100.0, resultado.precioActual());
+        assertEquals(9L, resultado.ganadorId());
+        assertEquals(List.of(new PujaEfectiva(9L, 100.0)), estado.getPujasEfectivas());
+    }
+
+    @Test
+    @DisplayName("Debería exigir el incremento mínimo sobre el precio actual")
+    void deberiaExigirIncrementoMinimo() {
+        // Given
+        estado.aplicarPuja(9L, 100.0, AHORA);
+
+        // When
+        ResultadoPujaDTO insuficiente = estado.aplicarPuja(8L, 105.0, AHORA);
+        ResultadoPujaDTO justa = estado.aplicarPuja(8L, 110.0, AHORA);
+
+        // Then
+        assertFalse(insuficiente.aceptada());
+        assertEquals("El monto debe ser al menos 110.0", insuficiente.motivo());
+        assertTrue(justa.aceptada());
+        assertEquals(110.0, justa.precioActual());
+        assertEquals(8L, justa.ganadorId());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una primera puja menor al precio inicial")
+    void deberiaRechazarPrimeraPujaMenorAlPrecioInicial() {
+        ResultadoPujaDTO resultado = estado.aplicarPuja(9L, 99.0, AHORA);
+
+        assertFalse(resultado.aceptada());
+        assertNull(resultado.ganadorId());
+        assertTrue(estado.getPujasEfectivas().isEmpty());
+    }
+
+    // --------- Compra inmediata ----------
+
+    @Test
+    @DisplayName("Debería cerrar al precio de compra inmediata una puja que lo supera")
+    void deberiaTopearEnCompraInmediata() {
+        // Given
+        estado = new EstadoSubasta(crearSubasta(500.0, OffsetDateTime.now().minusHours(1)), new CierreSuave(0, 0));
+
+        // When
+        ResultadoPujaDTO resultado = estado.aplicarPuja(9L, 650.0, AHORA);
+
+        // Then: el precio no pasa de la compra inmediata y la subasta queda cerrada
+        assertTrue(resultado.aceptada());
+        assertEquals(500.0, resultado.precioActual());
+        assertEquals(9L, resultado.ganadorId());
+        assertEquals(SubastaEstado.FINALIZADA, resultado.estado());
+    }
+
+    @Test
+    @DisplayName("Debería topear en la compra inmediata a una automática que la alcanza")
+    void deberiaTopearAutomaticaEnCompraInmediata() {
+        estado = new EstadoSubasta(crearSubasta(500.0, OffsetDateTime.now().minusHours(1)), new CierreSuave(0, 0));
+        estado.registrarMaxima(7L, 900.0, AHORA);
+
+        ResultadoPujaDTO resultado = estado.registrarMaxima(8L, 800.0, AHORA);
+
+        assertEquals(500.0, resultado.precioActual());
+        assertEquals(7L, resultado.ganadorId());
+        assertEquals(SubastaEstado.FINALIZADA, resultado.estado());
+    }
+
+    @Test
+    @DisplayName("Debería aceptar solo la primera compra inmediata")
+    void deberiaAceptarSoloLaPrimeraCompra() {
+        // Given
+        estado = new EstadoSubasta(crearSubasta(500.0, OffsetDateTime.now().minusHours(1)), new CierreSuave(0, 0));
+
+        // When
+        ResultadoPujaDTO primera = estado.comprarAhora(9L, AHORA);
+        ResultadoPujaDTO segunda = estado.comprarAhora(8L, AHORA);
+        ResultadoPujaDTO puja = estado.aplicarPuja(8L, 600.0, AHORA);
+
+        // Then
+        assertTrue(primera.aceptada());
+        assertFalse(segunda.aceptada());
+        assertFalse(puja.aceptada());
+        assertEquals(9L, puja.ganadorId());
+        assertEquals(SubastaEstado.FINALIZADA, puja.estado());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar la compra inmediata si la subasta no tiene ese precio")
+    void deberiaRechazarCompraSinPrecio() {
+        ResultadoPujaDTO resultado = estado.comprarAhora(9L, AHORA);
+
+        assertFalse(resultado.aceptada());
+        assertEquals("La subasta no tiene precio de compra inmediata", resultado.motivo());
+    }
+
+    // --------- Subastas cerradas o no iniciadas ----------
+
+    @Test
+    @DisplayName("Debería rechazar pujas una vez alcanzada la fecha de fin")
+    void deberiaRechazarPujasVencidas() {
+        long despuesDelFin = AHORA + TimeUnit.HOURS.toMillis(2);
+
+        assertFalse(estado.aplicarPuja(9L, 200.0, despuesDelFin).aceptada());
+        assertFalse(estado.registrarMaxima(9L, 200.0, despuesDelFin).aceptada());
+        assertEquals("La subasta ya finalizó", estado.aplicarPuja(9L, 200.0, despuesDelFin).motivo());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar pujas antes de la fecha de inicio")
+    void deberiaRechazarPujasAntesDelInicio() {
+        // Given: ACTIVA por error pero con inicio dentro de una hora
+        estado = new EstadoSubasta(crearSubasta(500.0, OffsetDateTime.now().plusHours(1)), new CierreSuave(0, 0));
+
+        // When
+        ResultadoPujaDTO puja = estado.aplicarPuja(9L, 200.0, AHORA);
+        ResultadoPujaDTO compra = estado.comprarAhora(9L, AHORA);
+
+        // Then
+        assertFalse(puja.aceptada());
+        assertEquals("La subasta todavía no comenzó", puja.motivo());
+        assertFalse(compra.aceptada());
+        assertEquals(100.0, compra.precioActual());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar pujas sobre una subasta que no está ACTIVA")
+    void deberiaRechazarSubastaNoActiva() {
+        Subasta finalizada = crearSubasta(null, OffsetDateTime.now().minusHours(1));
+        finalizada.setEstado(SubastaEstado.FINALIZADA);
+        estado = new EstadoSubasta(finalizada, new CierreSuave(0, 0));
+
+        ResultadoPujaDTO resultado = estado.aplicarPuja(9L, 200.0, AHORA);
+
+        assertFalse(resultado.aceptada());
+        assertEquals("La subasta no está activa", resultado.motivo());
+    }
+
+    // --------- Pujas automáticas ----------
+
+    @Test
+    @DisplayName("Debería abrir la subasta al precio inicial con la primera automática")
+    void deberiaAbrirAlPrecioInicial() {
+        // When
+        ResultadoPujaDTO resultado = estado.registrarMaxima(7L, 500.0, AHORA);
+
+        // Then
+        assertTrue(resultado.aceptada());
+        assertEquals(100.0, resultado.precioActual());
+        assertEquals(7L, resultado.ganadorId());
+        assertEquals(List.of(new PujaEfectiva(7L, 100.0)), estado.getPujasEfectivas());
+    }
+
+    @Test
+    @DisplayName("Debería resolver dos automáticas a un incremento del segundo máximo")
+    void deberiaResolverContraElSegundoMaximo() {
+        // Given
+        estado.registrarMaxima(7L, 500.0, AHORA);
+
+        // When
+        ResultadoPujaDTO resultado = estado.registrarMaxima(8L, 300.0, AHORA);
+
+        // Then: sin escalada de a un incremento, solo las dos pujas efectivas
+        assertEquals(310.0, resultado.precioActual());
+        assertEquals(7L, resultado.ganadorId());
+        assertEquals(List.of(new PujaEfectiva(8L, 300.0), new PujaEfectiva(7L, 310.0)),
+                estado.getPujasEfectivas());
+    }
+
+    @Test
+    @DisplayName("Debería topear el precio en el máximo del líder y desempatar por antigüedad")
+    void deberiaTopearEnElMaximoDelLider() {
+        estado.registrarMaxima(7L, 300.0, AHORA);
+        ResultadoPujaDTO resultado = estado.registrarMaxima(8L, 300.0, AHORA);
+
+        assertEquals(300.0, resultado.precioActual());
+        assertEquals(7L, resultado.ganadorId());
+    }
+
+    @Test
+    @DisplayName("Debería superar en el acto una puja manual menor al máximo")
+    void deberiaSuperarPujaManual() {
+        // Given
+        estado.registrarMaxima(7L, 500.0, AHORA);
+
+        // When
+        ResultadoPujaDTO resultado = estado.aplicarPuja(9L, 200.0, AHORA);
+
+        // Then
+        assertTrue(resultado.aceptada());
+        assertEquals(210.0, resultado.precioActual());
+        assertEquals(7L, resultado.ganadorId());
+        assertEquals(List.of(new PujaEfectiva(9L, 200.0), new PujaEfectiva(7L, 210.0)),
+                estado.getPujasEfectivas());
+    }
+
+    @Test
+    @DisplayName("Debería dejar ganar a una puja manual que supera todos los máximos")
+    void deberiaGanarPujaManualMayor() {
+        estado.registrarMaxima(7L, 500.0, AHORA);
+
+        ResultadoPujaDTO resultado = estado.aplicarPuja(9L, 600.0, AHORA);
+
+        assertEquals(600.0, resultado.precioActual());
+        assertEquals(9L, resultado.ganadorId());
+        assertEquals(List.of(new PujaEfectiva(9L, 600.0)), estado.getPujasEfectivas());
+    }
+
+    @Test
+    @DisplayName("Debería permitir al líder subir su tope sin mover el precio")
+    void deberiaSubirTopeSinMoverPrecio() {
+        estado.registrarMaxima(7L, 300.0, AHORA);
+
+        ResultadoPujaDTO resultado = estado.registrarMaxima(7L, 800.0, AHORA);
+
+        assertTrue(resultado.aceptada());
+        assertEquals(100.0, resultado.precioActual());
+        assertTrue(estado.getPujasEfectivas().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un máximo que no alcanza el próximo monto válido")
+    void deberiaRechazarMaximoInsuficiente() {
+        estado.aplicarPuja(9L, 150.0, AHORA);
+
+        ResultadoPujaDTO resultado = estado.registrarMaxima(7L, 155.0, AHORA);
+
+        assertFalse(resultado.aceptada());
+        assertEquals(9L, resultado.ganadorId());
+    }
+
+    // --------- Helpers ----------
+    private static Subasta crearSubasta(Double compraInmediata, OffsetDateTime fechaInicio) {
+        Subasta subasta = new Subasta();
+        subasta.setIdSubasta(1L);
+        subasta.setFechaInicio(fechaInicio);
+        subasta.setFechaFin(OffsetDateTime.now().plusHours(1));
+        subasta.setPrecioInicial(100.0);
+        subasta.setPrecioActual(100.0);
+        subasta.setIncrementoMinimo(10.0);
+        subasta.setCompraInmediata(compraInmediata);
+        subasta.setEstado(SubastaEstado.ACTIVA);
+        return subasta;
+    }
+}
@@ -0,0 +1,225 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ar.edu.huergo.fastbid.dto.subastas.PrecioSubastaDTO;
+import ar.edu.huergo.fastbid.dto.subastas.ResultadoPujaDTO;
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import ar.edu.huergo.fastbid.repository.subastas.PujaAutomaticaRepository;
+import ar.edu.huergo.fastbid.repository.subastas.SubastaRepository;
+import ar.edu.huergo.fastbid.service.subastas.DiarioPujas.RegistroPuja;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Unidad - MotorPujas")
+class MotorPujasTest {
+
+    @Mock
+    private SubastaRepository subastaRepository;
+
+    @Mock
+    private PujaAutomaticaRepository pujaAutomaticaRepository;
+
+    @Mock
+    private PersistidorPujas persistidorPujas;
+
+    @Mock
+    private DifusorPrecios difusorPrecios;
+
+    private MotorPujas motorPujas;
+
+    @BeforeEach
+    void setUp() {
+        // Sin diario: cada escritura se da por durable en el acto
+        motorPujas = new MotorPujas(subastaRepository, pujaAutomaticaRepository, persistidorPujas,
+                new DiarioPujas(false, "sin-uso", 1, 0), difusorPrecios, new CierreSuave(0, 0), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        motorPujas.detener();
+    }
+
+    @Test
+    @DisplayName("Debería aplicar en orden las pujas concurrentes sobre una misma subasta")
+    void deberiaSerializarPujasDeUnaSubasta() {
+        // Given
+        motorPujas.registrar(crearSubasta(1L, null));
+
+        // When: cuatro postores compiten con los mismos montos a la vez
+        List<CompletableFuture<ResultadoPujaDTO>> futuros = new ArrayList<>();
+        for (int monto = 110; monto <= 600; monto += 10) {
+            for (long usuario = 1; usuario <= 4; usuario++) {
+                futuros.add(motorPujas.pujar(1L, usuario, monto));
+            }
+        }
+        List<ResultadoPujaDTO> resultados = futuros.stream().map(CompletableFuture::join).toList();
+
+        // Then: cada monto se acepta una sola vez y se entrega al persistidor en orden creciente
+        long aceptadas = resultados.stream().filter(ResultadoPujaDTO::aceptada).count();
+        ArgumentCaptor<PujaAceptada> captor = ArgumentCaptor.forClass(PujaAceptada.class);
+        verify(persistidorPujas, times((int) aceptadas)).encolar(captor.capture());
+        List<PujaAceptada> encoladas = captor.getAllValues();
+        assertEquals(50, encoladas.size());
+        for (int i = 1; i < encoladas.size(); i++) {
+            assertTrue(encoladas.get(i).monto() >= encoladas.get(i - 1).monto() + 10.0);
+        }
+        assertEquals(600.0, encoladas.get(encoladas.size() - 1).precioActual());
+    }
+
+    @Test
+    @DisplayName("Debería entregar al persistidor la puja aceptada con el estado que dejó")
+    void deberiaEntregarPujaAlPersistidor() {
+        // Given
+        motorPujas.registrar(crearSubasta(1L, null));
+
+        // When
+        ResultadoPujaDTO aceptada = motorPujas.pujar(1L, 7L, 150.0).join();
+        ResultadoPujaDTO rechazada = motorPujas.pujar(1L, 8L, 155.0).join();
+
+        // Then: solo la aceptada llega al persistidor y se difunde
+        assertTrue(aceptada.aceptada());
+        assertFalse(rechazada.aceptada());
+        ArgumentCaptor<PujaAceptada> captor = ArgumentCaptor.forClass(PujaAceptada.class);
+        verify(persistidorPujas).encolar(captor.capture());
+        PujaAceptada puja = captor.getValue();
+        assertEquals(1L, puja.subastaId());
+        assertEquals(7L, puja.usuarioId());
+        assertEquals(150.0, puja.monto());
+        assertEquals(7L, puja.ganadorId());
+        assertEquals(SubastaEstado.ACTIVA, puja.estado());
+        verify(difusorPrecios).publicar(new PrecioSubastaDTO(1L, 150.0, 7L, SubastaEstado.ACTIVA));
+    }
+
+    @Test
+    @DisplayName("Debería sacar del motor la subasta cerrada por compra inmediata")
+    void deberiaSacarSubastaCerradaDelMotor() {
+        // Given
+        motorPujas.registrar(crearSubasta(1L, 500.0));
+
+        // When
+        ResultadoPujaDTO compra = motorPujas.comprarAhora(1L, 7L).join();
+        ResultadoPujaDTO posterior = motorPujas.pujar(1L, 8L, 600.0).join();
+
+        // Then
+        assertTrue(compra.aceptada());
+        assertEquals(SubastaEstado.FINALIZADA, compra.estado());
+        assertFalse(posterior.aceptada());
+        verify(persistidorPujas, times(1)).encolar(any(PujaAceptada.class));
+    }
+
+    @Test
+    @DisplayName("Debería procesar de forma independiente subastas de distintos shards")
+    void deberiaAislarSubastasPorShard() {
+        // Given: con dos shards, los ids 1 y 2 caen en hilos distintos
+        motorPujas.registrar(crearSubasta(1L, null));
+        motorPujas.registrar(crearSubasta(2L, null));
+
+        // When
+        ResultadoPujaDTO enUna = motorPujas.pujar(1L, 7L, 200.0).join();
+        ResultadoPujaDTO enOtra = motorPujas.pujar(2L, 8L, 100.0).join();
+        ResultadoPujaDTO inexistente = motorPujas.pujar(3L, 8L, 100.0).join();
+
+        // Then
+        assertEquals(200.0, enUna.precioActual());
+        assertEquals(100.0, enOtra.precioActual());
+        assertEquals(8L, enOtra.ganadorId());
+        assertFalse(inexistente.aceptada());
+    }
+
+    @Test
+    @DisplayName("Debería confirmar la puja aplicada aunque falle la sincronización del diario")
+    void deberiaConfirmarPujaAunqueFalleElDiario() {
+        // Given: un diario cuyo fsync falla
+        DiarioPujas diario = mock(DiarioPujas.class);
+        when(diario.registrar(anyLong(), anyLong(), anyDouble(), anyLong(), anyDouble(), anyLong(), anyLong(),
+                anyBoolean()))
+                .thenReturn(new DiarioPujas.Escritura(0, CompletableFuture.failedFuture(
+                        new UncheckedIOException(new IOException("disco lleno")))));
+        MotorPujas conDiario = new MotorPujas(subastaRepository, pujaAutomaticaRepository, persistidorPujas,
+                diario, difusorPrecios, new CierreSuave(0, 0), 1);
+        conDiario.registrar(crearSubasta(1L, null));
+
+        // When
+        ResultadoPujaDTO resultado = conDiario.pujar(1L, 7L, 150.0).join();
+        conDiario.detener();
+
+        // Then: la respuesta coincide con lo que ya se difundió
+        assertTrue(resultado.aceptada());
+        assertEquals(150.0, resultado.precioActual());
+        verify(difusorPrecios).publicar(new PrecioSubastaDTO(1L, 150.0, 7L, SubastaEstado.ACTIVA));
+    }
+
+    @Test
+    @DisplayName("Debería recuperar tras un crash la prórroga del cierre suave")
+    @SuppressWarnings("unchecked")
+    void deberiaRecuperarProrrogaTrasCrash(@TempDir Path directorio) throws Exception {
+        // Given: una puja dentro de la ventana corre el fin 10 minutos. El persistidor (mock)
+        // no escribe nada en la base: como tras un crash, la puja queda solo en el diario
+        when(persistidorPujas.identificadorEsquema()).thenReturn("base");
+        DiarioPujas anterior = new DiarioPujas(true, directorio.toString(), 8, 50);
+        anterior.abrir();
+        anterior.verificarEsquema("base");
+        MotorPujas antes = new MotorPujas(subastaRepository, pujaAutomaticaRepository, persistidorPujas,
+                anterior, difusorPrecios, new CierreSuave(7200, 600), 1);
+        Subasta subasta = crearSubasta(1L, null);
+        long finOriginal = subasta.getFechaFin().toInstant().toEpochMilli();
+        antes.registrar(subasta);
+        assertTrue(antes.pujar(1L, 7L, 150.0).join().aceptada());
+        antes.detener();
+        anterior.cerrar();
+
+        // When: el próximo arranque reproduce el diario
+        DiarioPujas siguiente = new DiarioPujas(true, directorio.toString(), 8, 50);
+        siguiente.abrir();
+        MotorPujas despues = new MotorPujas(subastaRepository, pujaAutomaticaRepository, persistidorPujas,
+                siguiente, difusorPrecios, new CierreSuave(7200, 600), 1);
+        despues.cargarSubastasActivas();
+        despues.detener();
+        siguiente.cerrar();
+
+        // Then: lo recuperado lleva la fecha de fin prorrogada, no la original
+        ArgumentCaptor<List<RegistroPuja>> captor = ArgumentCaptor.forClass((Class<List<RegistroPuja>>) (Class<?>) List.class);
+        verify(persistidorPujas).recuperar(captor.capture());
+        RegistroPuja recuperado = captor.getValue().get(0);
+        assertEquals(150.0, recuperado.precioActual());
+        assertEquals(finOriginal + 600_000, recuperado.fechaFinMillis());
+    }
+
+    // --------- Helpers ----------
+    private static Subasta crearSubasta(Long id, Double compraInmediata) {
+        Subasta subasta = new Subasta();
+        subasta.setIdSubasta(id);
+        subasta.setFechaInicio(OffsetDateTime.now().minusHours(1));
+        subasta.setFechaFin(OffsetDateTime.now().plusHours(1));
+        subasta.setPrecioInicial(100.0);
+        subasta.setPrecioActual(100.0);
+        subasta.setIncrementoMinimo(10.0);
+        subasta.setCompraInmediata(compraInmediata);
+        subasta.setEstado(SubastaEstado.ACTIVA);
+        return subasta;
+    }
+}
@@ -0,0 +1,129 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import ar.edu.huergo.fastbid.repository.subastas.SubastaRepository;
+import ar.edu.huergo.fastbid.repository.subastas.SubastaRepository.PlazosSubasta;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Tests de Unidad - PlanificadorSubastas")
+class PlanificadorSubastasTest {
+
+    private static final long ESPERA_MILLIS = 5_000;
+
+    @Mock
+    private SubastaRepository subastaRepository;
+
+    @Mock
+    private MotorPujas motorPujas;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PlanificadorSubastas planificador;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocacion -> invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(subastaRepository.findPlazosByEstadoIn(anyCollection())).thenReturn(List.of());
+        planificador = new PlanificadorSubastas(subastaRepository, motorPujas, transactionTemplate, 5, 64);
+        planificador.cargarPlazos();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        planificador.detener();
+    }
+
+    @Test
+    @DisplayName("Debería finalizar en la base una subasta vencida que el motor ya cerró")
+    void deberiaFinalizarSubastaVencida() {
+        // Given
+        when(motorPujas.finalizar(anyCollection(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of()));
+        when(subastaRepository.finalizarVencidas(anyCollection(), any(), any(), any())).thenReturn(1);
+
+        // When
+        planificador.programar(subastaActiva(1L, OffsetDateTime.now()));
+
+        // Then
+        verify(subastaRepository, timeout(ESPERA_MILLIS)).finalizarVencidas(eq(List.of(1L)), any(),
+                eq(SubastaEstado.ACTIVA), eq(SubastaEstado.FINALIZADA));
+        verify(subastaRepository, never()).findPlazosByIdSubastaInAndEstado(anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Debería reprogramar el cierre que el cierre suave prorrogó en memoria")
+    void deberiaReprogramarProrrogaDelMotor() {
+        // Given: el primer cierre encuentra la subasta prorrogada 200 ms
+        long nuevaFechaFin = System.currentTimeMillis() + 200;
+        when(motorPujas.finalizar(anyCollection(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(1L, nuevaFechaFin)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of()));
+        when(subastaRepository.finalizarVencidas(anyCollection(), any(), any(), any())).thenReturn(1);
+
+        // When
+        planificador.programar(subastaActiva(1L, OffsetDateTime.now()));
+
+        // Then: la primera pasada no toca la base; se finaliza recién en la segunda
+        verify(motorPujas, timeout(ESPERA_MILLIS).times(2)).finalizar(eq(List.of(1L)), anyLong());
+        verify(subastaRepository, timeout(ESPERA_MILLIS)).finalizarVencidas(eq(List.of(1L)), any(), any(), any());
+        verify(subastaRepository, times(1)).finalizarVencidas(anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debería reprogramar el cierre si la base tiene una fecha de fin prorrogada")
+    void deberiaReprogramarProrrogaDeLaBase() {
+        // Given: la primera vez el UPDATE no cierra nada porque la fecha de fin se corrió
+        PlazosSubasta plazos = mock(PlazosSubasta.class);
+        when(plazos.getIdSubasta()).thenReturn(1L);
+        when(plazos.getFechaFin()).thenReturn(OffsetDateTime.now().plusNanos(200_000_000));
+        when(motorPujas.finalizar(anyCollection(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of()));
+        when(subastaRepository.finalizarVencidas(anyCollection(), any(), any(), any()))
+                .thenReturn(0)
+                .thenReturn(1);
+        when(subastaRepository.findPlazosByIdSubastaInAndEstado(anyCollection(), eq(SubastaEstado.ACTIVA)))
+                .thenReturn(List.of(plazos));
+
+        // When
+        planificador.programar(subastaActiva(1L, OffsetDateTime.now()));
+
+        // Then
+        verify(subastaRepository, timeout(ESPERA_MILLIS).times(2)).finalizarVencidas(eq(List.of(1L)), any(),
+                any(), any());
+        verify(subastaRepository, times(1)).findPlazosByIdSubastaInAndEstado(List.of(1L), SubastaEstado.ACTIVA);
+    }
+
+    // --------- Helpers ----------
+    private static Subasta subastaActiva(Long id, OffsetDateTime fechaFin) {
+        Subasta subasta = new Subasta();
+        subasta.setIdSubasta(id);
+        subasta.setFechaInicio(fechaFin.minusHours(1));
+        subasta.setFechaFin(fechaFin);
+        subasta.setEstado(SubastaEstado.ACTIVA);
+        return subasta;
+    }
+}
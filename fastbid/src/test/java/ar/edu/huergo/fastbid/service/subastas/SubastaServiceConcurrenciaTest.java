@@ -0,0 +1,210 @@
+package ar.edu.huergo.fastbid.service.subastas;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.DoubleAccumulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ar.edu.huergo.fastbid.dto.subastas.ResultadoPujaDTO;
+import ar.edu.huergo.fastbid.entity.Producto;
+import ar.edu.huergo.fastbid.entity.security.Usuario;
+import ar.edu.huergo.fastbid.entity.subastas.Subasta;
+import ar.edu.huergo.fastbid.entity.subastas.SubastaEstado;
+import ar.edu.huergo.fastbid.repository.producto.ProductoRepository;
+import ar.edu.huergo.fastbid.repository.security.UsuarioRepository;
+import ar.edu.huergo.fastbid.repository.subastas.PujaRepository;
+import ar.edu.huergo.fastbid.repository.subastas.SubastaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tests de concurrencia del camino optimista de pujas contra H2.
+ *
+ * Varios postores pujan a la vez sobre la misma subasta; al final el precio guardado debe
+ * ser exactamente la mayor puja aceptada, cada puja aceptada debe estar registrada y la
+ * versión debe haber avanzado una vez por puja (ninguna escritura se perdió en silencio).
+ * Además se informa por el log el throughput de pujas aceptadas y la tasa de reintentos
+ * (métrica {@code fastbid.pujas.conflictos}).
+ * También se verifica que una ráfaga de compras inmediatas deje un único ganador.
+ */
+@Slf4j
+@SpringBootTest
+@DisplayName("Tests de Concurrencia - SubastaService")
+class SubastaServiceConcurrenciaTest {
+
+    private static final int PUJAS_POR_POSTOR = 40;
+
+    @Autowired
+    private SubastaService subastaService;
+
+    @Autowired
+    private SubastaRepository subastaRepository;
+
+    @Autowired
+    private PujaRepository pujaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @ParameterizedTest(name = "{0} postores concurrentes")
+    @ValueSource(ints = {2, 8, 64})
+    @DisplayName("No debería perder pujas con postores concurrentes")
+    void noDeberiaPerderPujasConPostoresConcurrentes(int postores) throws Exception {
+        // Given
+        Subasta subasta = crearSubastaActiva(null);
+        List<Long> usuarios = crearUsuarios(postores);
+        ExecutorService pool = Executors.newFixedThreadPool(postores);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicLong intentos = new AtomicLong();
+        AtomicLong aceptadas = new AtomicLong();
+        DoubleAccumulator mayorAceptada = new DoubleAccumulator(Math::max, 0);
+        double conflictosPrevios = conflictos();
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (Long usuarioId : usuarios) {
+            tareas.add(pool.submit(() -> {
+                largada.await();
+                double ultimoPrecio = subasta.getPrecioInicial();
+                for (int i = 0; i < PUJAS_POR_POSTOR; i++) {
+                    double monto = ultimoPrecio + subasta.getIncrementoMinimo();
+                    ResultadoPujaDTO resultado =
+                            subastaService.pujar(subasta.getIdSubasta(), usuarioId, monto);
+                    intentos.incrementAndGet();
+                    if (resultado.aceptada()) {
+                        aceptadas.incrementAndGet();
+                        mayorAceptada.accumulate(monto);
+                    }
+                    ultimoPrecio = resultado.precioActual();
+                }
+                return null;
+            }));
+        }
+
+        // When
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        pool.shutdown();
+        double reintentos = conflictos() - conflictosPrevios;
+        log.info("Contención: postores={} pujas={} aceptadas={} aceptadas/s={} reintentos={} ({} por puja)",
+                postores, intentos.get(), aceptadas.get(), String.format("%.0f", aceptadas.get() / segundos),
+                (long) reintentos, String.format("%.2f", reintentos / intentos.get()));
+
+        // Then
+        Subasta resultado = subastaRepository.findById(subasta.getIdSubasta()).orElseThrow();
+        assertEquals((long) postores * PUJAS_POR_POSTOR, intentos.get());
+        assertTrue(aceptadas.get() > 0);
+        assertEquals(mayorAceptada.get(), resultado.getPrecioActual());
+        assertEquals(aceptadas.get(), resultado.getVersion());
+        assertEquals(aceptadas.get(),
+                pujaRepository.findBySubastaIdOrderByMontoDesc(subasta.getIdSubasta()).size());
+    }
+
+    @Test
+    @DisplayName("Debería haber un único ganador con compras inmediatas simultáneas")
+    void deberiaHaberUnUnicoGanadorConComprasSimultaneas() throws Exception {
+        // Given
+        Subasta subasta = crearSubastaActiva(500.0);
+        List<Long> usuarios = crearUsuarios(64);
+        ExecutorService pool = Executors.newFixedThreadPool(usuarios.size());
+        CountDownLatch largada = new CountDownLatch(1);
+        ConcurrentLinkedQueue<ResultadoPujaDTO> ganadoras = new ConcurrentLinkedQueue<>();
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (Long usuarioId : usuarios) {
+            tareas.add(pool.submit(() -> {
+                largada.await();
+                ResultadoPujaDTO resultado = subastaService.comprarAhora(subasta.getIdSubasta(), usuarioId);
+                if (resultado.aceptada()) {
+                    ganadoras.add(resultado);
+                }
+                return null;
+            }));
+        }
+
+        // When
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        // Then
+        assertEquals(1, ganadoras.size());
+        Subasta resultado = subastaRepository.findById(subasta.getIdSubasta()).orElseThrow();
+        assertEquals(SubastaEstado.FINALIZADA, resultado.getEstado());
+        assertEquals(500.0, resultado.getPrecioActual());
+        assertEquals(ganadoras.peek().ganadorId(), resultado.getGanadorId());
+        assertEquals(1, pujaRepository.findBySubastaIdOrderByMontoDesc(subasta.getIdSubasta()).size());
+        assertFalse(subastaService.pujar(subasta.getIdSubasta(), usuarios.get(0), 600.0).aceptada());
+    }
+
+    // --------- Helpers ----------
+    private double conflictos() {
+        return meterRegistry.get("fastbid.pujas.conflictos").counter().count();
+    }
+
+    private Subasta crearSubastaActiva(Double compraInmediata) {
+        Producto producto = new Producto();
+        producto.setNombre("Reloj de bolsillo");
+        producto.setDescripcion("Plata 925");
+        producto.setPrecioInicial(100.0);
+        producto.setImagenes(List.of("http://example.com/reloj.jpg"));
+        producto.setCategoriaId(1L);
+        producto.setEstado("ACTIVO");
+        producto.setFechaPublicacion(LocalDateTime.now());
+        producto.setFechaFin(LocalDateTime.now().plusDays(1));
+        producto.setUsuarioId(1L);
+        producto.setCantidad(1);
+        producto = productoRepository.save(producto);
+
+        // Se guarda directo por el repositorio para que el motor en memoria no la tome
+        Subasta subasta = new Subasta();
+        subasta.setProductoId(producto.getIdProducto());
+        subasta.setFechaInicio(OffsetDateTime.now().minusMinutes(1));
+        subasta.setFechaFin(OffsetDateTime.now().plusHours(1));
+        subasta.setPrecioInicial(100.0);
+        subasta.setPrecioActual(100.0);
+        subasta.setIncrementoMinimo(1.0);
+        subasta.setCompraInmediata(compraInmediata);
+        subasta.setEstado(SubastaEstado.ACTIVA);
+        return subastaRepository.save(subasta);
+    }
+
+    private List<Long> crearUsuarios(int cantidad) {
+        String lote = UUID.randomUUID().toString().substring(0, 8);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Usuario usuario = new Usuario("postor" + i + "." + lote + "@test.com", "sin-uso");
+            ids.add(usuarioRepository.save(usuario).getId());
+        }
+        return ids;
+    }
+}
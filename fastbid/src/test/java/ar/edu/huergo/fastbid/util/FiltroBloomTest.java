@@ -0,0 +1,67 @@
+package ar.edu.huergo.fastbid.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests de Unidad - FiltroBloom")
+class FiltroBloomTest {
+
+    @Test
+    @DisplayName("Debería contener todo lo agregado (sin falsos negativos)")
+    void deberiaContenerLoAgregado() {
+        // Given
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        String[] agregados = new String[10_000];
+        for (int i = 0; i < agregados.length; i++) {
+            agregados[i] = UUID.randomUUID().toString();
+            filtro.agregar(agregados[i]);
+        }
+
+        // When / Then
+        for (String agregado : agregados) {
+            assertTrue(filtro.puedeContener(agregado));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería mantener los falsos positivos cerca de la tasa configurada")
+    void deberiaRespetarTasaDeFalsosPositivos() {
+        // Given
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar(UUID.randomUUID().toString());
+        }
+
+        // When
+        int positivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.puedeContener(UUID.randomUUID().toString())) {
+                positivos++;
+            }
+        }
+
+        // Then: 1% esperado, con margen
+        assertTrue(positivos < 2_000, "Falsos positivos: " + positivos);
+    }
+
+    @Test
+    @DisplayName("Debería ocupar unos pocos bits por elemento")
+    void deberiaOcuparPocaMemoria() {
+        FiltroBloom filtro = new FiltroBloom(1_000_000, 0.01);
+
+        // ~9,6 bits por elemento al 1%
+        assertTrue(filtro.bytes() < 1_300_000, "Bytes: " + filtro.bytes());
+        assertEquals(7, filtro.funciones());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar parámetros inválidos")
+    void deberiaRechazarParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(100, 1.0));
+    }
+}
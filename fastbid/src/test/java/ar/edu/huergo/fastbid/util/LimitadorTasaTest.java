@@ -0,0 +1,70 @@
+package ar.edu.huergo.fastbid.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests de Unidad - LimitadorTasa")
+class LimitadorTasaTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Debería permitir una ráfaga de hasta la capacidad y luego rechazar")
+    void deberiaPermitirRafagaHastaCapacidad() {
+        // Given: 5 de ráfaga, 1 por segundo
+        LimitadorTasa limitador = new LimitadorTasa(5, 1, 60 * SEGUNDO, 0);
+
+        // When / Then
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limitador.intentar("postor", 0));
+        }
+        long espera = limitador.intentar("postor", 0);
+        assertTrue(espera > 0 && espera <= SEGUNDO);
+    }
+
+    @Test
+    @DisplayName("Debería recargar tokens con el paso del tiempo")
+    void deberiaRecargarTokens() {
+        LimitadorTasa limitador = new LimitadorTasa(2, 2, 60 * SEGUNDO, 0);
+        limitador.intentar("postor", 0);
+        limitador.intentar("postor", 0);
+        assertTrue(limitador.intentar("postor", 0) > 0);
+
+        // Medio segundo después hay un token nuevo, y solo uno
+        assertEquals(0, limitador.intentar("postor", SEGUNDO / 2));
+        assertTrue(limitador.intentar("postor", SEGUNDO / 2) > 0);
+    }
+
+    @Test
+    @DisplayName("Debería llevar un balde independiente por clave")
+    void deberiaSepararClaves() {
+        LimitadorTasa limitador = new LimitadorTasa(1, 1, 60 * SEGUNDO, 0);
+
+        assertEquals(0, limitador.intentar("postor1", 0));
+        assertTrue(limitador.intentar("postor1", 0) > 0);
+        assertEquals(0, limitador.intentar("postor2", 0));
+    }
+
+    @Test
+    @DisplayName("Debería descartar los baldes ociosos")
+    void deberiaDescartarBaldesOciosos() {
+        // Given
+        LimitadorTasa limitador = new LimitadorTasa(10, 10, SEGUNDO, 0);
+        for (int i = 0; i < 1_000; i++) {
+            limitador.intentar("bot" + i, 0);
+        }
+        assertEquals(1_000, limitador.size());
+
+        // When: pasa más de una ociosidad y siguen llegando pedidos de otra clave
+        for (long ahora = 2 * SEGUNDO; ahora < 4 * SEGUNDO; ahora += SEGUNDO / 100) {
+            limitador.intentar("activo", ahora);
+        }
+
+        // Then
+        assertEquals(1, limitador.size());
+    }
+}
@@ -0,0 +1,51 @@
+package ar.edu.huergo.fastbid.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("Tests de Unidad - MergePatch")
+class MergePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode json(String texto) throws JsonProcessingException {
+        return objectMapper.readTree(texto.replace('\'', '"'));
+    }
+
+    @Test
+    @DisplayName("Debería reemplazar solo los campos presentes en el patch")
+    void deberiaReemplazarCamposPresentes() throws JsonProcessingException {
+        JsonNode resultado = MergePatch.aplicar(
+                json("{'nombre':'Taladro','precio':100,'imagenes':['a','b']}"),
+                json("{'precio':150}"));
+
+        assertEquals(json("{'nombre':'Taladro','precio':150,'imagenes':['a','b']}"), resultado);
+    }
+
+    @Test
+    @DisplayName("Debería borrar los campos en null y reemplazar arreglos completos")
+    void deberiaBorrarNullsYReemplazarArreglos() throws JsonProcessingException {
+        JsonNode resultado = MergePatch.aplicar(
+                json("{'nombre':'Taladro','ubicacion':'Rosario','imagenes':['a','b']}"),
+                json("{'ubicacion':null,'imagenes':['c']}"));
+
+        assertEquals(json("{'nombre':'Taladro','imagenes':['c']}"), resultado);
+    }
+
+    @Test
+    @DisplayName("Debería combinar objetos anidados recursivamente")
+    void deberiaCombinarObjetosAnidados() throws JsonProcessingException {
+        JsonNode documento = json("{'a':{'b':1,'c':2}}");
+
+        JsonNode resultado = MergePatch.aplicar(documento, json("{'a':{'c':null,'d':3}}"));
+
+        assertEquals(json("{'a':{'b':1,'d':3}}"), resultado);
+        assertEquals(json("{'a':{'b':1,'c':2}}"), documento); // no modifica el original
+    }
+}
@@ -0,0 +1,76 @@
+package ar.edu.huergo.fastbid.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests de Unidad - RuedaTemporizadora")
+class RuedaTemporizadoraTest {
+
+    @Test
+    @DisplayName("Debería disparar una tarea recién al llegar su vencimiento")
+    void deberiaDispararAlVencer() {
+        // Given
+        RuedaTemporizadora<String> rueda = new RuedaTemporizadora<>(10, 8, 0);
+        List<String> disparadas = new ArrayList<>();
+        rueda.agregar(25, "cerrar");
+
+        // When / Then
+        rueda.avanzar(24, disparadas::add);
+        assertTrue(disparadas.isEmpty());
+
+        rueda.avanzar(30, disparadas::add);
+        assertEquals(List.of("cerrar"), disparadas);
+        assertEquals(0, rueda.size());
+    }
+
+    @Test
+    @DisplayName("Debería disparar en el próximo avance una tarea ya vencida")
+    void deberiaDispararTareaYaVencida() {
+        RuedaTemporizadora<String> rueda = new RuedaTemporizadora<>(10, 8, 1_000);
+        List<String> disparadas = new ArrayList<>();
+
+        rueda.agregar(500, "atrasada");
+        rueda.avanzar(1_000, disparadas::add);
+
+        assertEquals(List.of("atrasada"), disparadas);
+    }
+
+    @Test
+    @DisplayName("Debería disparar plazos lejanos pasando por la cascada de niveles")
+    void deberiaDispararPlazosLejanos() {
+        // Given: 4 ranuras de 5ms -> los plazos de días necesitan muchos niveles
+        RuedaTemporizadora<long[]> rueda = new RuedaTemporizadora<>(5, 4, 0);
+        Random random = new Random(42);
+        Map<long[], Long> disparos = new HashMap<>();
+        List<long[]> tareas = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long[] tarea = {random.nextInt(3_000_000)};
+            tareas.add(tarea);
+            rueda.agregar(tarea[0], tarea);
+        }
+
+        // When: se avanza de a saltos irregulares
+        long ahora = 0;
+        while (ahora < 3_100_000) {
+            ahora += 1 + random.nextInt(50);
+            long momento = ahora;
+            rueda.avanzar(momento, tarea -> assertNull(disparos.put(tarea, momento)));
+        }
+
+        // Then: todas se dispararon una vez, nunca antes de tiempo
+        assertEquals(tareas.size(), disparos.size());
+        for (long[] tarea : tareas) {
+            long disparo = disparos.get(tarea);
+            assertTrue(disparo >= tarea[0], "Se disparó antes de su vencimiento");
+            assertTrue(disparo - tarea[0] < 5 + 50, "Se disparó demasiado tarde");
+        }
+    }
+}